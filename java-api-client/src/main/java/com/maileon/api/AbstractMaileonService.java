@@ -1,34 +1,49 @@
 package com.maileon.api;
 
+import com.maileon.api.metrics.EndpointTemplate;
+import com.maileon.api.metrics.MaileonSpan;
+import com.maileon.api.metrics.MaileonTracer;
+import com.maileon.api.metrics.MetricsRecorder;
+import com.maileon.api.metrics.RequestMetrics;
 import com.maileon.api.utils.GzipReaderWriterInterceptor;
+import org.glassfish.jersey.client.ClientProperties;
 import org.dom4j.DocumentHelper;
 import org.dom4j.Element;
-import org.glassfish.jersey.client.ClientProperties;
-import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
-import org.glassfish.jersey.logging.LoggingFeature;
-
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
+
+import javax.ws.rs.HttpMethod;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation.Builder;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status.Family;
-import javax.ws.rs.core.UriBuilder;
-import java.net.Proxy;
+import javax.ws.rs.core.Variant;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,17 +51,17 @@ import java.util.logging.Logger;
  * The <code>AbstractMaileonService</code> provides an abstract interface for all its subservices.
  *
  */
-public abstract class AbstractMaileonService {
+public abstract class AbstractMaileonService implements Closeable, Cloneable {
 
     private static final Logger logger = Logger.getLogger("Maileon");
 
-    private static final int LOGGING_MAX_ENTITY_SIZE = 131072;
-
     /**
      * The Constant MAILEON_XML_TYPE.
      */
     public static final MediaType MAILEON_XML_TYPE = new MediaType("application", "vnd.maileon.api+xml", "utf-8");
 
+    private static final String GZIP = "gzip";
+
     /**
      * The configuration.
      */
@@ -73,7 +88,22 @@ public abstract class AbstractMaileonService {
     private final String service;
 
     /**
-     * Instantiates a new abstract Maileon service.
+     * The HTTP transport, created lazily if the service was not constructed with a shared client.
+     */
+    private volatile MaileonClient client;
+
+    /**
+     * <code>true</code> if the service was constructed with a shared client, which is not closed by {@link #close()}.
+     */
+    private boolean sharedClient;
+
+    /**
+     * The options of all calls of this service, may be <code>null</code>.
+     */
+    private RequestOptions requestOptions;
+
+    /**
+     * Instantiates a new abstract Maileon service with its own HTTP transport.
      *
      * @param config The Maileon API-Configuration
      * @param service The concrete subservice
@@ -81,6 +111,22 @@ public abstract class AbstractMaileonService {
     public AbstractMaileonService(MaileonConfiguration config, String service) {
         this.config = config;
         this.service = service;
+        this.sharedClient = false;
+
+        this.debug = config.isDebug();
+    }
+
+    /**
+     * Instantiates a new abstract Maileon service using a shared HTTP transport.
+     *
+     * @param client The shared Maileon client
+     * @param service The concrete subservice
+     */
+    public AbstractMaileonService(MaileonClient client, String service) {
+        this.config = client.getConfiguration();
+        this.service = service;
+        this.sharedClient = true;
+        this.client = client;
 
         this.debug = config.isDebug();
     }
@@ -95,7 +141,8 @@ public abstract class AbstractMaileonService {
     }
 
     /**
-     * Sets the debug.
+     * Sets the debug. Requests and responses are logged if debug is set before the first call of a service constructed with a {@link MaileonConfiguration}. A shared
+     * {@link MaileonClient} logs requests only if {@link MaileonConfiguration#setDebug(boolean)} was set when it was built.
      *
      * @param debug the new debug
      */
@@ -120,6 +167,53 @@ public abstract class AbstractMaileonService {
         this.requestCompressionEnabled = requestCompressionEnabled;
     }
 
+    /**
+     * Gets the options of all calls of this service.
+     *
+     * @return the options or <code>null</code>
+     */
+    public RequestOptions getRequestOptions() {
+        return requestOptions;
+    }
+
+    /**
+     * Sets the options of all calls of this service, e.g. shorter timeouts than configured in {@link MaileonConfiguration}.
+     *
+     * @param requestOptions the options or <code>null</code>
+     */
+    public void setRequestOptions(RequestOptions requestOptions) {
+        this.requestOptions = requestOptions;
+    }
+
+    /**
+     * Creates a copy of this service making its calls with other options. Options not set are inherited from this service. The copy uses the client of this service and is
+     * not affected by later changes of this service.
+     *
+     * <pre>
+     * MaileonContactsService limited = contactsService.withOptions(new RequestOptions().setTimeoutMillis(5000));
+     * Page&lt;Contact&gt; page = limited.getContacts(null, null, 1, 1000);
+     * </pre>
+     *
+     * @param <S> the type of this service
+     * @param options the options of the calls
+     * @return the copy of this service
+     */
+    @SuppressWarnings("unchecked")
+    public <S extends AbstractMaileonService> S withOptions(RequestOptions options) {
+        MaileonClient c = getClient();
+        AbstractMaileonService copy;
+        try {
+            copy = (AbstractMaileonService) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        // closing the copy must not close the client of this service
+        copy.client = c;
+        copy.sharedClient = true;
+        copy.requestOptions = options == null ? requestOptions : options.inherit(requestOptions);
+        return (S) copy;
+    }
+
     //GET
     /**
      * Represents GET request.
@@ -154,11 +248,25 @@ public abstract class AbstractMaileonService {
      * @throws MaileonException the Maileon exception
      */
     protected ResponseWrapper get(String path, QueryParameters parameters, MediaType mediaType) throws MaileonException {
-        Response cr = getBuilder(path, parameters).accept(mediaType).get();
-        ResponseWrapper resp = new ResponseWrapper(cr);
+        return execute(HttpMethod.GET, path, parameters, mediaType, null, false);
+    }
 
-        analyzeStatusCode(resp);
-        return resp;
+    /**
+     * Represents a GET request whose response is read directly from the stream instead of being buffered. The response is closed when the reader returns, so the reader must
+     * not keep a reference to it.
+     *
+     * @param <T> the type of the result
+     * @param path The path to the corresponding resources
+     * @param parameters The parameters of the GET request
+     * @param mediaType The required media type
+     * @param reader The function reading the response
+     * @return The result of the reader
+     * @throws MaileonException the Maileon exception
+     */
+    protected <T> T getStreaming(String path, QueryParameters parameters, MediaType mediaType, Function<ResponseWrapper, T> reader) throws MaileonException {
+        Call call = new Call(HttpMethod.GET, path, parameters, mediaType, null, false);
+        call.streaming = true;
+        return execute(call, reader);
     }
 
     //POST
@@ -202,11 +310,7 @@ public abstract class AbstractMaileonService {
         if (entity == null) {
             entity = "";
         }
-        Response cr = getBuilder(path, parameters).accept(mediaType).post(Entity.entity(entity, mediaType));
-
-        ResponseWrapper resp = new ResponseWrapper(cr);
-        analyzeStatusCode(resp);
-        return resp;
+        return execute(HttpMethod.POST, path, parameters, mediaType, Entity.entity(entity, mediaType), false);
     }
 
     /**
@@ -227,11 +331,28 @@ public abstract class AbstractMaileonService {
         if (entity == null) {
             entity = "";
         }
-        Response cr = getBuilder(path, parameters).accept(responseMediaType).post(Entity.entity(entity, requestMediaType));
+        return execute(HttpMethod.POST, path, parameters, responseMediaType, Entity.entity(entity, requestMediaType), false);
+    }
 
-        ResponseWrapper resp = new ResponseWrapper(cr);
-        analyzeStatusCode(resp);
-        return resp;
+    /**
+     * Represents a POST request which may be repeated without side effects, e.g. a synchronization of contacts. Unlike other POST requests it is retried according to the
+     * {@link RetryPolicy}.
+     *
+     * @param path The path to the corresponding resources
+     * @param parameters The parameters of the POST request
+     * @param requestMediaType media type of request
+     * @param responseMediaType media type of response
+     * @param entity The entity to post as an object type
+     * @return The response as a {@link ResponseWrapper}
+     * @throws MaileonException the Maileon exception
+     */
+    protected ResponseWrapper postIdempotent(String path, QueryParameters parameters, MediaType requestMediaType, MediaType responseMediaType, Object entity)
+            throws MaileonException {
+        // Entity must not be null
+        if (entity == null) {
+            entity = "";
+        }
+        return execute(HttpMethod.POST, path, parameters, responseMediaType, Entity.entity(entity, requestMediaType), true);
     }
 
     /**
@@ -274,11 +395,7 @@ public abstract class AbstractMaileonService {
         if (entity == null) {
             entity = "";
         }
-        Response cr = getBuilder(path, parameters).put(Entity.entity(entity, mediaType));
-        ResponseWrapper resp = new ResponseWrapper(cr);
-
-        analyzeStatusCode(resp);
-        return resp;
+        return execute(HttpMethod.PUT, path, parameters, null, Entity.entity(entity, mediaType), false);
     }
 
     /**
@@ -314,31 +431,764 @@ public abstract class AbstractMaileonService {
      * @throws MaileonException the Maileon exception
      */
     protected ResponseWrapper delete(String path, QueryParameters parameters, MediaType mediaType) throws MaileonException {
-        Response cr = getBuilder(path, parameters).accept(mediaType).delete();
-        ResponseWrapper resp = new ResponseWrapper(cr);
-        analyzeStatusCode(resp);
+        return execute(HttpMethod.DELETE, path, parameters, mediaType, null, false);
+    }
+
+    //ASYNC
+    /**
+     * Represents an asynchronous GET request with parameters and media type. The returned future completes exceptionally with a {@link MaileonException} if the request was not
+     * successful.
+     *
+     * @param path The path to the corresponding resources
+     * @param parameters The parameters of the GET request
+     * @param mediaType The required media type
+     * @return The future response as a {@link ResponseWrapper}
+     */
+    protected CompletableFuture<ResponseWrapper> getAsync(String path, QueryParameters parameters, MediaType mediaType) {
+        return executeAsync(HttpMethod.GET, path, parameters, mediaType, null, false);
+    }
+
+    /**
+     * Represents an asynchronous GET request whose response is read directly from the stream instead of being buffered.
+     *
+     * @param <T> the type of the result
+     * @param path The path to the corresponding resources
+     * @param parameters The parameters of the GET request
+     * @param mediaType The required media type
+     * @param reader The function reading the response
+     * @return The future result of the reader
+     * @see #getStreaming(String, QueryParameters, MediaType, Function)
+     */
+    protected <T> CompletableFuture<T> getStreamingAsync(String path, QueryParameters parameters, MediaType mediaType, Function<ResponseWrapper, T> reader) {
+        Call call = new Call(HttpMethod.GET, path, parameters, mediaType, null, false);
+        call.streaming = true;
+        return executeAsync(call, reader);
+    }
+
+    /**
+     * Represents an asynchronous POST request with parameters and media type.
+     *
+     * @param path The path to the corresponding resources
+     * @param parameters The parameters of the POST request
+     * @param requestMediaType media type of request
+     * @param responseMediaType media type of response
+     * @param entity The entity to post as an object type
+     * @return The future response as a {@link ResponseWrapper}
+     */
+    protected CompletableFuture<ResponseWrapper> postAsync(String path, QueryParameters parameters, MediaType requestMediaType, MediaType responseMediaType, Object entity) {
+        // Entity must not be null
+        if (entity == null) {
+            entity = "";
+        }
+        return executeAsync(HttpMethod.POST, path, parameters, responseMediaType, Entity.entity(entity, requestMediaType), false);
+    }
+
+    /**
+     * Represents an asynchronous POST request which may be repeated without side effects.
+     *
+     * @param path The path to the corresponding resources
+     * @param parameters The parameters of the POST request
+     * @param requestMediaType media type of request
+     * @param responseMediaType media type of response
+     * @param entity The entity to post as an object type
+     * @return The future response as a {@link ResponseWrapper}
+     * @see #postIdempotent(String, QueryParameters, MediaType, MediaType, Object)
+     */
+    protected CompletableFuture<ResponseWrapper> postIdempotentAsync(String path, QueryParameters parameters, MediaType requestMediaType, MediaType responseMediaType,
+            Object entity) {
+        // Entity must not be null
+        if (entity == null) {
+            entity = "";
+        }
+        return executeAsync(HttpMethod.POST, path, parameters, responseMediaType, Entity.entity(entity, requestMediaType), true);
+    }
+
+    /**
+     * Represents an asynchronous PUT request with parameters and media type.
+     *
+     * @param path The path to the corresponding resources
+     * @param parameters The parameters of the PUT request
+     * @param mediaType The required media type
+     * @param entity The entity to put as an object type
+     * @return The future response as a {@link ResponseWrapper}
+     */
+    protected CompletableFuture<ResponseWrapper> putAsync(String path, QueryParameters parameters, MediaType mediaType, Object entity) {
+        // Entity must not be null
+        if (entity == null) {
+            entity = "";
+        }
+        return executeAsync(HttpMethod.PUT, path, parameters, null, Entity.entity(entity, mediaType), false);
+    }
+
+    /**
+     * Represents an asynchronous DELETE request with parameters and media type.
+     *
+     * @param path The path to the corresponding resources
+     * @param parameters The parameters of the DELETE request
+     * @param mediaType The required media type
+     * @return The future response as a {@link ResponseWrapper}
+     */
+    protected CompletableFuture<ResponseWrapper> deleteAsync(String path, QueryParameters parameters, MediaType mediaType) {
+        return executeAsync(HttpMethod.DELETE, path, parameters, mediaType, null, false);
+    }
+
+    /**
+     * Creates a future which is already completed with the given exception. Used by asynchronous services to report validation errors.
+     *
+     * @param <T> the type of the future
+     * @param e the exception
+     * @return the failed future
+     */
+    protected static <T> CompletableFuture<T> failedFuture(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    /**
+     * Executes an asynchronous request for each key with a bounded number of requests in flight and waits for all of them. Duplicate and <code>null</code> keys are
+     * skipped. A failing key is reported in the result and does not stop the other keys.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the results
+     * @param keys the keys
+     * @param maxConcurrency the maximum number of requests in flight
+     * @param request starts the request of a key
+     * @return the results and errors by key
+     * @throws MaileonClientException if the calling thread was interrupted
+     */
+    protected static <K, V> BatchResult<K, V> executeBatch(Collection<K> keys, int maxConcurrency, Function<K, CompletableFuture<V>> request)
+            throws MaileonClientException {
+        if (keys == null) {
+            throw new MaileonClientException("keys cannot be null");
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be > 0 - found: " + maxConcurrency);
+        }
+        Set<K> uniqueKeys = new LinkedHashSet<>(keys);
+        uniqueKeys.remove(null);
+        Map<K, V> results = new ConcurrentHashMap<>();
+        Map<K, MaileonException> errors = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        List<CompletableFuture<V>> started = new ArrayList<>();
+        try {
+            for (K key : uniqueKeys) {
+                inFlight.acquire();
+                CompletableFuture<V> future;
+                try {
+                    future = request.apply(key);
+                } catch (RuntimeException e) {
+                    future = failedFuture(e);
+                }
+                started.add(future);
+                future.whenComplete((result, t) -> {
+                    if (t != null) {
+                        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+                        errors.put(key, cause instanceof MaileonException ? (MaileonException) cause : new MaileonClientException("request failed", cause));
+                    } else if (result != null) {
+                        results.put(key, result);
+                    }
+                    inFlight.release();
+                });
+            }
+            inFlight.acquire(maxConcurrency);
+            inFlight.release(maxConcurrency);
+        } catch (InterruptedException e) {
+            for (CompletableFuture<V> future : started) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new MaileonClientException("interrupted while waiting for responses", e);
+        }
+        // keep the order of the requested keys
+        Map<K, V> orderedResults = new LinkedHashMap<>();
+        Map<K, MaileonException> orderedErrors = new LinkedHashMap<>();
+        for (K key : uniqueKeys) {
+            if (results.containsKey(key)) {
+                orderedResults.put(key, results.get(key));
+            } else if (errors.containsKey(key)) {
+                orderedErrors.put(key, errors.get(key));
+            }
+        }
+        return new BatchResult<>(orderedResults, orderedErrors);
+    }
+
+    /**
+     * Executes a request, retries it according to the {@link RetryPolicy} and checks the status code of the response.
+     *
+     * @param method the HTTP method
+     * @param path the path
+     * @param parameters the parameters
+     * @param accept the accepted media type of the response, may be <code>null</code>
+     * @param entity the request entity, may be <code>null</code>
+     * @param idempotent <code>true</code> if a POST request may be retried
+     * @return the response
+     * @throws MaileonException the Maileon exception
+     */
+    private ResponseWrapper execute(String method, String path, QueryParameters parameters, MediaType accept, Entity<?> entity, boolean idempotent) throws MaileonException {
+        return execute(new Call(method, path, parameters, accept, entity, idempotent), Function.identity());
+    }
+
+    /**
+     * Executes a call and reads the response. Streamed responses are closed after reading.
+     *
+     * @param <T> the type of the result
+     * @param call the call
+     * @param reader the function reading the response
+     * @return the result
+     * @throws MaileonException the Maileon exception
+     */
+    private <T> T execute(Call call, Function<ResponseWrapper, T> reader) throws MaileonException {
+        if (call.hasDeadline() || call.cancellation != null) {
+            return executeAbortable(call, reader);
+        }
+        ResponseWrapper resp = null;
+        T result;
+        try {
+            resp = executeBlocking(call);
+            result = reader.apply(resp);
+        } catch (RuntimeException | Error e) {
+            call.finish(e);
+            throw e;
+        } finally {
+            if (call.streaming && resp != null) {
+                resp.close();
+            }
+        }
+        call.finish(null);
+        return result;
+    }
+
+    /**
+     * Executes a call with a total timeout or a cancellation token. The response is awaited and read on the calling thread. On timeout or cancellation the caller returns
+     * immediately, even if the request is still on the wire, and a response which is being read is closed.
+     *
+     * @param <T> the type of the result
+     * @param call the call
+     * @param reader the function reading the response
+     * @return the result
+     * @throws MaileonException the Maileon exception
+     */
+    private <T> T executeAbortable(Call call, Function<ResponseWrapper, T> reader) throws MaileonException {
+        CompletableFuture<ResponseWrapper> result = new CompletableFuture<>();
+        AtomicReference<RuntimeException> abortedBy = new AtomicReference<>();
+        Consumer<RuntimeException> abort = e -> {
+            if (!abortedBy.compareAndSet(null, e)) {
+                return;
+            }
+            if (!result.completeExceptionally(e) && !result.isCompletedExceptionally()) {
+                // the response is being read, closing it stops the reader
+                result.join().close();
+            }
+            call.abort();
+        };
+        Runnable cancel = () -> abort.accept(new CancellationException("request cancelled: " + call.method + " " + call.path));
+        if (call.cancellation != null) {
+            call.cancellation.addListener(cancel);
+        }
+        ScheduledFuture<?> timeout = !call.hasDeadline() ? null : DelayScheduler.schedule(
+                () -> abort.accept(new MaileonTimeoutException("request timed out after " + call.timeoutMillis + " ms: " + call.method + " " + call.path)),
+                Math.max(0L, call.getRemainingMillis()), TimeUnit.MILLISECONDS);
+        ResponseWrapper resp = null;
+        T value;
+        try {
+            executeAsync(call, result);
+            resp = await(result);
+            analyzeStatusCode(resp);
+            value = reader.apply(resp);
+        } catch (RuntimeException | Error e) {
+            call.abort();
+            RuntimeException aborted = abortedBy.get();
+            call.finish(aborted != null ? aborted : e);
+            if (aborted != null) {
+                throw aborted;
+            }
+            throw e;
+        } finally {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            if (call.cancellation != null) {
+                call.cancellation.removeListener(cancel);
+            }
+            if (call.streaming && resp != null) {
+                resp.close();
+            }
+        }
+        call.finish(null);
+        return value;
+    }
+
+    /**
+     * Executes a call on the calling thread, retries it according to the {@link RetryPolicy} and checks the status code of the response.
+     *
+     * @param call the call
+     * @return the response
+     * @throws MaileonException the Maileon exception
+     */
+    private ResponseWrapper executeBlocking(Call call) throws MaileonException {
+        while (true) {
+            ResponseWrapper resp = null;
+            long delay;
+            try {
+                resp = send(call);
+                delay = call.getRetryDelay(resp, null);
+            } catch (RuntimeException e) {
+                delay = call.getRetryDelay(null, e);
+                if (delay < 0L) {
+                    throw e;
+                }
+            }
+            if (delay < 0L) {
+                analyzeStatusCode(resp);
+                return resp;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MaileonClientException("interrupted while waiting for retry", e);
+            }
+            call.attempt++;
+        }
+    }
+
+    /**
+     * Sends a request once.
+     *
+     * @param call the call
+     * @return the response
+     */
+    private ResponseWrapper send(Call call) {
+        Builder request = getBuilder(call.path, call.parameters);
+        if (call.accept != null) {
+            request.accept(call.accept);
+        }
+        MaileonRateLimiter rateLimiter = getClient().getRateLimiter();
+        if (rateLimiter != null) {
+            long waitStart = System.nanoTime();
+            try {
+                rateLimiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MaileonClientException("interrupted while waiting for rate limiter", e);
+            } finally {
+                call.rateLimitWaitNanos += System.nanoTime() - waitStart;
+            }
+        }
+        ResponseWrapper resp = null;
+        try {
+            call.prepare(request);
+            Response cr = call.entity == null ? request.method(call.method) : request.method(call.method, call.entity);
+            call.statusCode = cr.getStatus();
+            resp = new ResponseWrapper(cr, call.streaming);
+        } finally {
+            // the response filter does not run if the request failed
+            MetricsRecorder.clearCurrent();
+            if (rateLimiter != null) {
+                rateLimiter.release(resp == null ? 0 : resp.getStatusCode(), resp == null ? -1L : resp.getRetryAfterMillis());
+            }
+        }
         return resp;
     }
-    private Client restclient;
 
     /**
-     * Gets the builder.
+     * Waits for an asynchronous call.
+     *
+     * @param <T> the type of the result
+     * @param future the future result
+     * @return the result
+     * @throws MaileonException the Maileon exception
+     */
+    private static <T> T await(CompletableFuture<T> future) throws MaileonException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MaileonClientException("interrupted while waiting for response", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MaileonClientException("request failed", cause);
+        }
+    }
+
+    /**
+     * Executes a request without blocking the calling thread.
      *
+     * @param method the HTTP method
      * @param path the path
      * @param parameters the parameters
-     * @return the builder
+     * @param accept the accepted media type of the response, may be <code>null</code>
+     * @param entity the request entity, may be <code>null</code>
+     * @param idempotent <code>true</code> if a POST request may be retried
+     * @return the future response
      */
-    private Builder getBuilder(String path, QueryParameters parameters) {
-        initClient();
-        WebTarget wt = restclient.target(UriBuilder.fromUri(config.getBaseUri()));
+    private CompletableFuture<ResponseWrapper> executeAsync(String method, String path, QueryParameters parameters, MediaType accept, Entity<?> entity, boolean idempotent) {
+        return executeAsync(new Call(method, path, parameters, accept, entity, idempotent), Function.identity());
+    }
 
-        if (!debug && compressionEnabled) {
-            //http://www.codingpedia.org/ama/how-to-compress-responses-in-java-rest-api-with-gzip-and-jersey/
-            //http://stackoverflow.com/questions/25542450/gzip-format-decompress-jersey
-            wt.register(new GzipReaderWriterInterceptor(requestCompressionEnabled));
+    /**
+     * Executes a call without blocking the calling thread and reads the response. Streamed responses are closed after reading, even if the returned future was cancelled.
+     * <p>
+     * Cancelling the returned future, cancelling the {@link CancellationToken} of the call or exceeding its total timeout stops waiting for the rate limiter, the response and
+     * pending retries.</p>
+     *
+     * @param <T> the type of the result
+     * @param call the call
+     * @param reader the function reading the response
+     * @return the future result
+     */
+    private <T> CompletableFuture<T> executeAsync(Call call, Function<ResponseWrapper, T> reader) {
+        CompletableFuture<ResponseWrapper> result = new CompletableFuture<>();
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        Runnable cancel = () -> future.cancel(true);
+        if (call.cancellation != null) {
+            call.cancellation.addListener(cancel);
+        }
+        ScheduledFuture<?> timeout = !call.hasDeadline() ? null : DelayScheduler.schedule(
+                () -> future.completeExceptionally(new MaileonTimeoutException("request timed out after " + call.timeoutMillis + " ms: " + call.method + " " + call.path)),
+                Math.max(0L, call.getRemainingMillis()), TimeUnit.MILLISECONDS);
+        future.whenComplete((r, t) -> {
+            call.finish(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            if (call.cancellation != null) {
+                call.cancellation.removeListener(cancel);
+            }
+            if (t != null) {
+                // stop retries and abandon the request on the wire
+                result.cancel(true);
+                call.abort();
+            }
+        });
+
+        result.whenComplete((resp, t) -> {
+            if (t != null) {
+                future.completeExceptionally(t);
+                return;
+            }
+            try {
+                if (!future.isDone()) {
+                    analyzeStatusCode(resp);
+                    future.complete(reader.apply(resp));
+                }
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                if (call.streaming) {
+                    resp.close();
+                }
+            }
+        });
+        executeAsync(call, result);
+        return future;
+    }
+
+    /**
+     * Sends a request asynchronously and schedules its retries.
+     *
+     * @param call the call
+     * @param result the future completed with the last response
+     */
+    private void executeAsync(Call call, CompletableFuture<ResponseWrapper> result) {
+        if (result.isDone()) {
+            return;
+        }
+        sendAsync(call).whenComplete((resp, t) -> {
+            Throwable error = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+            long delay = call.getRetryDelay(resp, error);
+            if (delay < 0L) {
+                boolean completed = error != null ? result.completeExceptionally(error) : result.complete(resp);
+                if (!completed && resp != null) {
+                    // the call was cancelled meanwhile, release the connection of a streamed response
+                    resp.close();
+                }
+            } else if (!result.isDone()) {
+                call.attempt++;
+                DelayScheduler.schedule(() -> executeAsync(call, result), delay, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * Sends a request once without blocking the calling thread.
+     *
+     * @param call the call
+     * @return the future response
+     */
+    private CompletableFuture<ResponseWrapper> sendAsync(Call call) {
+        Builder request = getBuilder(call.path, call.parameters);
+        if (call.accept != null) {
+            request.accept(call.accept);
+        }
+        MaileonRateLimiter rateLimiter = getClient().getRateLimiter();
+        CompletableFuture<Void> permit = rateLimiter == null ? CompletableFuture.completedFuture(null) : rateLimiter.acquireAsync();
+        call.pending = permit;
+        long waitStart = System.nanoTime();
+        CompletableFuture<ResponseWrapper> response = permit.thenCompose(p -> {
+            call.rateLimitWaitNanos += System.nanoTime() - waitStart;
+            call.prepare(request);
+            CompletableFuture<Response> stage = (call.entity == null ? request.rx().method(call.method) : request.rx().method(call.method, call.entity)).toCompletableFuture();
+            call.pending = stage;
+            return stage.whenComplete((cr, t) -> MetricsRecorder.clearCurrent()).thenApply(cr -> {
+                call.statusCode = cr.getStatus();
+                return new ResponseWrapper(cr, call.streaming);
+            });
+        });
+        if (rateLimiter != null) {
+            response = response.whenComplete((resp, t) -> {
+                if (permit.isDone() && !permit.isCompletedExceptionally()) {
+                    rateLimiter.release(resp == null ? 0 : resp.getStatusCode(), resp == null ? -1L : resp.getRetryAfterMillis());
+                }
+            });
+        }
+        return response;
+    }
+
+    /**
+     * Checks if an exception was caused by an I/O error, e.g. a timeout or a reset connection.
+     *
+     * @param e the exception
+     * @return <code>true</code>, if the exception was caused by an I/O error
+     */
+    private static boolean isIOError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets an option of the service or the configuration.
+     *
+     * @param serviceOptions the options of the service or <code>null</code>
+     * @param option the getter of the option
+     * @param defaultValue the value of the configuration
+     * @return the value
+     */
+    private static long getOption(RequestOptions serviceOptions, ToLongFunction<RequestOptions> option, long defaultValue) {
+        if (serviceOptions != null && option.applyAsLong(serviceOptions) != RequestOptions.INHERIT) {
+            return option.applyAsLong(serviceOptions);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * The state of a request across its attempts.
+     */
+    private final class Call {
+
+        private final String method;
+
+        private final String path;
+
+        private final QueryParameters parameters;
+
+        private final MediaType accept;
+
+        private final Entity<?> entity;
+
+        private final RetryPolicy policy;
+
+        private final boolean retryable;
+
+        private boolean streaming;
+
+        private final long startNanos = System.nanoTime();
+
+        private final long connectTimeoutMillis;
+
+        private final long readTimeoutMillis;
+
+        private final long timeoutMillis;
+
+        private final CancellationToken cancellation;
+
+        private int attempt = 1;
+
+        /**
+         * The transport metrics of all attempts, <code>null</code> if metrics are disabled.
+         */
+        private final MetricsRecorder recorder;
+
+        private final MaileonSpan span;
+
+        private volatile int statusCode;
+
+        private volatile long rateLimitWaitNanos;
+
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        /**
+         * The future of the rate limiter permit or the response of the current attempt.
+         */
+        private volatile CompletableFuture<?> pending;
+
+        Call(String method, String path, QueryParameters parameters, MediaType accept, Entity<?> entity, boolean idempotent) {
+            this.method = method;
+            this.path = path;
+            this.parameters = parameters;
+            this.accept = accept;
+            if (entity != null && !debug && compressionEnabled && requestCompressionEnabled) {
+                // the encoding must be part of the entity, the Apache connector ignores headers changed by interceptors
+                this.entity = Entity.entity(entity.getEntity(), new Variant(entity.getMediaType(), (Locale) null, GZIP), entity.getAnnotations());
+            } else {
+                this.entity = entity;
+            }
+            this.policy = config.getRetryPolicy();
+
+            this.connectTimeoutMillis = getOption(requestOptions, RequestOptions::getConnectTimeoutMillis, config.getConnectTimeoutMillis());
+            this.readTimeoutMillis = getOption(requestOptions, RequestOptions::getReadTimeoutMillis, config.getReadTimeoutMillis());
+            this.timeoutMillis = getOption(requestOptions, RequestOptions::getTimeoutMillis, config.getRequestTimeoutMillis());
+            this.cancellation = requestOptions != null ? requestOptions.getCancellationToken() : null;
+            idempotent |= requestOptions != null && requestOptions.isIdempotent();
+
+            MaileonTracer tracer = config.getTracer();
+            this.span = tracer == null ? null : tracer.startSpan(method, EndpointTemplate.of(path));
+            this.recorder = config.getMetricsListener() != null || span != null ? new MetricsRecorder() : null;
+
+            // streamed entities cannot be sent twice
+            boolean repeatable = entity == null || !(entity.getEntity() instanceof InputStream);
+            this.retryable = policy != null && policy.getMaxAttempts() > 1 && repeatable && (!HttpMethod.POST.equals(method) || idempotent || policy.isRetryPost());
+        }
+
+        boolean hasDeadline() {
+            return timeoutMillis > 0L;
         }
 
-        wt = wt.path(path);
+        /**
+         * Gets the time left until the total timeout.
+         *
+         * @return the time in milliseconds, {@link Long#MAX_VALUE} without total timeout
+         */
+        long getRemainingMillis() {
+            if (!hasDeadline()) {
+                return Long.MAX_VALUE;
+            }
+            return timeoutMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Prepares the next attempt. Its timeouts are shortened to the time left until the total timeout, so a stalled connection cannot outlive the call.
+         *
+         * @param request the request
+         */
+        void prepare(Builder request) {
+            if (cancellation != null && cancellation.isCancelled()) {
+                throw new CancellationException("request cancelled: " + method + " " + path);
+            }
+            long remaining = getRemainingMillis();
+            if (remaining <= 0L) {
+                throw new MaileonTimeoutException("request timed out after " + timeoutMillis + " ms: " + method + " " + path);
+            }
+            request.property(ClientProperties.CONNECT_TIMEOUT, timeout(connectTimeoutMillis, remaining));
+            request.property(ClientProperties.READ_TIMEOUT, timeout(readTimeoutMillis, remaining));
+            if (entity != null && GZIP.equals(entity.getEncoding())) {
+                request.property(GzipReaderWriterInterceptor.REQUEST_COMPRESSION_PROPERTY, Boolean.TRUE);
+            }
+            if (recorder != null) {
+                request.property(MetricsRecorder.PROPERTY, recorder);
+            }
+            if (span != null) {
+                for (Map.Entry<String, String> header : span.getHeaders().entrySet()) {
+                    request.header(header.getKey(), header.getValue());
+                }
+            }
+        }
+
+        /**
+         * Reports the metrics of the completed call.
+         *
+         * @param error the error the call failed with or <code>null</code>
+         */
+        void finish(Throwable error) {
+            if (recorder == null || !finished.compareAndSet(false, true)) {
+                return;
+            }
+            RequestMetrics metrics = new RequestMetrics(method, path, statusCode, attempt, recorder.getBytesSent(), recorder.getBytesReceived(),
+                    System.nanoTime() - startNanos, recorder.getPoolWaitNanos(), rateLimitWaitNanos, error);
+            try {
+                if (config.getMetricsListener() != null) {
+                    config.getMetricsListener().requestCompleted(metrics);
+                }
+                if (span != null) {
+                    span.end(metrics);
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "metrics listener failed", e);
+            }
+        }
+
+        private int timeout(long timeout, long remaining) {
+            long effective = timeout == 0L ? remaining : Math.min(timeout, remaining);
+            return effective == Long.MAX_VALUE ? 0 : (int) Math.min(effective, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Abandons the current attempt.
+         */
+        void abort() {
+            CompletableFuture<?> current = pending;
+            if (current != null) {
+                current.cancel(true);
+            }
+        }
+
+        /**
+         * Decides if the last attempt is retried.
+         *
+         * @param resp the response of the last attempt or <code>null</code>
+         * @param error the error of the last attempt or <code>null</code>
+         * @return the delay before the next attempt in milliseconds, -1 if the call is completed
+         */
+        long getRetryDelay(ResponseWrapper resp, Throwable error) {
+            RetryStatistics statistics = getClient().getRetryStatistics();
+            boolean failed = error != null ? policy != null && policy.isRetryOnIOError() && isIOError(error)
+                    : policy != null && policy.isRetryableStatusCode(resp.getStatusCode());
+            if (!failed) {
+                if (attempt > 1 && error == null && resp.getStatus().getFamily() == Family.SUCCESSFUL) {
+                    statistics.recovered();
+                }
+                return -1L;
+            }
+            if (!retryable || (cancellation != null && cancellation.isCancelled())) {
+                return -1L;
+            }
+            long delay = policy.getBackoffMillis(attempt, resp != null ? resp.getRetryAfterMillis() : -1L);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (delay < 0L || attempt >= policy.getMaxAttempts() || (policy.getDeadlineMillis() > 0L && elapsedMillis + delay > policy.getDeadlineMillis())
+                    || delay >= getRemainingMillis()) {
+                statistics.exhausted();
+                return -1L;
+            }
+            statistics.retried();
+            if (debug) {
+                logger.info("retrying " + method + " " + path + " in " + delay + " ms, attempt " + (attempt + 1) + " of " + policy.getMaxAttempts());
+            }
+            return delay;
+        }
+    }
+
+    /**
+     * Gets the builder.
+     *
+     * @param path the path
+     * @param parameters the parameters
+     * @return the builder
+     */
+    Builder getBuilder(String path, QueryParameters parameters) {
+        WebTarget wt = getClient().getBaseTarget().path(path);
 
         if (parameters != null) {
             for (int i = 0 ; i < parameters.size() ; i++) {
@@ -356,51 +1206,40 @@ public abstract class AbstractMaileonService {
 
     }
 
-    private void initClient() {
-        if (restclient == null) {
-            ClientBuilder cb = ClientBuilder.newBuilder();
-            if (config.getProxy() != null && config.getProxy() != Proxy.NO_PROXY) {
-                // set proxy configuration
-                cb.property(ClientProperties.PROXY_URI, (config.getProxy().address()).toString());
-                //cb.property(ClientProperties.PROXY_USERNAME, config.getProxy().);
-                cb.property(ClientProperties.PROXY_PASSWORD, config.getProxy().address().toString());
+    /**
+     * Closes the connections of a service constructed with a {@link MaileonConfiguration}. A shared {@link MaileonClient} is left open, it is closed by its owner.
+     */
+    @Override
+    public void close() {
+        if (!sharedClient) {
+            MaileonClient c;
+            synchronized (this) {
+                c = client;
+                client = null;
             }
+            if (c != null) {
+                c.close();
+            }
+        }
+    }
 
-            // If set up, you can ignore SSL errors here. For local testing without fiddling with certificates.
-            if (config.isIgnoreSslErrors()) {
-                try {
-                    Logger.getLogger(service).info("Ignoring possible SSL errors due to config setting 'ignoreSslErrors'.'");
-
-                    SSLContext sslcontext = SSLContext.getInstance("TLS");
-
-                    sslcontext.init(null, new TrustManager[]{new X509TrustManager() {
-                        @Override
-                        public void checkClientTrusted(X509Certificate[] arg0, String arg1) throws CertificateException {
-                        }
-
-                        @Override
-                        public void checkServerTrusted(X509Certificate[] arg0, String arg1) throws CertificateException {
-                        }
-
-                        @Override
-                        public X509Certificate[] getAcceptedIssuers() {
-                            return new X509Certificate[0];
-                        }
-                    }}, new java.security.SecureRandom());
-
-                    cb.sslContext(sslcontext).hostnameVerifier((s1, s2) -> true);
-                } catch (NoSuchAlgorithmException | KeyManagementException e) {
-                    throw new MaileonClientException("Error ignoring SSL in debug mode", e);
+    /**
+     * Gets the HTTP transport of this service.
+     *
+     * @return the shared client or the own client of this service
+     */
+    protected final MaileonClient getClient() {
+        MaileonClient c = client;
+        if (c == null) {
+            synchronized (this) {
+                c = client;
+                if (c == null) {
+                    c = new MaileonClient(config, debug, false);
+                    client = c;
                 }
-
-            }
-            if (debug) {
-                cb.register(new LoggingFeature(logger, Level.INFO, LoggingFeature.Verbosity.PAYLOAD_ANY, LOGGING_MAX_ENTITY_SIZE));
             }
-            final HttpAuthenticationFeature authFeature = HttpAuthenticationFeature.basicBuilder().credentials(config.getApiKey(), "").build();
-            cb.register(authFeature);
-            restclient = cb.build();
         }
+        return c;
     }
 
     /**
@@ -534,6 +1373,8 @@ public abstract class AbstractMaileonService {
                         throw (message != null) ? new MaileonAccessControlException(message, resp) : new MaileonAccessControlException(resp);
                     case 404: // not found
                         throw (message != null) ? new MaileonNotFoundException(message, resp) : new MaileonNotFoundException(resp);
+                    case 429: // too many requests
+                        throw (message != null) ? new MaileonThrottledException(message, resp) : new MaileonThrottledException(resp);
                     default:
                         throw (message != null) ? new MaileonBadRequestException(message, resp) : new MaileonException(resp);
                 }
@@ -544,7 +1385,7 @@ public abstract class AbstractMaileonService {
                     case 500: // not available
                         throw new MaileonException(status.getStatusCode() + " - " + parseErrorMsg(resp), resp);
                     case 503: // not available
-                        throw new MaileonBadRequestException(parseErrorMsg(resp), resp);
+                        throw new MaileonThrottledException(parseErrorMsg(resp), resp);
                     default:
                         throw new MaileonServerError(resp);
                 }
@@ -0,0 +1,282 @@
+package com.maileon.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The <code>AdaptiveRateLimiter</code> combines a token bucket with an adaptive concurrency limit.
+ * <p>
+ * The token bucket allows <code>permitsPerSecond</code> requests per second on average and bursts of up to <code>burst</code> requests. The concurrency limit follows the AIMD
+ * scheme: it grows by one for each window of successful responses and is halved when Maileon answers with <code>429 Too Many Requests</code> or
+ * <code>503 Service Unavailable</code>. On such answers all further requests are paused for the time given in the <code>Retry-After</code> header.</p>
+ *
+ */
+public class AdaptiveRateLimiter implements MaileonRateLimiter {
+
+    /**
+     * Limiters shared by all clients using the same API key, with the number of their users.
+     */
+    private static final Map<String, SharedLimiter> SHARED = new HashMap<>();
+
+    /**
+     * Pause after a throttled response without <code>Retry-After</code> header.
+     */
+    private static final long DEFAULT_PAUSE_MILLIS = 1000L;
+
+    /**
+     * Blocked threads re-check the limits at least this often.
+     */
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
+    private static final long BLOCKED = Long.MAX_VALUE;
+
+    private final double permitsPerSecond;
+
+    private final double maxTokens;
+
+    private final int maxConcurrency;
+
+    private double tokens;
+
+    private long lastRefillNanos;
+
+    private double concurrencyLimit;
+
+    private int inFlight;
+
+    private long pausedUntilNanos;
+
+    private long throttledCount;
+
+    private boolean drainScheduled;
+
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    /**
+     * Instantiates a new adaptive rate limiter.
+     *
+     * @param permitsPerSecond the average number of requests per second, 0 for no rate limit
+     * @param burst the number of requests which may be sent at once after a quiet period
+     * @param maxConcurrency the upper bound of the concurrency limit
+     */
+    public AdaptiveRateLimiter(double permitsPerSecond, int burst, int maxConcurrency) {
+        if (permitsPerSecond < 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be >= 0 - found: " + permitsPerSecond);
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be > 0 - found: " + maxConcurrency);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.maxTokens = Math.max(1, burst);
+        this.maxConcurrency = maxConcurrency;
+        this.tokens = maxTokens;
+        this.concurrencyLimit = maxConcurrency;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+    }
+
+    /**
+     * Gets the limiter shared by all clients of an API key in this JVM. Every call must be balanced by a call of {@link #releaseForApiKey(String)}, the limiter is dropped when
+     * it is no longer used.
+     *
+     * @param apiKey the API key
+     * @param permitsPerSecond the average number of requests per second, 0 for no rate limit
+     * @param burst the number of requests which may be sent at once after a quiet period
+     * @param maxConcurrency the upper bound of the concurrency limit
+     * @return the shared limiter
+     * @throws IllegalArgumentException if the limiter of the API key is in use with other parameters
+     */
+    public static AdaptiveRateLimiter forApiKey(String apiKey, double permitsPerSecond, int burst, int maxConcurrency) {
+        synchronized (SHARED) {
+            SharedLimiter shared = SHARED.get(apiKey);
+            if (shared == null) {
+                shared = new SharedLimiter(new AdaptiveRateLimiter(permitsPerSecond, burst, maxConcurrency));
+                SHARED.put(apiKey, shared);
+            } else if (!shared.limiter.hasParameters(permitsPerSecond, burst, maxConcurrency)) {
+                throw new IllegalArgumentException("the rate limiter of the API key is in use with permitsPerSecond=" + shared.limiter.permitsPerSecond + ", burst="
+                        + (int) shared.limiter.maxTokens + ", maxConcurrency=" + shared.limiter.maxConcurrency + " - found: permitsPerSecond=" + permitsPerSecond
+                        + ", burst=" + burst + ", maxConcurrency=" + maxConcurrency);
+            }
+            shared.references++;
+            return shared.limiter;
+        }
+    }
+
+    /**
+     * Releases the limiter got from {@link #forApiKey(String, double, int, int)}.
+     *
+     * @param apiKey the API key
+     */
+    public static void releaseForApiKey(String apiKey) {
+        synchronized (SHARED) {
+            SharedLimiter shared = SHARED.get(apiKey);
+            if (shared != null && --shared.references <= 0) {
+                SHARED.remove(apiKey);
+            }
+        }
+    }
+
+    @Override
+    public void acquire() throws InterruptedException {
+        synchronized (this) {
+            while (true) {
+                long delay = delayNanos(System.nanoTime());
+                if (delay == 0L) {
+                    grant();
+                    return;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, Math.min(delay, MAX_WAIT_NANOS));
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> acquireAsync() {
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        synchronized (this) {
+            long delay = waiters.isEmpty() ? delayNanos(System.nanoTime()) : BLOCKED;
+            if (delay != 0L) {
+                waiters.add(permit);
+                scheduleDrain(delay);
+                return permit;
+            }
+            grant();
+        }
+        permit.complete(null);
+        return permit;
+    }
+
+    @Override
+    public void release(int statusCode, long retryAfterMillis) {
+        synchronized (this) {
+            inFlight--;
+            if (statusCode == 429 || statusCode == 503) {
+                throttledCount++;
+                concurrencyLimit = Math.max(1.0, concurrencyLimit / 2.0);
+                long pauseNanos = TimeUnit.MILLISECONDS.toNanos(retryAfterMillis >= 0L ? retryAfterMillis : DEFAULT_PAUSE_MILLIS);
+                long pausedUntil = System.nanoTime() + pauseNanos;
+                if (pausedUntil - pausedUntilNanos > 0L) {
+                    pausedUntilNanos = pausedUntil;
+                }
+            } else if (statusCode > 0 && statusCode < 500) {
+                concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1.0 / concurrencyLimit);
+            }
+            notifyAll();
+        }
+        drain();
+    }
+
+    /**
+     * Gets the current concurrency limit.
+     *
+     * @return the number of requests allowed in flight
+     */
+    public synchronized int getConcurrencyLimit() {
+        return (int) concurrencyLimit;
+    }
+
+    /**
+     * Gets the number of requests currently in flight.
+     *
+     * @return the number of requests
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Gets the number of throttled responses seen by this limiter.
+     *
+     * @return the number of responses with status 429 or 503
+     */
+    public synchronized long getThrottledCount() {
+        return throttledCount;
+    }
+
+    private boolean hasParameters(double permitsPerSecond, int burst, int maxConcurrency) {
+        return this.permitsPerSecond == permitsPerSecond && maxTokens == Math.max(1, burst) && this.maxConcurrency == maxConcurrency;
+    }
+
+    private long delayNanos(long now) {
+        if (pausedUntilNanos - now > 0L) {
+            return pausedUntilNanos - now;
+        }
+        if (inFlight >= (int) concurrencyLimit) {
+            return BLOCKED;
+        }
+        if (permitsPerSecond <= 0) {
+            return 0L;
+        }
+        tokens = Math.min(maxTokens, tokens + (now - lastRefillNanos) * permitsPerSecond / 1e9);
+        lastRefillNanos = now;
+        if (tokens >= 1.0) {
+            return 0L;
+        }
+        return Math.max(1L, (long) ((1.0 - tokens) / permitsPerSecond * 1e9));
+    }
+
+    private void grant() {
+        if (permitsPerSecond > 0) {
+            tokens -= 1.0;
+        }
+        inFlight++;
+    }
+
+    private void scheduleDrain(long delay) {
+        if (!drainScheduled && delay != BLOCKED) {
+            drainScheduled = true;
+            DelayScheduler.schedule(this::drain, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void drain() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            drainScheduled = false;
+            while (!waiters.isEmpty()) {
+                if (waiters.peek().isDone()) {
+                    // cancelled by the caller
+                    waiters.poll();
+                    continue;
+                }
+                long delay = delayNanos(System.nanoTime());
+                if (delay != 0L) {
+                    scheduleDrain(delay);
+                    break;
+                }
+                grant();
+                granted.add(waiters.poll());
+            }
+        }
+        for (CompletableFuture<Void> permit : granted) {
+            if (!permit.complete(null)) {
+                // cancelled meanwhile, give the permit back without adapting the limits
+                synchronized (this) {
+                    inFlight--;
+                    notifyAll();
+                }
+                drain();
+            }
+        }
+    }
+
+    /**
+     * A limiter shared by the clients of an API key.
+     */
+    private static final class SharedLimiter {
+
+        private final AdaptiveRateLimiter limiter;
+
+        private int references;
+
+        SharedLimiter(AdaptiveRateLimiter limiter) {
+            this.limiter = limiter;
+        }
+    }
+}
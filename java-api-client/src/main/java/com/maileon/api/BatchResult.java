@@ -0,0 +1,82 @@
+package com.maileon.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The <code>BatchResult</code> holds the outcome of an operation executed for many keys. Each key either has a result or the exception its request failed with, so a
+ * failing key does not abort the other keys.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the results
+ */
+public class BatchResult<K, V> {
+
+    private final Map<K, V> results;
+
+    private final Map<K, MaileonException> errors;
+
+    /**
+     * Instantiates a new batch result.
+     *
+     * @param results the results of the successful keys
+     * @param errors the exceptions of the failed keys
+     */
+    public BatchResult(Map<K, V> results, Map<K, MaileonException> errors) {
+        this.results = Collections.unmodifiableMap(new LinkedHashMap<>(results));
+        this.errors = Collections.unmodifiableMap(new LinkedHashMap<>(errors));
+    }
+
+    /**
+     * Gets the results of the successful keys, in the order of the requested keys.
+     *
+     * @return the results by key
+     */
+    public Map<K, V> getResults() {
+        return results;
+    }
+
+    /**
+     * Gets the exceptions of the failed keys, in the order of the requested keys.
+     *
+     * @return the exceptions by key
+     */
+    public Map<K, MaileonException> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Gets the result of a key.
+     *
+     * @param key the key
+     * @return the result or <code>null</code> if the key failed or was not requested
+     */
+    public V get(K key) {
+        return results.get(key);
+    }
+
+    /**
+     * Gets the exception of a key.
+     *
+     * @param key the key
+     * @return the exception or <code>null</code> if the key succeeded or was not requested
+     */
+    public MaileonException getError(K key) {
+        return errors.get(key);
+    }
+
+    /**
+     * Checks whether all keys succeeded.
+     *
+     * @return <code>true</code> if no key failed
+     */
+    public boolean isSuccess() {
+        return errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchResult [results=%s, errors=%s]", results.size(), errors.size());
+    }
+}
@@ -0,0 +1,71 @@
+package com.maileon.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The <code>CancellationToken</code> cancels all requests it was passed to with {@link RequestOptions#setCancellationToken(CancellationToken)}.
+ * <p>
+ * Cancelled calls fail with a {@link java.util.concurrent.CancellationException}. Waiting callers return immediately, pending retries are dropped and calls which were not
+ * started yet are not sent at all. A request already on the wire is abandoned, its connection is released by the read timeout at the latest.</p>
+ *
+ */
+public class CancellationToken {
+
+    private boolean cancelled;
+
+    private final Set<Runnable> listeners = new LinkedHashSet<>();
+
+    /**
+     * Cancels all requests using this token. Requests started later with this token fail immediately.
+     */
+    public void cancel() {
+        List<Runnable> toRun;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toRun = new ArrayList<>(listeners);
+            listeners.clear();
+        }
+        for (Runnable listener : toRun) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Checks if this token was cancelled.
+     *
+     * @return <code>true</code>, if cancelled
+     */
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers a listener called on cancellation, or immediately if already cancelled.
+     *
+     * @param listener the listener
+     */
+    void addListener(Runnable listener) {
+        synchronized (this) {
+            if (!cancelled) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    /**
+     * Removes a listener once its request completed.
+     *
+     * @param listener the listener
+     */
+    synchronized void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+}
@@ -0,0 +1,40 @@
+package com.maileon.api;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lazily created daemon thread running delayed tasks of asynchronous requests, e.g. waiting for the rate limiter or the backoff of a retry.
+ *
+ */
+final class DelayScheduler {
+
+    private static final ScheduledExecutorService INSTANCE = createScheduler();
+
+    private DelayScheduler() {
+    }
+
+    /**
+     * Schedules a task. The task must not block, as all tasks share one thread.
+     *
+     * @param task the task
+     * @param delay the delay
+     * @param unit the unit of the delay
+     * @return the scheduled task
+     */
+    static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return INSTANCE.schedule(task, delay, unit);
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "maileon-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
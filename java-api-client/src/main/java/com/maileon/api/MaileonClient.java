@@ -0,0 +1,384 @@
+package com.maileon.api;
+
+import com.maileon.api.contacts.ContactsXmlWriter;
+import com.maileon.api.metrics.MetricsFilter;
+import com.maileon.api.metrics.MetricsRecorder;
+import com.maileon.api.transactions.serializer.TransactionsJsonSerializer;
+import com.maileon.api.utils.GzipReaderWriterInterceptor;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
+import org.glassfish.jersey.logging.LoggingFeature;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import java.io.Closeable;
+import java.net.Proxy;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The <code>MaileonClient</code> holds the HTTP transport shared by all services created for it.
+ * <p>
+ * It owns a single connection pool, so TLS sessions and keep-alive connections are reused across all services instead of being set up per service instance. Create one client
+ * per {@link MaileonConfiguration}, pass it to the service constructors and {@link #close() close} it on shutdown.</p>
+ *
+ * <pre>
+ * MaileonClient client = new MaileonClient(config);
+ * MaileonContactsService contacts = new MaileonContactsService(client);
+ * MaileonTransactionsService transactions = new MaileonTransactionsService(client);
+ * </pre>
+ *
+ */
+public class MaileonClient implements Closeable {
+
+    private static final Logger logger = Logger.getLogger("Maileon");
+
+    private static final int LOGGING_MAX_ENTITY_SIZE = 131072;
+
+    /**
+     * The configuration.
+     */
+    private final MaileonConfiguration config;
+
+    /**
+     * The pool of HTTP connections.
+     */
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * Background thread closing idle connections, <code>null</code> if disabled.
+     */
+    private final IdleConnectionEvictor idleConnectionEvictor;
+
+    /**
+     * The JAX-RS client.
+     */
+    private final Client restclient;
+
+    /**
+     * The target of the base URI, shared by all requests.
+     */
+    private final WebTarget baseTarget;
+
+    /**
+     * The rate limiter, <code>null</code> if requests are not limited.
+     */
+    private final MaileonRateLimiter rateLimiter;
+
+    /**
+     * <code>true</code> if the rate limiter is shared with other clients of the API key.
+     */
+    private final boolean sharedRateLimiter;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Executes the asynchronous requests on daemon threads, which end when idle, so an unclosed client does not keep the JVM alive.
+     */
+    private final ThreadPoolExecutor asyncExecutor;
+
+    /**
+     * The counters of retried requests.
+     */
+    private final RetryStatistics retryStatistics = new RetryStatistics();
+
+    /**
+     * Notifies the caches of this client about changed resources.
+     */
+    private final ResourceChangeNotifier changeNotifier = new ResourceChangeNotifier();
+
+    /**
+     * Instantiates a new Maileon client.
+     *
+     * @param config The Maileon API-Configuration
+     */
+    public MaileonClient(MaileonConfiguration config) {
+        this(config, config != null && config.isDebug(), true);
+    }
+
+    /**
+     * Instantiates a new Maileon client.
+     * <p>
+     * Services constructed without a shared client create their own client this way: it logs requests if the service is in debug mode and does not start a thread closing idle
+     * connections, as such services are usually never closed.</p>
+     *
+     * @param config The Maileon API-Configuration
+     * @param debug <code>true</code> to log all requests and responses
+     * @param evictIdleConnections <code>false</code> to not start a thread closing idle connections
+     */
+    MaileonClient(MaileonConfiguration config, boolean debug, boolean evictIdleConnections) {
+        if (config == null) {
+            throw new MaileonClientException("config cannot be null");
+        }
+        this.config = config;
+
+        if (config.getRateLimiter() != null) {
+            rateLimiter = config.getRateLimiter();
+            sharedRateLimiter = false;
+        } else if (config.getRequestsPerSecond() > 0) {
+            rateLimiter = AdaptiveRateLimiter.forApiKey(config.getApiKey(), config.getRequestsPerSecond(), config.getRequestBurst(), config.getMaxConnectionsPerRoute());
+            sharedRateLimiter = true;
+        } else {
+            rateLimiter = null;
+            sharedRateLimiter = false;
+        }
+
+        connectionManager = new MeasuredConnectionManager(socketFactoryRegistry(config),
+                config.getKeepAliveMillis() > 0L ? config.getKeepAliveMillis() : -1L, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(Math.max(config.getMaxConnectionsTotal(), config.getMaxConnectionsPerRoute()));
+        connectionManager.setDefaultMaxPerRoute(config.getMaxConnectionsPerRoute());
+
+        if (evictIdleConnections && config.getIdleConnectionTimeoutMillis() > 0L) {
+            long idleTimeout = config.getIdleConnectionTimeoutMillis();
+            idleConnectionEvictor = new IdleConnectionEvictor(connectionManager, Math.max(idleTimeout / 2L, 1000L), TimeUnit.MILLISECONDS, idleTimeout, TimeUnit.MILLISECONDS);
+            idleConnectionEvictor.start();
+        } else {
+            idleConnectionEvictor = null;
+        }
+
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.connectorProvider(new ApacheConnectorProvider());
+        clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager);
+        clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, false);
+        // failed requests are repeated by the RetryPolicy of the services only, stale pooled connections are validated before reuse
+        clientConfig.property(ApacheClientProperties.RETRY_HANDLER, new DefaultHttpRequestRetryHandler(0, false));
+        clientConfig.property(ClientProperties.CONNECT_TIMEOUT, (int) config.getConnectTimeoutMillis());
+        clientConfig.property(ClientProperties.READ_TIMEOUT, (int) config.getReadTimeoutMillis());
+        // without a limit a request waits forever for a free pooled connection
+        clientConfig.property(ApacheClientProperties.REQUEST_CONFIG, RequestConfig.custom().setConnectionRequestTimeout((int) config.getConnectTimeoutMillis()).build());
+        if (config.getProxy() != null && config.getProxy() != Proxy.NO_PROXY) {
+            // set proxy configuration
+            clientConfig.property(ClientProperties.PROXY_URI, (config.getProxy().address()).toString());
+            clientConfig.property(ClientProperties.PROXY_PASSWORD, config.getProxy().address().toString());
+        }
+
+        asyncExecutor = createAsyncExecutor(
+                config.getAsyncThreadPoolSize() > 0 ? config.getAsyncThreadPoolSize() : Math.max(config.getMaxConnectionsTotal(), config.getMaxConnectionsPerRoute()));
+        ClientBuilder cb = ClientBuilder.newBuilder().withConfig(clientConfig).executorService(asyncExecutor);
+        if (config.getMetricsListener() != null || config.getTracer() != null) {
+            cb.register(new MetricsFilter());
+        }
+        if (debug) {
+            cb.register(new LoggingFeature(logger, Level.INFO, LoggingFeature.Verbosity.PAYLOAD_ANY, LOGGING_MAX_ENTITY_SIZE));
+        }
+        final HttpAuthenticationFeature authFeature = HttpAuthenticationFeature.basicBuilder().credentials(config.getApiKey(), "").build();
+        cb.register(authFeature);
+        // registered once, services enable compression per request
+        cb.register(new GzipReaderWriterInterceptor());
+        cb.register(ContactsXmlWriter.class);
+        cb.register(TransactionsJsonSerializer.class);
+        restclient = cb.build();
+        baseTarget = restclient.target(config.getBaseUri());
+    }
+
+    /**
+     * Gets the configuration this client was built from.
+     *
+     * @return the configuration
+     */
+    public MaileonConfiguration getConfiguration() {
+        return config;
+    }
+
+    /**
+     * Gets the number of connections currently leased by running requests.
+     *
+     * @return the number of leased connections
+     */
+    public int getLeasedConnections() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    /**
+     * Gets the number of idle connections kept in the pool.
+     *
+     * @return the number of idle connections
+     */
+    public int getAvailableConnections() {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    /**
+     * Gets the number of requests waiting for a free connection.
+     *
+     * @return the number of pending requests
+     */
+    public int getPendingConnectionRequests() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return stats.getPending();
+    }
+
+    /**
+     * Gets the rate limiter applied to all requests of this client.
+     *
+     * @return the rate limiter or <code>null</code> if requests are not limited
+     */
+    public MaileonRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Gets the counters of requests retried by this client.
+     *
+     * @return the retry statistics
+     */
+    public RetryStatistics getRetryStatistics() {
+        return retryStatistics;
+    }
+
+    /**
+     * Gets the notifier telling caches built on this client about resources changed by its services.
+     *
+     * @return the change notifier
+     */
+    public ResourceChangeNotifier getChangeNotifier() {
+        return changeNotifier;
+    }
+
+    /**
+     * Gets the JAX-RS client.
+     *
+     * @return the client
+     */
+    Client getRestClient() {
+        return restclient;
+    }
+
+    /**
+     * Gets the target of the base URI. Requests derive their targets from it, so the client configuration is not copied per request.
+     *
+     * @return the base target
+     */
+    WebTarget getBaseTarget() {
+        return baseTarget;
+    }
+
+    /**
+     * Closes all pooled connections. Services using this client cannot be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (sharedRateLimiter) {
+            AdaptiveRateLimiter.releaseForApiKey(config.getApiKey());
+        }
+        if (idleConnectionEvictor != null) {
+            idleConnectionEvictor.shutdown();
+        }
+        restclient.close();
+        asyncExecutor.shutdown();
+        connectionManager.shutdown();
+    }
+
+    private static ThreadPoolExecutor createAsyncExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "maileon-async-" + count.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Connection pool recording the time requests wait for a free connection.
+     */
+    private static final class MeasuredConnectionManager extends PoolingHttpClientConnectionManager {
+
+        MeasuredConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry, long timeToLive, TimeUnit unit) {
+            super(socketFactoryRegistry, null, null, null, timeToLive, unit);
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            final ConnectionRequest request = super.requestConnection(route, state);
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        return request.get(timeout, unit);
+                    } finally {
+                        MetricsRecorder.recordPoolWait(System.nanoTime() - start);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+            };
+        }
+    }
+
+    private static Registry<ConnectionSocketFactory> socketFactoryRegistry(MaileonConfiguration config) {
+        SSLConnectionSocketFactory sslSocketFactory;
+        // If set up, you can ignore SSL errors here. For local testing without fiddling with certificates.
+        if (config.isIgnoreSslErrors()) {
+            try {
+                logger.info("Ignoring possible SSL errors due to config setting 'ignoreSslErrors'.'");
+
+                SSLContext sslcontext = SSLContext.getInstance("TLS");
+
+                sslcontext.init(null, new TrustManager[]{new X509TrustManager() {
+                    @Override
+                    public void checkClientTrusted(X509Certificate[] arg0, String arg1) throws CertificateException {
+                    }
+
+                    @Override
+                    public void checkServerTrusted(X509Certificate[] arg0, String arg1) throws CertificateException {
+                    }
+
+                    @Override
+                    public X509Certificate[] getAcceptedIssuers() {
+                        return new X509Certificate[0];
+                    }
+                }}, new java.security.SecureRandom());
+
+                sslSocketFactory = new SSLConnectionSocketFactory(sslcontext, (s1, s2) -> true);
+            } catch (NoSuchAlgorithmException | KeyManagementException e) {
+                throw new MaileonClientException("Error ignoring SSL in debug mode", e);
+            }
+        } else {
+            sslSocketFactory = SSLConnectionSocketFactory.getSystemSocketFactory();
+        }
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
+    }
+}
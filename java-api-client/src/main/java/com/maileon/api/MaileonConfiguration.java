@@ -1,5 +1,8 @@
 package com.maileon.api;
 
+import com.maileon.api.metrics.MaileonMetricsListener;
+import com.maileon.api.metrics.MaileonTracer;
+
 import java.net.Proxy;
 
 /**
@@ -33,6 +36,76 @@ public class MaileonConfiguration {
      */
     private boolean ignoreSslErrors = false;
 
+    /**
+     * Maximum number of pooled connections per route (host). *
+     */
+    private int maxConnectionsPerRoute = 20;
+
+    /**
+     * Maximum number of pooled connections in total. *
+     */
+    private int maxConnectionsTotal = 100;
+
+    /**
+     * Maximum lifetime of a pooled connection in milliseconds, 0 means unlimited. *
+     */
+    private long keepAliveMillis = 60000L;
+
+    /**
+     * Idle pooled connections are evicted after this time in milliseconds, 0 disables eviction. *
+     */
+    private long idleConnectionTimeoutMillis = 30000L;
+
+    /**
+     * Number of threads executing asynchronous requests, 0 means one thread per pooled connection. *
+     */
+    private int asyncThreadPoolSize = 0;
+
+    /**
+     * Timeout for establishing a connection in milliseconds, 0 means unlimited. *
+     */
+    private long connectTimeoutMillis = 10000L;
+
+    /**
+     * Timeout for waiting for data in milliseconds, 0 means unlimited. *
+     */
+    private long readTimeoutMillis = 60000L;
+
+    /**
+     * Total timeout of a call including rate limiting and retries in milliseconds, 0 means unlimited. *
+     */
+    private long requestTimeoutMillis = 0L;
+
+    /**
+     * Average number of requests per second, 0 means unlimited. *
+     */
+    private double requestsPerSecond = 0;
+
+    /**
+     * Number of requests which may be sent at once after a quiet period. *
+     */
+    private int requestBurst = 10;
+
+    /**
+     * Custom rate limiter, overrides requestsPerSecond. *
+     */
+    private MaileonRateLimiter rateLimiter;
+
+    /**
+     * The policy for repeating failed requests, by default failed requests are not repeated. *
+     */
+    private RetryPolicy retryPolicy = RetryPolicy.none();
+
+    /**
+     * Listener notified about every call, may be <code>null</code>. *
+     */
+    private MaileonMetricsListener metricsListener;
+
+    /**
+     * Tracer starting a span for every call, may be <code>null</code>. *
+     */
+    private MaileonTracer tracer;
+
     /**
      * Instantiates a new Maileon configuration.
      *
@@ -131,4 +204,311 @@ public class MaileonConfiguration {
         this.ignoreSslErrors = ignoreSslErrors;
         return this;
     }
+
+    /**
+     * Gets the maximum number of pooled connections per route.
+     *
+     * @return the maximum number of connections per route
+     */
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * Sets the maximum number of pooled connections per route. Maileon is served from a single host, so this effectively limits the number of parallel requests.
+     *
+     * @param maxConnectionsPerRoute the maximum number of connections per route
+     * @return this
+     */
+    public MaileonConfiguration setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        if (maxConnectionsPerRoute < 1) {
+            throw new IllegalArgumentException("maxConnectionsPerRoute must be > 0 - found: " + maxConnectionsPerRoute);
+        }
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of pooled connections in total.
+     *
+     * @return the maximum number of connections
+     */
+    public int getMaxConnectionsTotal() {
+        return maxConnectionsTotal;
+    }
+
+    /**
+     * Sets the maximum number of pooled connections in total.
+     *
+     * @param maxConnectionsTotal the maximum number of connections
+     * @return this
+     */
+    public MaileonConfiguration setMaxConnectionsTotal(int maxConnectionsTotal) {
+        if (maxConnectionsTotal < 1) {
+            throw new IllegalArgumentException("maxConnectionsTotal must be > 0 - found: " + maxConnectionsTotal);
+        }
+        this.maxConnectionsTotal = maxConnectionsTotal;
+        return this;
+    }
+
+    /**
+     * Gets the maximum lifetime of a pooled connection.
+     *
+     * @return the lifetime in milliseconds, 0 means unlimited
+     */
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    /**
+     * Sets the maximum lifetime of a pooled connection. Connections are reused for subsequent requests until this time is exceeded.
+     *
+     * @param keepAliveMillis the lifetime in milliseconds, 0 means unlimited
+     * @return this
+     */
+    public MaileonConfiguration setKeepAliveMillis(long keepAliveMillis) {
+        if (keepAliveMillis < 0L) {
+            throw new IllegalArgumentException("keepAliveMillis must be >= 0 - found: " + keepAliveMillis);
+        }
+        this.keepAliveMillis = keepAliveMillis;
+        return this;
+    }
+
+    /**
+     * Gets the time after which idle pooled connections are evicted.
+     *
+     * @return the idle time in milliseconds, 0 means no eviction
+     */
+    public long getIdleConnectionTimeoutMillis() {
+        return idleConnectionTimeoutMillis;
+    }
+
+    /**
+     * Sets the time after which idle pooled connections are closed by a background thread.
+     *
+     * @param idleConnectionTimeoutMillis the idle time in milliseconds, 0 disables the eviction
+     * @return this
+     */
+    public MaileonConfiguration setIdleConnectionTimeoutMillis(long idleConnectionTimeoutMillis) {
+        if (idleConnectionTimeoutMillis < 0L) {
+            throw new IllegalArgumentException("idleConnectionTimeoutMillis must be >= 0 - found: " + idleConnectionTimeoutMillis);
+        }
+        this.idleConnectionTimeoutMillis = idleConnectionTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Gets the number of threads executing asynchronous requests.
+     *
+     * @return the number of threads, 0 means one thread per pooled connection
+     */
+    public int getAsyncThreadPoolSize() {
+        return asyncThreadPoolSize;
+    }
+
+    /**
+     * Sets the number of threads executing asynchronous requests. Further requests are queued until a thread is available. The threads are daemon threads and end
+     * after one idle minute, so they do not keep the JVM from exiting.
+     *
+     * @param asyncThreadPoolSize the number of threads, 0 means one thread per pooled connection
+     * @return this
+     */
+    public MaileonConfiguration setAsyncThreadPoolSize(int asyncThreadPoolSize) {
+        if (asyncThreadPoolSize < 0) {
+            throw new IllegalArgumentException("asyncThreadPoolSize must be >= 0 - found: " + asyncThreadPoolSize);
+        }
+        this.asyncThreadPoolSize = asyncThreadPoolSize;
+        return this;
+    }
+
+    /**
+     * Gets the timeout for establishing a connection.
+     *
+     * @return the timeout in milliseconds, 0 means unlimited
+     */
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    /**
+     * Sets the timeout for establishing a connection. It also limits the time waiting for a free pooled connection.
+     *
+     * @param connectTimeoutMillis the timeout in milliseconds, 0 means unlimited
+     * @return this
+     */
+    public MaileonConfiguration setConnectTimeoutMillis(long connectTimeoutMillis) {
+        if (connectTimeoutMillis < 0L || connectTimeoutMillis > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("connectTimeoutMillis must be between 0 and " + Integer.MAX_VALUE + " - found: " + connectTimeoutMillis);
+        }
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Gets the timeout for waiting for data.
+     *
+     * @return the timeout in milliseconds, 0 means unlimited
+     */
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    /**
+     * Sets the timeout for waiting for data. A stalled connection fails with an I/O error after this time.
+     *
+     * @param readTimeoutMillis the timeout in milliseconds, 0 means unlimited
+     * @return this
+     */
+    public MaileonConfiguration setReadTimeoutMillis(long readTimeoutMillis) {
+        if (readTimeoutMillis < 0L || readTimeoutMillis > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("readTimeoutMillis must be between 0 and " + Integer.MAX_VALUE + " - found: " + readTimeoutMillis);
+        }
+        this.readTimeoutMillis = readTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Gets the total timeout of a call.
+     *
+     * @return the timeout in milliseconds, 0 means unlimited
+     */
+    public long getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+
+    /**
+     * Sets the total timeout of a call including rate limiting and retries. Calls exceeding it fail with a {@link MaileonTimeoutException}.
+     *
+     * @param requestTimeoutMillis the timeout in milliseconds, 0 means unlimited
+     * @return this
+     */
+    public MaileonConfiguration setRequestTimeoutMillis(long requestTimeoutMillis) {
+        if (requestTimeoutMillis < 0L) {
+            throw new IllegalArgumentException("requestTimeoutMillis must be >= 0 - found: " + requestTimeoutMillis);
+        }
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Gets the average number of requests per second.
+     *
+     * @return the number of requests per second, 0 means unlimited
+     */
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    /**
+     * Gets the number of requests which may be sent at once after a quiet period.
+     *
+     * @return the burst size
+     */
+    public int getRequestBurst() {
+        return requestBurst;
+    }
+
+    /**
+     * Limits the requests to Maileon. All open clients using the same API key in this JVM share one {@link AdaptiveRateLimiter}, which also lowers the number of parallel
+     * requests when Maileon throttles the account. These clients must use the same rate limit and maximum number of connections per route.
+     *
+     * @param requestsPerSecond the average number of requests per second, 0 means unlimited
+     * @param requestBurst the number of requests which may be sent at once after a quiet period
+     * @return this
+     */
+    public MaileonConfiguration setRateLimit(double requestsPerSecond, int requestBurst) {
+        if (requestsPerSecond < 0) {
+            throw new IllegalArgumentException("requestsPerSecond must be >= 0 - found: " + requestsPerSecond);
+        }
+        if (requestBurst < 1) {
+            throw new IllegalArgumentException("requestBurst must be > 0 - found: " + requestBurst);
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.requestBurst = requestBurst;
+        return this;
+    }
+
+    /**
+     * Gets the custom rate limiter.
+     *
+     * @return the rate limiter or <code>null</code>
+     */
+    public MaileonRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Sets a custom rate limiter, which is used instead of the one configured by {@link #setRateLimit(double, int)}.
+     *
+     * @param rateLimiter the rate limiter or <code>null</code>
+     * @return this
+     */
+    public MaileonConfiguration setRateLimiter(MaileonRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+        return this;
+    }
+
+    /**
+     * Gets the policy for repeating failed requests.
+     *
+     * @return the retry policy
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the policy for repeating failed requests. Failed requests are not repeated unless a policy allowing more than one attempt is set, e.g.
+     * <code>new RetryPolicy()</code>.
+     *
+     * @param retryPolicy the retry policy
+     * @return this
+     */
+    public MaileonConfiguration setRetryPolicy(RetryPolicy retryPolicy) {
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("retryPolicy cannot be null");
+        }
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Gets the listener notified about every call.
+     *
+     * @return the listener or <code>null</code>
+     */
+    public MaileonMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Sets the listener notified about every call with its latency, status, retries, transferred bytes and the time waited for pooled connections.
+     *
+     * @param metricsListener the listener or <code>null</code>
+     * @return this
+     */
+    public MaileonConfiguration setMetricsListener(MaileonMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        return this;
+    }
+
+    /**
+     * Gets the tracer starting a span for every call.
+     *
+     * @return the tracer or <code>null</code>
+     */
+    public MaileonTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Sets the tracer starting a span for every call.
+     *
+     * @param tracer the tracer or <code>null</code>
+     * @return this
+     */
+    public MaileonConfiguration setTracer(MaileonTracer tracer) {
+        this.tracer = tracer;
+        return this;
+    }
 }
@@ -0,0 +1,35 @@
+package com.maileon.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A <code>MaileonRateLimiter</code> decides when a request may be sent to Maileon. Every request acquires a permit before it is sent and releases it with the outcome once the
+ * response was received, so implementations can react to throttling by the server.
+ *
+ * @see AdaptiveRateLimiter
+ * @see MaileonConfiguration#setRateLimiter(com.maileon.api.MaileonRateLimiter)
+ */
+public interface MaileonRateLimiter {
+
+    /**
+     * Blocks until a request may be sent.
+     *
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    void acquire() throws InterruptedException;
+
+    /**
+     * Requests a permit without blocking.
+     *
+     * @return a future completed as soon as a request may be sent
+     */
+    CompletableFuture<Void> acquireAsync();
+
+    /**
+     * Releases a permit acquired before.
+     *
+     * @param statusCode the HTTP status code of the response, or 0 if no response was received
+     * @param retryAfterMillis the delay requested by the server, or -1 if none
+     */
+    void release(int statusCode, long retryAfterMillis);
+}
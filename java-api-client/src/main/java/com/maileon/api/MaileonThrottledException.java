@@ -0,0 +1,36 @@
+package com.maileon.api;
+
+/**
+ * The Class MaileonThrottledException is thrown if Maileon rejected a request because of too many requests (429) or temporary unavailability (503).
+ *
+ */
+public class MaileonThrottledException extends MaileonBadRequestException {
+
+    /**
+     * Instantiates a new Maileon throttled exception.
+     *
+     * @param responseWrapper original response
+     */
+    public MaileonThrottledException(ResponseWrapper responseWrapper) {
+        super(responseWrapper);
+    }
+
+    /**
+     * Instantiates a new Maileon throttled exception.
+     *
+     * @param message the message
+     * @param responseWrapper original response
+     */
+    public MaileonThrottledException(String message, ResponseWrapper responseWrapper) {
+        super(message, responseWrapper);
+    }
+
+    /**
+     * Gets the delay requested by Maileon before the next request.
+     *
+     * @return the delay in milliseconds, or -1 if Maileon sent no <code>Retry-After</code> header
+     */
+    public long getRetryAfterMillis() {
+        return getResponseWrapper().getRetryAfterMillis();
+    }
+}
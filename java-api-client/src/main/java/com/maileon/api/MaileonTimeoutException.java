@@ -0,0 +1,27 @@
+package com.maileon.api;
+
+/**
+ * The Class MaileonTimeoutException is thrown if a request did not complete within its total timeout.
+ *
+ */
+public class MaileonTimeoutException extends MaileonClientException {
+
+    /**
+     * Instantiates a new Maileon timeout exception.
+     *
+     * @param message the message
+     */
+    public MaileonTimeoutException(String message) {
+        super(message);
+    }
+
+    /**
+     * Instantiates a new Maileon timeout exception.
+     *
+     * @param message the message
+     * @param t the cause
+     */
+    public MaileonTimeoutException(String message, Throwable t) {
+        super(message, t);
+    }
+}
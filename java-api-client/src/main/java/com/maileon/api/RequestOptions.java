@@ -0,0 +1,155 @@
+package com.maileon.api;
+
+/**
+ * The <code>RequestOptions</code> override the timeouts of the {@link MaileonConfiguration} for a single service or a single call.
+ * <p>
+ * Options are set for all calls of a service with {@link AbstractMaileonService#setRequestOptions(RequestOptions)} or for the calls of a copy of a service created by
+ * {@link AbstractMaileonService#withOptions(RequestOptions)}:</p>
+ *
+ * <pre>
+ * RequestOptions options = new RequestOptions().setTimeoutMillis(5000).setCancellationToken(token);
+ * MaileonContactsService limited = contactsService.withOptions(options);
+ * Page&lt;Contact&gt; page = limited.getContacts(null, null, 1, 1000);
+ * </pre>
+ *
+ */
+public class RequestOptions {
+
+    /**
+     * Marks a value which is inherited from the service or the configuration.
+     */
+    public static final long INHERIT = -1L;
+
+    private long connectTimeoutMillis = INHERIT;
+
+    private long readTimeoutMillis = INHERIT;
+
+    private long timeoutMillis = INHERIT;
+
+    private boolean idempotent = false;
+
+    private CancellationToken cancellationToken;
+
+    /**
+     * Gets the timeout for establishing a connection.
+     *
+     * @return the timeout in milliseconds, 0 means unlimited, {@link #INHERIT} if not set
+     */
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    /**
+     * Sets the timeout for establishing a connection.
+     *
+     * @param connectTimeoutMillis the timeout in milliseconds, 0 means unlimited, {@link #INHERIT} to use the default
+     * @return this
+     */
+    public RequestOptions setConnectTimeoutMillis(long connectTimeoutMillis) {
+        this.connectTimeoutMillis = checkTimeout("connectTimeoutMillis", connectTimeoutMillis);
+        return this;
+    }
+
+    /**
+     * Gets the timeout for waiting for data from Maileon.
+     *
+     * @return the timeout in milliseconds, 0 means unlimited, {@link #INHERIT} if not set
+     */
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    /**
+     * Sets the timeout for waiting for data from Maileon.
+     *
+     * @param readTimeoutMillis the timeout in milliseconds, 0 means unlimited, {@link #INHERIT} to use the default
+     * @return this
+     */
+    public RequestOptions setReadTimeoutMillis(long readTimeoutMillis) {
+        this.readTimeoutMillis = checkTimeout("readTimeoutMillis", readTimeoutMillis);
+        return this;
+    }
+
+    /**
+     * Gets the total timeout of a call including rate limiting and retries.
+     *
+     * @return the timeout in milliseconds, 0 means unlimited, {@link #INHERIT} if not set
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Sets the total timeout of a call including rate limiting and retries. Calls exceeding it fail with a {@link MaileonTimeoutException}.
+     *
+     * @param timeoutMillis the timeout in milliseconds, 0 means unlimited, {@link #INHERIT} to use the default
+     * @return this
+     */
+    public RequestOptions setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = checkTimeout("timeoutMillis", timeoutMillis);
+        return this;
+    }
+
+    /**
+     * Checks if POST requests are marked safe to retry.
+     *
+     * @return <code>true</code>, if POST requests are retried
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+
+    /**
+     * Marks POST requests safe to retry according to the {@link RetryPolicy}, because repeating them cannot cause duplicates.
+     *
+     * @param idempotent <code>true</code> to retry POST requests
+     * @return this
+     */
+    public RequestOptions setIdempotent(boolean idempotent) {
+        this.idempotent = idempotent;
+        return this;
+    }
+
+    /**
+     * Gets the token cancelling the calls.
+     *
+     * @return the token or <code>null</code>
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Sets the token cancelling the calls.
+     *
+     * @param cancellationToken the token or <code>null</code>
+     * @return this
+     */
+    public RequestOptions setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+        return this;
+    }
+
+    /**
+     * Creates options taking the values not set here from other options.
+     *
+     * @param parent the inherited options or <code>null</code>
+     * @return the combined options
+     */
+    RequestOptions inherit(RequestOptions parent) {
+        RequestOptions options = new RequestOptions();
+        options.connectTimeoutMillis = connectTimeoutMillis != INHERIT || parent == null ? connectTimeoutMillis : parent.connectTimeoutMillis;
+        options.readTimeoutMillis = readTimeoutMillis != INHERIT || parent == null ? readTimeoutMillis : parent.readTimeoutMillis;
+        options.timeoutMillis = timeoutMillis != INHERIT || parent == null ? timeoutMillis : parent.timeoutMillis;
+        options.idempotent = idempotent || (parent != null && parent.idempotent);
+        options.cancellationToken = cancellationToken != null || parent == null ? cancellationToken : parent.cancellationToken;
+        return options;
+    }
+
+    private static long checkTimeout(String name, long value) {
+        if (value < INHERIT) {
+            throw new IllegalArgumentException(name + " must be >= 0 or INHERIT - found: " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,77 @@
+package com.maileon.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The <code>ResourceChangeNotifier</code> of a {@link MaileonClient} tells the caches built on the client that a resource was changed by any service using the same
+ * client, so they reload it on next access.
+ * <p>
+ * The listeners are held weakly: a listener stays registered as long as its owner keeps a reference to it, e.g. in a field, and needs not be removed. Changes made
+ * through another client, e.g. by a service constructed with a {@link MaileonConfiguration} and thereby with its own client, or outside of this application are not
+ * notified.</p>
+ *
+ */
+public class ResourceChangeNotifier {
+
+    /**
+     * The custom contact fields.
+     */
+    public static final String CUSTOM_CONTACT_FIELDS = "contacts/fields/custom";
+
+    /**
+     * The transaction types.
+     */
+    public static final String TRANSACTION_TYPES = "transactions/types";
+
+    private final Map<String, Map<Runnable, Boolean>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a listener called after the given resource was changed.
+     *
+     * @param resource the resource, e.g. {@link #CUSTOM_CONTACT_FIELDS}
+     * @param listener the listener, referenced weakly
+     */
+    public void addListener(String resource, Runnable listener) {
+        if (resource == null || listener == null) {
+            throw new IllegalArgumentException("resource and listener cannot be null");
+        }
+        listeners.computeIfAbsent(resource, r -> Collections.synchronizedMap(new WeakHashMap<>())).put(listener, Boolean.TRUE);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param resource the resource
+     * @param listener the listener
+     */
+    public void removeListener(String resource, Runnable listener) {
+        Map<Runnable, Boolean> resourceListeners = listeners.get(resource);
+        if (resourceListeners != null) {
+            resourceListeners.remove(listener);
+        }
+    }
+
+    /**
+     * Calls the listeners of a changed resource.
+     *
+     * @param resource the resource
+     */
+    public void fireChanged(String resource) {
+        Map<Runnable, Boolean> resourceListeners = listeners.get(resource);
+        if (resourceListeners == null) {
+            return;
+        }
+        List<Runnable> called;
+        synchronized (resourceListeners) {
+            called = new ArrayList<>(resourceListeners.keySet());
+        }
+        for (Runnable listener : called) {
+            listener.run();
+        }
+    }
+}
@@ -3,18 +3,24 @@ package com.maileon.api;
 import org.apache.commons.io.IOUtils;
 import org.dom4j.Element;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 /**
  * The Class ResponseWrapper.
  *
  */
-public class ResponseWrapper {
+public class ResponseWrapper implements Closeable {
 
     /**
      * The status.
@@ -47,26 +53,51 @@ public class ResponseWrapper {
     private byte[] entity;
 
     /**
-     * Instantiates a new responseAsObject wrapper.
+     * The parsed XML entity of a streamed response.
+     */
+    private Element xml;
+
+    /**
+     * The open response of a streamed response, <code>null</code> once the entity was consumed.
+     */
+    private Response response;
+
+    /**
+     * Instantiates a new responseAsObject wrapper which reads the whole entity into memory.
      *
      * @param response the responseAsObject
      * @throws MaileonClientException the Maileon client exception
      */
     public ResponseWrapper(Response response) throws MaileonClientException {
-        response.bufferEntity();
+        this(response, false);
+    }
+
+    /**
+     * Instantiates a new responseAsObject wrapper.
+     * <p>
+     * In streaming mode the entity of a successful response is not read into memory, but parsed directly from the stream by the first call of one of the
+     * <code>getEntity</code> methods. The entity can be consumed only once and the wrapper must be closed. Error responses are always read into memory.</p>
+     *
+     * @param response the responseAsObject
+     * @param streaming <code>true</code> to read the entity of a successful response on demand
+     * @throws MaileonClientException the Maileon client exception
+     */
+    public ResponseWrapper(Response response, boolean streaming) throws MaileonClientException {
         status = response.getStatusInfo();
         statusCode = response.getStatus();
         reasonPhrase = status.getReasonPhrase();
         headers = response.getStringHeaders();
         type = response.getMediaType();
-        if (response.hasEntity()) {
-            try {
-                try (InputStream eis = response.readEntity(InputStream.class)) {
-                    entity = IOUtils.toByteArray(eis);
-                }
-            } catch (IOException e) {
-                throw new MaileonClientException("failed to parse response entity", e);
+        if (streaming && isSuccess()) {
+            if (response.hasEntity()) {
+                this.response = response;
+            } else {
+                response.close();
             }
+        } else if (response.hasEntity()) {
+            entity = readEntity(response);
+        } else {
+            response.close();
         }
     }
 
@@ -121,7 +152,7 @@ public class ResponseWrapper {
      * @return true, if successful
      */
     public boolean hasEntity() {
-        return entity != null;
+        return entity != null || xml != null || response != null;
     }
 
     /**
@@ -137,34 +168,113 @@ public class ResponseWrapper {
      * Gets the entity.
      *
      * @return the entity
+     * @throws MaileonClientException the Maileon client exception
      */
-    public byte[] getEntity() {
+    public byte[] getEntity() throws MaileonClientException {
+        if (response != null) {
+            entity = readEntity(response);
+            response = null;
+        } else if (entity == null && xml != null) {
+            entity = xml.asXML().getBytes(StandardCharsets.UTF_8);
+        }
         return entity;
     }
 
+    /**
+     * Gets the entity as stream. The stream of a streamed response can be read only once and is closed with this wrapper.
+     *
+     * @return the entity as stream
+     * @throws MaileonClientException the Maileon client exception
+     */
+    public InputStream getEntityAsStream() throws MaileonClientException {
+        if (response != null) {
+            return response.readEntity(InputStream.class);
+        }
+        byte[] bytes = getEntity();
+        return bytes == null ? null : new ByteArrayInputStream(bytes);
+    }
+
     /**
      * Gets the entity as string.
      *
      * @return the entity as string
+     * @throws MaileonClientException the Maileon client exception
      */
-    public String getEntityAsString() {
-        if (entity == null) {
+    public String getEntityAsString() throws MaileonClientException {
+        byte[] bytes = getEntity();
+        if (bytes == null) {
             return null;
         }
-        return new String(entity, StandardCharsets.UTF_8);
+        return new String(bytes, StandardCharsets.UTF_8);
     }
 
     /**
-     * Gets the entity as XML.
+     * Gets the entity as XML. The XML is parsed directly from the bytes or the stream of the entity.
      *
      * @return the entity as XML
      * @throws MaileonClientException the Maileon client exception
      */
     public Element getEntityAsXml() throws MaileonClientException {
+        if (xml != null) {
+            return xml;
+        }
+        if (response != null) {
+            try (InputStream in = response.readEntity(InputStream.class)) {
+                xml = XmlUtils.parseXml(in);
+            } catch (IOException e) {
+                throw new MaileonClientException("failed to parse response entity", e);
+            } finally {
+                close();
+            }
+            return xml;
+        }
         if (entity == null) {
             return null;
         }
-        return XmlUtils.parseXml(getEntityAsString());
+        return XmlUtils.parseXml(new ByteArrayInputStream(entity));
+    }
+
+    /**
+     * Closes the response of a streamed response and releases its connection. Does nothing if the entity was read into memory.
+     */
+    @Override
+    public void close() {
+        if (response != null) {
+            response.close();
+            response = null;
+        }
+    }
+
+    private static byte[] readEntity(Response response) throws MaileonClientException {
+        try (InputStream eis = response.readEntity(InputStream.class)) {
+            return IOUtils.toByteArray(eis);
+        } catch (IOException e) {
+            throw new MaileonClientException("failed to parse response entity", e);
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Gets the delay requested by the server in the <code>Retry-After</code> header, either given in seconds or as HTTP date.
+     *
+     * @return the delay in milliseconds, or -1 if the header is missing or invalid
+     */
+    public long getRetryAfterMillis() {
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null || retryAfter.trim().isEmpty()) {
+            return -1L;
+        }
+        retryAfter = retryAfter.trim();
+        try {
+            return Math.max(0L, Long.parseLong(retryAfter) * 1000L);
+        } catch (NumberFormatException nfe) {
+            try {
+                return Math.max(0L, ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException dtpe) {
+                return -1L;
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,288 @@
+package com.maileon.api;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The <code>RetryPolicy</code> defines how failed requests are repeated.
+ * <p>
+ * Requests failing with one of the retryable status codes or with an I/O error are repeated up to <code>maxAttempts</code> times. The delay between two attempts grows
+ * exponentially from <code>initialBackoffMillis</code> up to <code>maxBackoffMillis</code> and is randomized by <code>jitter</code>, so clients failing at the same time do not
+ * retry at the same time. A <code>Retry-After</code> header sent by Maileon takes precedence over the computed delay. If it asks for a longer delay than
+ * <code>maxBackoffMillis</code>, the request is not retried and fails, e.g. with a {@link MaileonThrottledException}.</p>
+ * <p>
+ * Retries are disabled unless a policy is set with {@link MaileonConfiguration#setRetryPolicy(com.maileon.api.RetryPolicy)}.</p>
+ * <p>
+ * Only idempotent requests (GET, PUT, DELETE) are retried automatically. POST requests are only retried if marked safe by the service, e.g. contact synchronization, or if
+ * {@link #setRetryPost(boolean)} is enabled.</p>
+ *
+ */
+public class RetryPolicy {
+
+    /**
+     * The status codes retried by default: too many requests, bad gateway, service unavailable and gateway timeout.
+     */
+    public static final Set<Integer> DEFAULT_RETRYABLE_STATUS_CODES = Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(429, 502, 503, 504)));
+
+    /**
+     * The maximum number of attempts including the first one.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * The delay before the first retry in milliseconds.
+     */
+    private long initialBackoffMillis = 200L;
+
+    /**
+     * The upper bound of the delay between two attempts in milliseconds.
+     */
+    private long maxBackoffMillis = 10000L;
+
+    /**
+     * The factor the delay grows with each attempt.
+     */
+    private double backoffMultiplier = 2.0;
+
+    /**
+     * The fraction of the delay which is randomized.
+     */
+    private double jitter = 0.5;
+
+    /**
+     * The maximum time of a call including all retries in milliseconds, 0 means unlimited.
+     */
+    private long deadlineMillis = 0L;
+
+    /**
+     * The status codes which are retried.
+     */
+    private Set<Integer> retryableStatusCodes = DEFAULT_RETRYABLE_STATUS_CODES;
+
+    /**
+     * Should requests failing with an I/O error be retried?
+     */
+    private boolean retryOnIOError = true;
+
+    /**
+     * Should all POST requests be retried?
+     */
+    private boolean retryPost = false;
+
+    /**
+     * Creates a policy which never retries.
+     *
+     * @return the policy
+     */
+    public static RetryPolicy none() {
+        return new RetryPolicy().setMaxAttempts(1);
+    }
+
+    /**
+     * Gets the maximum number of attempts.
+     *
+     * @return the maximum number of attempts including the first one
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of attempts.
+     *
+     * @param maxAttempts the maximum number of attempts including the first one, 1 disables retries
+     * @return this
+     */
+    public RetryPolicy setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be > 0 - found: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Gets the delay before the first retry.
+     *
+     * @return the delay in milliseconds
+     */
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    /**
+     * Gets the upper bound of the delay between two attempts.
+     *
+     * @return the delay in milliseconds
+     */
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    /**
+     * Gets the factor the delay grows with each attempt.
+     *
+     * @return the factor
+     */
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    /**
+     * Sets the exponential backoff.
+     *
+     * @param initialBackoffMillis the delay before the first retry in milliseconds
+     * @param maxBackoffMillis the upper bound of the delay in milliseconds
+     * @param backoffMultiplier the factor the delay grows with each attempt
+     * @return this
+     */
+    public RetryPolicy setBackoff(long initialBackoffMillis, long maxBackoffMillis, double backoffMultiplier) {
+        if (initialBackoffMillis < 0L) {
+            throw new IllegalArgumentException("initialBackoffMillis must be >= 0 - found: " + initialBackoffMillis);
+        }
+        if (maxBackoffMillis < initialBackoffMillis) {
+            throw new IllegalArgumentException("maxBackoffMillis must be >= initialBackoffMillis - found: " + maxBackoffMillis);
+        }
+        if (backoffMultiplier < 1.0) {
+            throw new IllegalArgumentException("backoffMultiplier must be >= 1 - found: " + backoffMultiplier);
+        }
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.backoffMultiplier = backoffMultiplier;
+        return this;
+    }
+
+    /**
+     * Gets the fraction of the delay which is randomized.
+     *
+     * @return the jitter between 0 and 1
+     */
+    public double getJitter() {
+        return jitter;
+    }
+
+    /**
+     * Sets the fraction of the delay which is randomized. With a jitter of 0.5 the delay is between half and all of the computed backoff.
+     *
+     * @param jitter the jitter between 0 and 1
+     * @return this
+     */
+    public RetryPolicy setJitter(double jitter) {
+        if (jitter < 0.0 || jitter > 1.0) {
+            throw new IllegalArgumentException("jitter must be between 0 and 1 - found: " + jitter);
+        }
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * Gets the maximum time of a call including all retries.
+     *
+     * @return the deadline in milliseconds, 0 means unlimited
+     */
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    /**
+     * Sets the maximum time of a call including all retries. No retry is started if its backoff would end after the deadline.
+     *
+     * @param deadlineMillis the deadline in milliseconds, 0 means unlimited
+     * @return this
+     */
+    public RetryPolicy setDeadlineMillis(long deadlineMillis) {
+        if (deadlineMillis < 0L) {
+            throw new IllegalArgumentException("deadlineMillis must be >= 0 - found: " + deadlineMillis);
+        }
+        this.deadlineMillis = deadlineMillis;
+        return this;
+    }
+
+    /**
+     * Gets the status codes which are retried.
+     *
+     * @return the status codes
+     */
+    public Set<Integer> getRetryableStatusCodes() {
+        return retryableStatusCodes;
+    }
+
+    /**
+     * Sets the status codes which are retried.
+     *
+     * @param retryableStatusCodes the status codes
+     * @return this
+     */
+    public RetryPolicy setRetryableStatusCodes(Integer... retryableStatusCodes) {
+        this.retryableStatusCodes = Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(retryableStatusCodes)));
+        return this;
+    }
+
+    /**
+     * Checks if requests failing with an I/O error, e.g. a timeout or a reset connection, are retried.
+     *
+     * @return <code>true</code>, if I/O errors are retried
+     */
+    public boolean isRetryOnIOError() {
+        return retryOnIOError;
+    }
+
+    /**
+     * Sets if requests failing with an I/O error are retried.
+     *
+     * @param retryOnIOError <code>true</code> to retry I/O errors
+     * @return this
+     */
+    public RetryPolicy setRetryOnIOError(boolean retryOnIOError) {
+        this.retryOnIOError = retryOnIOError;
+        return this;
+    }
+
+    /**
+     * Checks if all POST requests are retried.
+     *
+     * @return <code>true</code>, if all POST requests are retried
+     */
+    public boolean isRetryPost() {
+        return retryPost;
+    }
+
+    /**
+     * Sets if all POST requests are retried. Only enable this if repeating a POST request cannot cause duplicates, e.g. if transactions are sent with own ids.
+     *
+     * @param retryPost <code>true</code> to retry all POST requests
+     * @return this
+     */
+    public RetryPolicy setRetryPost(boolean retryPost) {
+        this.retryPost = retryPost;
+        return this;
+    }
+
+    /**
+     * Checks if a status code is retryable.
+     *
+     * @param statusCode the status code
+     * @return <code>true</code>, if the status code is retryable
+     */
+    public boolean isRetryableStatusCode(int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * Computes the delay before a retry.
+     *
+     * @param retry the number of the retry, starting with 1
+     * @param retryAfterMillis the delay requested by Maileon, -1 if none
+     * @return the delay in milliseconds, -1 if Maileon requested a delay longer than <code>maxBackoffMillis</code>
+     */
+    public long getBackoffMillis(int retry, long retryAfterMillis) {
+        if (retryAfterMillis >= 0L) {
+            return retryAfterMillis <= maxBackoffMillis ? retryAfterMillis : -1L;
+        }
+        double backoff = Math.min(maxBackoffMillis, initialBackoffMillis * Math.pow(backoffMultiplier, retry - 1));
+        return (long) (backoff * (1.0 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.maileon.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The <code>RetryStatistics</code> count the retries of all requests sent by a {@link MaileonClient}.
+ *
+ */
+public class RetryStatistics {
+
+    private final AtomicLong retries = new AtomicLong();
+
+    private final AtomicLong recoveredRequests = new AtomicLong();
+
+    private final AtomicLong exhaustedRequests = new AtomicLong();
+
+    /**
+     * Gets the number of retries.
+     *
+     * @return the number of repeated requests
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * Gets the number of calls which succeeded after at least one retry.
+     *
+     * @return the number of calls
+     */
+    public long getRecoveredRequests() {
+        return recoveredRequests.get();
+    }
+
+    /**
+     * Gets the number of calls which failed with a retryable error, but were not retried any more because the maximum number of attempts or the deadline was reached.
+     *
+     * @return the number of calls
+     */
+    public long getExhaustedRequests() {
+        return exhaustedRequests.get();
+    }
+
+    void retried() {
+        retries.incrementAndGet();
+    }
+
+    void recovered() {
+        recoveredRequests.incrementAndGet();
+    }
+
+    void exhausted() {
+        exhaustedRequests.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return "RetryStatistics [retries=" + retries + ", recoveredRequests=" + recoveredRequests + ", exhaustedRequests=" + exhaustedRequests + "]";
+    }
+}
@@ -45,6 +45,21 @@ public class XmlUtils {
         }
     }
 
+    /**
+     * Parses the XML directly from a stream without reading it into memory first.
+     *
+     * @param in the stream, which is not closed
+     * @return the element
+     * @throws MaileonClientException the Maileon client exception
+     */
+    public static Element parseXml(InputStream in) throws MaileonClientException {
+        try {
+            return parseStream(in).getRootElement();
+        } catch (Throwable t) {
+            throw new MaileonClientException("failed to parse xml document", t);
+        }
+    }
+
     public static Element parseXmlDocument(InputStream in) throws IOException, DocumentException {
         try {
             return DocumentHelper.parseText(IOUtils.toString(in, StandardCharsets.UTF_8)).getRootElement();
@@ -201,13 +216,20 @@ public class XmlUtils {
     }
 
     public static Document parseText(String text) throws DocumentException, SAXException {
+        return parse(new InputSource(new StringReader(text)));
+    }
+
+    public static Document parseStream(InputStream in) throws DocumentException, SAXException {
+        return parse(new InputSource(in));
+    }
+
+    private static Document parse(InputSource source) throws DocumentException, SAXException {
         SAXReader reader = new SAXReader();
         reader.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
         reader.setFeature("http://xml.org/sax/features/external-general-entities", false);
         reader.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
         reader.setMergeAdjacentText(true);
         reader.setStripWhitespaceText(true);
-        InputSource source = new InputSource(new StringReader(text));
         source.setEncoding("UTF-8");
         Document result = reader.read(source);
         if (result.getXMLEncoding() == null) {
@@ -2,6 +2,7 @@ package com.maileon.api.contactfilters;
 
 import com.maileon.api.AbstractMaileonService;
 import com.maileon.api.MaileonClientException;
+import com.maileon.api.MaileonClient;
 import com.maileon.api.MaileonConfiguration;
 import com.maileon.api.MaileonException;
 import com.maileon.api.Page;
@@ -32,6 +33,15 @@ public class MaileonContactfiltersService extends AbstractMaileonService {
         super(config, SERVICE);
     }
 
+    /**
+     * Instantiates a new Maileon contact filters service using a shared client.
+     *
+     * @param client The shared Maileon client
+     */
+    public MaileonContactfiltersService(MaileonClient client) {
+        super(client, SERVICE);
+    }
+
       /**
      * Returns the total count of contact filters in the account. See
      * <a href="https://maileon.com/support/get-contactfilters-count/">Maileon API documentation</a>.
@@ -0,0 +1,97 @@
+package com.maileon.api.contacts;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The <code>BulkJournal</code> records the identifiers a bulk operation has completed, so a job restarted after a failure or a crash skips them.
+ * <p>
+ * The journal is an append-only file with one identifier per line. Each identifier is flushed as soon as its request succeeded, so at most the requests in flight at
+ * the time of a crash are repeated. Use one journal file per job and operation.</p>
+ *
+ * <pre>
+ * try (BulkJournal journal = new BulkJournal(Paths.get("erasure-2020-01.journal"))) {
+ *     BatchResult&lt;String, Boolean&gt; result = contactsService.deleteContactsByEmails(emails, 8, journal);
+ * }
+ * </pre>
+ *
+ */
+public class BulkJournal implements Closeable {
+
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+
+    private final Writer writer;
+
+    /**
+     * Opens a journal, reading the identifiers completed before. The file is created if it does not exist.
+     *
+     * @param file the journal file
+     * @throws IOException if the file cannot be read or opened
+     */
+    public BulkJournal(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file cannot be null");
+        }
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        completed.add(URLDecoder.decode(line, "UTF-8"));
+                    }
+                }
+            }
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Checks whether an identifier was completed.
+     *
+     * @param identifier the identifier
+     * @return <code>true</code> if the identifier is recorded in the journal
+     */
+    public boolean isCompleted(Object identifier) {
+        return completed.contains(String.valueOf(identifier));
+    }
+
+    /**
+     * Records a completed identifier.
+     *
+     * @param identifier the identifier
+     * @throws IOException if the journal cannot be written
+     */
+    public synchronized void markCompleted(Object identifier) throws IOException {
+        String key = String.valueOf(identifier);
+        if (completed.add(key)) {
+            // encoded, so identifiers with line breaks stay on one line
+            writer.write(URLEncoder.encode(key, "UTF-8"));
+            writer.write('\n');
+            writer.flush();
+        }
+    }
+
+    /**
+     * Gets the number of completed identifiers.
+     *
+     * @return the number of identifiers recorded in the journal
+     */
+    public int size() {
+        return completed.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,27 @@
+package com.maileon.api.contacts;
+
+import java.io.IOException;
+
+/**
+ * A <code>CheckpointStore</code> persists the progress of a {@link ContactDeltaSync} between runs and across restarts.
+ *
+ * @see FileCheckpointStore
+ */
+public interface CheckpointStore {
+
+    /**
+     * Loads the last saved checkpoint.
+     *
+     * @return the checkpoint or <code>null</code> if none was saved yet
+     * @throws IOException if the checkpoint cannot be read
+     */
+    DeltaCheckpoint load() throws IOException;
+
+    /**
+     * Saves a checkpoint. The previous checkpoint must stay readable if saving fails.
+     *
+     * @param checkpoint the checkpoint
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void save(DeltaCheckpoint checkpoint) throws IOException;
+}
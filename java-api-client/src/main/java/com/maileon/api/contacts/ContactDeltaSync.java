@@ -0,0 +1,182 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.MaileonClientException;
+import com.maileon.api.MaileonException;
+import com.maileon.api.Page;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The <code>ContactDeltaSync</code> mirrors the contacts of an account incrementally. The first run exports all contacts, every later run only the contacts updated
+ * since the previous run.
+ * <p>
+ * The progress is saved to a {@link CheckpointStore} after each page, so a run interrupted by an error or a restart continues with the page it stopped at. When a run
+ * completes, the high-water mark is the latest <code>updated</code> timestamp seen, but not later than the time the run started: a contact on an already read page may
+ * be updated while the run is still paging, and is fetched by the next run. The query of each run reaches back by the overlap (one minute by default) to catch contacts
+ * updated within the same second as the high-water mark and to tolerate a clock difference between this host and Maileon of up to the overlap. The contacts are
+ * delivered at least once: the page being processed when a run stopped is delivered again, and contacts updated near the high-water mark are delivered by the next run
+ * again. Consumers must therefore be idempotent. Contacts without <code>updated</code> timestamp do not advance the high-water mark.</p>
+ *
+ * <pre>
+ * ContactDeltaSync sync = new ContactDeltaSync(contactsService, new FileCheckpointStore(Paths.get("contacts.checkpoint")));
+ * sync.run(contact -&gt; mirror.upsert(contact));
+ * </pre>
+ *
+ */
+public class ContactDeltaSync {
+
+    private final MaileonContactsService service;
+
+    private final CheckpointStore store;
+
+    private List<StandardContactField> standardFields;
+
+    private List<String> customFields;
+
+    private int pageSize = 1000;
+
+    private long overlapMillis = 60000L;
+
+    /**
+     * Instantiates a new delta sync.
+     *
+     * @param service the contacts service
+     * @param store the store of the checkpoint
+     */
+    public ContactDeltaSync(MaileonContactsService service, CheckpointStore store) {
+        if (service == null) {
+            throw new IllegalArgumentException("service cannot be null");
+        }
+        if (store == null) {
+            throw new IllegalArgumentException("store cannot be null");
+        }
+        this.service = service;
+        this.store = store;
+    }
+
+    /**
+     * Sets the standard fields requested for each contact.
+     *
+     * @param standardFields the standard fields
+     * @return this delta sync
+     */
+    public ContactDeltaSync setStandardFields(List<StandardContactField> standardFields) {
+        this.standardFields = standardFields;
+        return this;
+    }
+
+    /**
+     * Sets the custom fields requested for each contact.
+     *
+     * @param customFields the names of the custom fields
+     * @return this delta sync
+     */
+    public ContactDeltaSync setCustomFields(List<String> customFields) {
+        this.customFields = customFields;
+        return this;
+    }
+
+    /**
+     * Sets the number of contacts requested per page, 1000 by default. It must not be changed while a run is in progress.
+     *
+     * @param pageSize the number of contacts
+     * @return this delta sync
+     */
+    public ContactDeltaSync setPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be > 0 - found: " + pageSize);
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Sets how far each run reaches back before the high-water mark, 60000 ms by default.
+     *
+     * @param overlapMillis the overlap in milliseconds
+     * @return this delta sync
+     */
+    public ContactDeltaSync setOverlapMillis(long overlapMillis) {
+        if (overlapMillis < 0L) {
+            throw new IllegalArgumentException("overlapMillis must be >= 0 - found: " + overlapMillis);
+        }
+        this.overlapMillis = overlapMillis;
+        return this;
+    }
+
+    /**
+     * Fetches the contacts changed since the last run, or continues an interrupted run.
+     *
+     * @param consumer receives the changed contacts
+     * @return the number of contacts delivered by this call
+     * @throws MaileonException if a page cannot be fetched or the checkpoint cannot be read or written
+     */
+    public int run(Consumer<? super Contact> consumer) throws MaileonException {
+        DeltaCheckpoint checkpoint = load();
+        if (checkpoint.getNextPageIndex() < 1) {
+            Timestamp highWaterMark = checkpoint.getHighWaterMark();
+            checkpoint.setUpdatedAfter(highWaterMark == null ? null : new Timestamp(Math.max(0L, highWaterMark.getTime() - overlapMillis)));
+            checkpoint.setRunStartedAt(new Timestamp(System.currentTimeMillis()));
+            checkpoint.setNextPageIndex(1);
+            save(checkpoint);
+        }
+        Date updatedAfter = checkpoint.getUpdatedAfter();
+        int count = 0;
+        while (true) {
+            int pageIndex = checkpoint.getNextPageIndex();
+            Page<Contact> page = service.getContacts(standardFields, customFields, pageIndex, pageSize, updatedAfter);
+            for (Contact contact : page.getItems()) {
+                consumer.accept(contact);
+                count++;
+                Timestamp updated = contact.getUpdated();
+                if (updated != null && (checkpoint.getHighWaterMark() == null || updated.after(checkpoint.getHighWaterMark()))) {
+                    checkpoint.setHighWaterMark(updated);
+                }
+            }
+            boolean last = page.getItems().isEmpty() || pageIndex >= page.getNumberOfPages();
+            checkpoint.setNextPageIndex(last ? 0 : pageIndex + 1);
+            if (last) {
+                // contacts updated while this run was paging may be on pages read before, the next run must reach back to its start
+                Timestamp runStartedAt = checkpoint.getRunStartedAt();
+                if (runStartedAt != null && checkpoint.getHighWaterMark() != null && checkpoint.getHighWaterMark().after(runStartedAt)) {
+                    checkpoint.setHighWaterMark(runStartedAt);
+                }
+                checkpoint.setRunStartedAt(null);
+            }
+            save(checkpoint);
+            if (last) {
+                return count;
+            }
+        }
+    }
+
+    /**
+     * Gets the saved state.
+     *
+     * @return the checkpoint, never <code>null</code>
+     * @throws MaileonException if the checkpoint cannot be read
+     */
+    public DeltaCheckpoint getCheckpoint() throws MaileonException {
+        return load();
+    }
+
+    private DeltaCheckpoint load() throws MaileonException {
+        try {
+            DeltaCheckpoint checkpoint = store.load();
+            return checkpoint != null ? checkpoint : new DeltaCheckpoint();
+        } catch (IOException e) {
+            throw new MaileonClientException("Unable to load checkpoint", e);
+        }
+    }
+
+    private void save(DeltaCheckpoint checkpoint) throws MaileonException {
+        try {
+            store.save(checkpoint);
+        } catch (IOException e) {
+            throw new MaileonClientException("Unable to save checkpoint", e);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.MaileonClient;
+import com.maileon.api.MaileonException;
+import com.maileon.api.ResourceChangeNotifier;
+import com.maileon.api.utils.RefreshingCache;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The <code>ContactFieldSchemaCache</code> keeps the custom contact fields of the account, so code building, validating or serializing contacts can look them up
+ * without requests.
+ * <p>
+ * The schema is loaded on first use and reloaded in the background shortly before it is older than the TTL, ten minutes by default, see {@link RefreshingCache}.
+ * Until the reload completes, and if it fails, the previous schema is served.</p>
+ * <p>
+ * Changes made with {@link MaileonContactFieldsService#createCustomField(java.lang.String, java.lang.String)},
+ * {@link MaileonContactFieldsService#renameCustomField(java.lang.String, java.lang.String)} or
+ * {@link MaileonContactFieldsService#deleteCustomField(java.lang.String)} invalidate the cache immediately if the service uses the same {@link MaileonClient} as the
+ * cache, see {@link ResourceChangeNotifier}. <b>Changes made through another client</b>, including services constructed with a {@link com.maileon.api.MaileonConfiguration}
+ * instead of the shared client, or outside of this application are only seen after the TTL or after {@link #invalidate()}.</p>
+ * <p>
+ * The version is incremented whenever a reload finds a different schema, so consumers deriving data from the schema can tell when to rebuild it.</p>
+ *
+ * <pre>
+ * ContactFieldSchemaCache schema = new ContactFieldSchemaCache(client);
+ * if (schema.getType("birthday_child") == CustomFieldType.DATE) {
+ *     ...
+ * }
+ * </pre>
+ *
+ */
+public class ContactFieldSchemaCache {
+
+    private final MaileonContactFieldsService service;
+
+    private final MaileonContactsServiceAsync asyncService;
+
+    /**
+     * Registered with the change notifier of the client, which references it weakly.
+     */
+    private final Runnable invalidation = this::invalidate;
+
+    private final RefreshingCache<Schema> cache;
+
+    private long version;
+
+    private Map<String, CustomFieldType> lastTypes;
+
+    /**
+     * Instantiates a new cache loading the schema with the given service. It is invalidated by changes made through any service using the client of the given one.
+     *
+     * @param service the contact fields service
+     */
+    public ContactFieldSchemaCache(MaileonContactFieldsService service) {
+        if (service == null) {
+            throw new IllegalArgumentException("service cannot be null");
+        }
+        this.service = service;
+        MaileonClient client = service.client();
+        this.asyncService = new MaileonContactsServiceAsync(client);
+        this.cache = new RefreshingCache<>("custom contact fields", () -> new Schema(service.getCustomFields()),
+                () -> asyncService.getCustomFields().thenApply(Schema::new)).setListener(this::loaded);
+        client.getChangeNotifier().addListener(ResourceChangeNotifier.CUSTOM_CONTACT_FIELDS, invalidation);
+    }
+
+    /**
+     * Instantiates a new cache loading the schema with a new service of the given client.
+     *
+     * @param client the shared Maileon client
+     */
+    public ContactFieldSchemaCache(MaileonClient client) {
+        this(new MaileonContactFieldsService(client));
+    }
+
+    /**
+     * Gets the service the schema is loaded with. Changes made with it invalidate this cache.
+     *
+     * @return the contact fields service
+     */
+    public MaileonContactFieldsService getService() {
+        return service;
+    }
+
+    /**
+     * Sets the time after which the schema is reloaded, 600000 ms by default.
+     *
+     * @param ttlMillis the time to live in milliseconds
+     * @return this cache
+     */
+    public ContactFieldSchemaCache setTtlMillis(long ttlMillis) {
+        cache.setTtlMillis(ttlMillis);
+        return this;
+    }
+
+    /**
+     * Gets the definitions of all custom fields.
+     *
+     * @return the definitions in the order returned by Maileon
+     * @throws MaileonException if the schema was not loaded yet and cannot be loaded
+     */
+    public List<CustomContactFieldDefinition> getDefinitions() throws MaileonException {
+        return new ArrayList<>(schema().definitions.values());
+    }
+
+    /**
+     * Gets the definition of a custom field.
+     *
+     * @param name the name of the field
+     * @return the definition or <code>null</code> if the field is not defined
+     * @throws MaileonException if the schema was not loaded yet and cannot be loaded
+     */
+    public CustomContactFieldDefinition getDefinition(String name) throws MaileonException {
+        return schema().definitions.get(name);
+    }
+
+    /**
+     * Checks whether a custom field is defined.
+     *
+     * @param name the name of the field
+     * @return <code>true</code> if the field is defined
+     * @throws MaileonException if the schema was not loaded yet and cannot be loaded
+     */
+    public boolean contains(String name) throws MaileonException {
+        return schema().definitions.containsKey(name);
+    }
+
+    /**
+     * Gets the type of a custom field.
+     *
+     * @param name the name of the field
+     * @return the type or <code>null</code> if the field is not defined or its type is unknown
+     * @throws MaileonException if the schema was not loaded yet and cannot be loaded
+     */
+    public CustomFieldType getType(String name) throws MaileonException {
+        return schema().types.get(name);
+    }
+
+    /**
+     * Gets the types of all custom fields. Fields of unknown type are mapped to <code>null</code>.
+     *
+     * @return the unmodifiable types by field name
+     * @throws MaileonException if the schema was not loaded yet and cannot be loaded
+     */
+    public Map<String, CustomFieldType> getTypes() throws MaileonException {
+        return schema().types;
+    }
+
+    /**
+     * Gets the version of the schema, incremented each time a reload finds changed fields.
+     *
+     * @return the version, 0 before the first load
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Discards the schema, the next access loads it again.
+     */
+    public void invalidate() {
+        cache.invalidate();
+    }
+
+    /**
+     * Loads the schema now, waiting for the response.
+     *
+     * @throws MaileonException if the schema cannot be loaded
+     */
+    public void refresh() throws MaileonException {
+        cache.refresh();
+    }
+
+    private Schema schema() throws MaileonException {
+        return cache.get();
+    }
+
+    private synchronized void loaded(Schema loaded) {
+        if (!loaded.types.equals(lastTypes)) {
+            version++;
+            lastTypes = loaded.types;
+        }
+    }
+
+    private static final class Schema {
+
+        private final Map<String, CustomContactFieldDefinition> definitions;
+
+        private final Map<String, CustomFieldType> types;
+
+        Schema(List<CustomContactFieldDefinition> list) {
+            Map<String, CustomContactFieldDefinition> byName = new LinkedHashMap<>();
+            Map<String, CustomFieldType> typesByName = new LinkedHashMap<>();
+            for (CustomContactFieldDefinition definition : list) {
+                byName.put(definition.getName(), definition);
+                typesByName.put(definition.getName(), CustomFieldType.parse(definition.getType()));
+            }
+            this.definitions = Collections.unmodifiableMap(byName);
+            this.types = Collections.unmodifiableMap(typesByName);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.MaileonException;
+
+/**
+ * The <code>ContactSyncException</code> is thrown by a {@link ContactSyncPipeline} when a batch failed. It holds the report of the batches completed before, so callers
+ * know which contacts were synchronized already.
+ *
+ */
+public class ContactSyncException extends MaileonException {
+
+    private static final long serialVersionUID = 4117315470208731861L;
+
+    private final transient SynchronizationReport partialReport;
+
+    /**
+     * Instantiates a new contact sync exception.
+     *
+     * @param message the message
+     * @param cause the error of the failed batch
+     * @param partialReport the report of the completed batches
+     */
+    public ContactSyncException(String message, Throwable cause, SynchronizationReport partialReport) {
+        super(message, cause);
+        this.partialReport = partialReport;
+    }
+
+    /**
+     * Gets the report of the batches completed successfully, including the contacts rejected by the validator. Contacts of failed or not submitted batches are not
+     * contained.
+     *
+     * @return the partial report
+     */
+    public SynchronizationReport getPartialReport() {
+        return partialReport;
+    }
+}
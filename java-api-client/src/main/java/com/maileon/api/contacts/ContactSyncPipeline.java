@@ -0,0 +1,343 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.MaileonClient;
+import com.maileon.api.MaileonClientException;
+import com.maileon.api.MaileonException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * The <code>ContactSyncPipeline</code> synchronizes any number of contacts by splitting them into batches, which are sent concurrently.
+ * <p>
+ * The contacts are read lazily, so at most <code>maxInFlight + 1</code> batches are held in memory, independent of the size of the input. The reports of all batches are
+ * folded into one {@link SynchronizationReport} including all invalid contacts, also those rejected by the optional {@link ContactValidator} before the upload. When a
+ * batch fails, no further batches are submitted, the running batches are awaited and a {@link ContactSyncException} is thrown. It is caused by the first error and holds
+ * the report of the completed batches.</p>
+ *
+ * <pre>
+ * SynchronizationReport report = new ContactSyncPipeline(client)
+ *         .setPermission(Permission.SOI)
+ *         .setMaxInFlight(4)
+ *         .synchronize(contacts.stream());
+ * </pre>
+ *
+ */
+public class ContactSyncPipeline {
+
+    /**
+     * The maximum number of contacts Maileon accepts in one synchronization request.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final MaileonContactsServiceAsync service;
+
+    private int batchSize = MAX_BATCH_SIZE;
+
+    private int maxInFlight = 4;
+
+    private Permission permission;
+
+    private SynchronizationMode syncMode;
+
+    private boolean useExternalId;
+
+    private boolean ignoreInvalidContacts = true;
+
+    private boolean reimportUnsubscribedContacts;
+
+    private boolean overridePermission;
+
+    private boolean updateOnly;
+
+    private boolean preferMaileonId;
+
+    private ContactValidator validator;
+
+    /**
+     * Instantiates a new pipeline sending the batches with the given service.
+     *
+     * @param service the asynchronous contacts service
+     */
+    public ContactSyncPipeline(MaileonContactsServiceAsync service) {
+        if (service == null) {
+            throw new IllegalArgumentException("service cannot be null");
+        }
+        this.service = service;
+    }
+
+    /**
+     * Instantiates a new pipeline sending the batches with a new service of the given client.
+     *
+     * @param client the shared Maileon client
+     */
+    public ContactSyncPipeline(MaileonClient client) {
+        this(new MaileonContactsServiceAsync(client));
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of contacts sent in one request, {@value #MAX_BATCH_SIZE} by default.
+     *
+     * @param batchSize the number of contacts, between 1 and {@value #MAX_BATCH_SIZE}
+     * @return this pipeline
+     */
+    public ContactSyncPipeline setBatchSize(int batchSize) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize must be between 1 and " + MAX_BATCH_SIZE + " - found: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Sets the number of batches sent concurrently, 4 by default. Requests beyond the connections or the rate limit of the client wait for them.
+     *
+     * @param maxInFlight the number of concurrent requests
+     * @return this pipeline
+     */
+    public ContactSyncPipeline setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be > 0 - found: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Sets the permission assigned to the contacts.
+     *
+     * @param permission the permission
+     * @return this pipeline
+     */
+    public ContactSyncPipeline setPermission(Permission permission) {
+        this.permission = permission;
+        return this;
+    }
+
+    /**
+     * Sets the synchronization mode.
+     *
+     * @param syncMode the {@link SynchronizationMode}
+     * @return this pipeline
+     */
+    public ContactSyncPipeline setSyncMode(SynchronizationMode syncMode) {
+        this.syncMode = syncMode;
+        return this;
+    }
+
+    /**
+     * Sets whether the external id is used as contact identifier instead of the email.
+     *
+     * @param useExternalId <code>true</code> to identify contacts by external id
+     * @return this pipeline
+     */
+    public ContactSyncPipeline setUseExternalId(boolean useExternalId) {
+        this.useExternalId = useExternalId;
+        return this;
+    }
+
+    /**
+     * Sets whether invalid contacts are ignored, <code>true</code> by default. Otherwise a batch with an invalid contact fails the whole synchronization.
+     *
+     * @param ignoreInvalidContacts <code>true</code> to ignore invalid contacts
+     * @return this pipeline
+     */
+    public ContactSyncPipeline setIgnoreInvalidContacts(boolean ignoreInvalidContacts) {
+        this.ignoreInvalidContacts = ignoreInvalidContacts;
+        return this;
+    }
+
+    /**
+     * Sets whether unsubscribed contacts are reimported.
+     *
+     * @param reimportUnsubscribedContacts <code>true</code> to reimport unsubscribed contacts
+     * @return this pipeline
+     */
+    public ContactSyncPipeline setReimportUnsubscribedContacts(boolean reimportUnsubscribedContacts) {
+        this.reimportUnsubscribedContacts = reimportUnsubscribedContacts;
+        return this;
+    }
+
+    /**
+     * Sets whether the permission of existing contacts is overridden.
+     *
+     * @param overridePermission <code>true</code> to override the permission of existing contacts
+     * @return this pipeline
+     */
+    public ContactSyncPipeline setOverridePermission(boolean overridePermission) {
+        this.overridePermission = overridePermission;
+        return this;
+    }
+
+    /**
+     * Sets whether only existing contacts are updated.
+     *
+     * @param updateOnly <code>true</code> to create no new contacts
+     * @return this pipeline
+     */
+    public ContactSyncPipeline setUpdateOnly(boolean updateOnly) {
+        this.updateOnly = updateOnly;
+        return this;
+    }
+
+    /**
+     * Sets whether contacts are identified by Maileon id if available.
+     *
+     * @param preferMaileonId <code>true</code> to prefer the Maileon id
+     * @return this pipeline
+     */
+    public ContactSyncPipeline setPreferMaileonId(boolean preferMaileonId) {
+        this.preferMaileonId = preferMaileonId;
+        return this;
+    }
+
+    /**
+     * Sets the validator checking each batch before it is sent. Rejected contacts are not uploaded and are reported as invalid contacts of the report, with the negative
+     * error codes of {@link ContactValidator}. Unless set explicitly with {@link ContactValidator#setRequireEmail(java.lang.Boolean)}, the email address is not required
+     * if the contacts are identified by external id.
+     *
+     * @param validator the validator, <code>null</code> to send all contacts
+     * @return this pipeline
+     */
+    public ContactSyncPipeline setValidator(ContactValidator validator) {
+        this.validator = validator;
+        return this;
+    }
+
+    /**
+     * Synchronizes the contacts of a stream.
+     *
+     * @param contacts the contacts
+     * @return the report of all batches
+     * @throws ContactSyncException if a batch failed
+     */
+    public SynchronizationReport synchronize(Stream<Contact> contacts) throws MaileonException {
+        if (contacts == null) {
+            throw new MaileonClientException("contacts cannot be null");
+        }
+        return synchronize(contacts.iterator());
+    }
+
+    /**
+     * Synchronizes the contacts of an iterable.
+     *
+     * @param contacts the contacts
+     * @return the report of all batches
+     * @throws ContactSyncException if a batch failed
+     */
+    public SynchronizationReport synchronize(Iterable<Contact> contacts) throws MaileonException {
+        if (contacts == null) {
+            throw new MaileonClientException("contacts cannot be null");
+        }
+        return synchronize(contacts.iterator());
+    }
+
+    /**
+     * Synchronizes the contacts of an iterator. The iterator is read on the calling thread.
+     *
+     * @param contacts the contacts
+     * @return the report of all batches
+     * @throws ContactSyncException if a batch failed
+     */
+    public SynchronizationReport synchronize(Iterator<Contact> contacts) throws MaileonException {
+        if (contacts == null) {
+            throw new MaileonClientException("contacts cannot be null");
+        }
+        SynchronizationReport total = new SynchronizationReport();
+        total.setSuccess(true);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try {
+            while (contacts.hasNext() && error.get() == null) {
+                List<Contact> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && contacts.hasNext()) {
+                    batch.add(contacts.next());
+                }
+                if (validator != null) {
+                    ContactValidationResult validation = validator.validate(batch, useExternalId);
+                    addInvalid(total, validation.getInvalidContacts());
+                    batch = validation.getValidContacts();
+                    if (batch.isEmpty()) {
+                        continue;
+                    }
+                }
+                inFlight.acquire();
+                if (error.get() != null) {
+                    inFlight.release();
+                    break;
+                }
+                CompletableFuture<SynchronizationReport> future;
+                try {
+                    future = service.synchronizeContacts(batch, permission, syncMode, useExternalId, ignoreInvalidContacts, reimportUnsubscribedContacts,
+                            overridePermission, updateOnly, preferMaileonId);
+                } catch (RuntimeException e) {
+                    error.compareAndSet(null, e);
+                    inFlight.release();
+                    break;
+                }
+                future.whenComplete((report, e) -> {
+                    if (e != null) {
+                        error.compareAndSet(null, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    } else {
+                        add(total, report);
+                    }
+                    inFlight.release();
+                });
+            }
+            // wait for the running batches
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MaileonClientException("interrupted while synchronizing contacts", e);
+        }
+
+        Throwable e = error.get();
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        if (e != null) {
+            synchronized (total) {
+                total.setSuccess(false);
+            }
+            throw new ContactSyncException("synchronization failed after " + total.getCountContacts() + " contacts: " + e.getMessage(), e, total);
+        }
+        return total;
+    }
+
+    private static void addInvalid(SynchronizationReport total, List<InvalidContact> invalidContacts) {
+        if (invalidContacts.isEmpty()) {
+            return;
+        }
+        synchronized (total) {
+            total.setCountContacts(total.getCountContacts() + invalidContacts.size());
+            total.setCountInvalidContacts(total.getCountInvalidContacts() + invalidContacts.size());
+            total.getInvalidContacts().addAll(invalidContacts);
+        }
+    }
+
+    private static void add(SynchronizationReport total, SynchronizationReport report) {
+        synchronized (total) {
+            total.setSuccess(total.isSuccess() && report.isSuccess());
+            total.setCountContacts(total.getCountContacts() + report.getCountContacts());
+            total.setCountNewContacts(total.getCountNewContacts() + report.getCountNewContacts());
+            total.setCountExistingContacts(total.getCountExistingContacts() + report.getCountExistingContacts());
+            total.setCountUnsubscribedContacts(total.getCountUnsubscribedContacts() + report.getCountUnsubscribedContacts());
+            total.setCountInvalidContacts(total.getCountInvalidContacts() + report.getCountInvalidContacts());
+            total.getInvalidContacts().addAll(report.getInvalidContacts());
+        }
+    }
+}
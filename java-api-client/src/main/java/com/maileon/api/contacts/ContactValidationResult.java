@@ -0,0 +1,57 @@
+package com.maileon.api.contacts;
+
+import java.util.List;
+
+/**
+ * The <code>ContactValidationResult</code> splits a batch of contacts into the valid contacts and the rejected ones.
+ *
+ */
+public class ContactValidationResult {
+
+    private final List<Contact> validContacts;
+
+    private final List<InvalidContact> invalidContacts;
+
+    /**
+     * Instantiates a new validation result.
+     *
+     * @param validContacts the valid contacts
+     * @param invalidContacts the rejected contacts
+     */
+    public ContactValidationResult(List<Contact> validContacts, List<InvalidContact> invalidContacts) {
+        this.validContacts = validContacts;
+        this.invalidContacts = invalidContacts;
+    }
+
+    /**
+     * Gets the valid contacts in the order of the batch.
+     *
+     * @return the valid contacts
+     */
+    public List<Contact> getValidContacts() {
+        return validContacts;
+    }
+
+    /**
+     * Gets the rejected contacts in the order of the batch, in the shape reported by {@link SynchronizationReport#getInvalidContacts()}.
+     *
+     * @return the rejected contacts
+     */
+    public List<InvalidContact> getInvalidContacts() {
+        return invalidContacts;
+    }
+
+    /**
+     * Checks whether all contacts are valid.
+     *
+     * @return <code>true</code> if no contact was rejected
+     */
+    public boolean isValid() {
+        return invalidContacts.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ContactValidationResult [validContacts=%s, invalidContacts=%s]", validContacts.size(), invalidContacts.size());
+    }
+}
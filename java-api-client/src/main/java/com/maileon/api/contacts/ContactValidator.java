@@ -0,0 +1,315 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.MaileonException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The <code>ContactValidator</code> checks contacts on the client before they are synchronized, so invalid contacts are neither uploaded nor fail a batch.
+ * <p>
+ * It checks the syntax of the email address, the formats of the standard fields with a defined format (<code>BIRTHDAY</code>, <code>NAMEDAY</code>,
+ * <code>GENDER</code>, <code>LOCALE</code>) and, if the custom field definitions or a {@link ContactFieldSchemaCache} are set, the names and types of the custom
+ * fields. Rejected contacts are reported as {@link InvalidContact} with the name of an invalid field. The error codes are assigned by the validator and are negative,
+ * so they are told apart from the positive codes Maileon reports in the {@link SynchronizationReport} for the checks done by Maileon only.</p>
+ * <p>
+ * If normalization is enabled, the default, the validator trims the values it checks and lower-cases the domain of the email address, the gender and boolean custom
+ * fields. The contacts are modified in place.</p>
+ * <p>
+ * A validator can be shared by several threads once it is configured.</p>
+ *
+ */
+public class ContactValidator {
+
+    /**
+     * The email address is missing or malformed.
+     */
+    public static final int INVALID_EMAIL = -1;
+
+    /**
+     * The value of a standard field does not match its format.
+     */
+    public static final int INVALID_STANDARD_FIELD = -2;
+
+    /**
+     * The custom field is not defined in the account.
+     */
+    public static final int UNKNOWN_CUSTOM_FIELD = -3;
+
+    /**
+     * The value of a custom field does not match its type.
+     */
+    public static final int INVALID_CUSTOM_FIELD = -4;
+
+    /**
+     * Batches with at least this number of contacts are validated in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private static final int MAX_EMAIL_LENGTH = 254;
+
+    private static final Pattern EMAIL = Pattern.compile("[^\\s@\"(),:;<>\\[\\\\\\]]+@[a-zA-Z0-9](?:[a-zA-Z0-9-]*[a-zA-Z0-9])?(?:\\.[a-zA-Z0-9](?:[a-zA-Z0-9-]*[a-zA-Z0-9])?)+");
+
+    private static final Pattern LOCALE = Pattern.compile("[a-z]{2}(?:_[A-Z]{2})?");
+
+    private static final Pattern GENDER = Pattern.compile("[mfd]");
+
+    private static final Pattern FLOAT = Pattern.compile("[-+]?[0-9]+(?:\\.[0-9]+)?(?:[eE][-+]?[0-9]+)?");
+
+    private volatile Map<String, CustomFieldType> customFieldTypes;
+
+    private volatile ContactFieldSchemaCache schemaCache;
+
+    private Boolean requireEmail;
+
+    private boolean normalize = true;
+
+    /**
+     * Sets the definitions of the custom fields of the account, as returned by {@link MaileonContactFieldsService#getCustomFields()}. Without definitions or a
+     * schema cache, custom fields are not checked.
+     *
+     * @param definitions the custom field definitions, may be <code>null</code>
+     * @return this validator
+     */
+    public ContactValidator setCustomFieldDefinitions(Collection<CustomContactFieldDefinition> definitions) {
+        if (definitions == null) {
+            this.customFieldTypes = null;
+            return this;
+        }
+        Map<String, CustomFieldType> types = new HashMap<>();
+        for (CustomContactFieldDefinition definition : definitions) {
+            types.put(definition.getName(), CustomFieldType.parse(definition.getType()));
+        }
+        this.customFieldTypes = Collections.unmodifiableMap(types);
+        return this;
+    }
+
+    /**
+     * Sets the cache the custom field definitions are taken from. It takes precedence over the definitions set with
+     * {@link #setCustomFieldDefinitions(java.util.Collection)}.
+     *
+     * @param schemaCache the schema cache, may be <code>null</code>
+     * @return this validator
+     */
+    public ContactValidator setSchemaCache(ContactFieldSchemaCache schemaCache) {
+        this.schemaCache = schemaCache;
+        return this;
+    }
+
+    /**
+     * Sets whether contacts without email address are rejected. By default the email address is required, unless the validator is used by a
+     * {@link ContactSyncPipeline} identifying the contacts by external id.
+     *
+     * @param requireEmail <code>true</code> to require an email address, <code>null</code> for the default
+     * @return this validator
+     */
+    public ContactValidator setRequireEmail(Boolean requireEmail) {
+        this.requireEmail = requireEmail;
+        return this;
+    }
+
+    /**
+     * Sets whether the checked values are normalized, <code>true</code> by default.
+     *
+     * @param normalize <code>true</code> to normalize the contacts
+     * @return this validator
+     */
+    public ContactValidator setNormalize(boolean normalize) {
+        this.normalize = normalize;
+        return this;
+    }
+
+    /**
+     * Validates a batch of contacts. Large batches are validated in parallel.
+     *
+     * @param contacts the contacts
+     * @return the valid and the rejected contacts
+     * @throws MaileonException if the schema cache cannot load the custom fields
+     */
+    public ContactValidationResult validate(List<Contact> contacts) throws MaileonException {
+        return validate(contacts, false);
+    }
+
+    ContactValidationResult validate(List<Contact> contacts, boolean useExternalId) throws MaileonException {
+        if (contacts == null) {
+            throw new IllegalArgumentException("contacts cannot be null");
+        }
+        Map<String, CustomFieldType> types = customFieldTypes();
+        boolean emailRequired = isEmailRequired(useExternalId);
+        List<InvalidContact> results = contacts.size() >= PARALLEL_THRESHOLD
+                ? contacts.parallelStream().map(contact -> validate(contact, types, emailRequired)).collect(Collectors.toList())
+                : contacts.stream().map(contact -> validate(contact, types, emailRequired)).collect(Collectors.toList());
+        List<Contact> valid = new ArrayList<>(contacts.size());
+        List<InvalidContact> invalid = new ArrayList<>();
+        for (int i = 0; i < contacts.size(); i++) {
+            InvalidContact result = results.get(i);
+            if (result == null) {
+                valid.add(contacts.get(i));
+            } else {
+                invalid.add(result);
+            }
+        }
+        return new ContactValidationResult(valid, invalid);
+    }
+
+    /**
+     * Validates a contact.
+     *
+     * @param contact the contact
+     * @return <code>null</code> if the contact is valid, the rejection otherwise
+     * @throws MaileonException if the schema cache cannot load the custom fields
+     */
+    public InvalidContact validate(Contact contact) throws MaileonException {
+        return validate(contact, customFieldTypes(), isEmailRequired(false));
+    }
+
+    private boolean isEmailRequired(boolean useExternalId) {
+        Boolean required = requireEmail;
+        return required != null ? required : !useExternalId;
+    }
+
+    private Map<String, CustomFieldType> customFieldTypes() throws MaileonException {
+        ContactFieldSchemaCache cache = schemaCache;
+        return cache != null ? cache.getTypes() : customFieldTypes;
+    }
+
+    private InvalidContact validate(Contact contact, Map<String, CustomFieldType> types, boolean emailRequired) {
+        String email = contact.getEmail();
+        if (email == null) {
+            if (emailRequired) {
+                return invalid(contact, INVALID_EMAIL, "email");
+            }
+        } else {
+            if (normalize) {
+                email = normalizeEmail(email);
+                contact.setEmail(email);
+            }
+            if (email.length() > MAX_EMAIL_LENGTH || !EMAIL.matcher(email).matches()) {
+                return invalid(contact, INVALID_EMAIL, "email");
+            }
+        }
+
+        for (Map.Entry<StandardContactField, String> field : contact.getStandardFields().entrySet()) {
+            String value = field.getValue();
+            if (value == null) {
+                continue;
+            }
+            if (normalize) {
+                value = normalizeStandardField(field.getKey(), value);
+                field.setValue(value);
+            }
+            if (!isValidStandardField(field.getKey(), value)) {
+                return invalid(contact, INVALID_STANDARD_FIELD, field.getKey().getName());
+            }
+        }
+
+        if (types == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> field : contact.getCustomFields().entrySet()) {
+            if (!types.containsKey(field.getKey())) {
+                return invalid(contact, UNKNOWN_CUSTOM_FIELD, field.getKey());
+            }
+            String value = field.getValue();
+            if (value == null) {
+                continue;
+            }
+            CustomFieldType type = types.get(field.getKey());
+            if (normalize) {
+                value = normalizeCustomField(type, value);
+                field.setValue(value);
+            }
+            if (!isValidCustomField(type, value)) {
+                return invalid(contact, INVALID_CUSTOM_FIELD, field.getKey());
+            }
+        }
+        return null;
+    }
+
+    private static String normalizeEmail(String email) {
+        email = email.trim();
+        int at = email.lastIndexOf('@');
+        return at < 0 ? email : email.substring(0, at + 1) + email.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeStandardField(StandardContactField field, String value) {
+        if (field == StandardContactField.GENDER) {
+            return value.trim().toLowerCase(Locale.ROOT);
+        }
+        if (field == StandardContactField.BIRTHDAY || field == StandardContactField.NAMEDAY || field == StandardContactField.LOCALE) {
+            return value.trim();
+        }
+        return value;
+    }
+
+    private static boolean isValidStandardField(StandardContactField field, String value) {
+        if (field == StandardContactField.BIRTHDAY || field == StandardContactField.NAMEDAY) {
+            return isDate(value);
+        }
+        if (field == StandardContactField.GENDER) {
+            return GENDER.matcher(value).matches();
+        }
+        if (field == StandardContactField.LOCALE) {
+            return LOCALE.matcher(value).matches();
+        }
+        return true;
+    }
+
+    private static String normalizeCustomField(CustomFieldType type, String value) {
+        if (type == CustomFieldType.BOOLEAN) {
+            return value.trim().toLowerCase(Locale.ROOT);
+        }
+        if (type == CustomFieldType.INTEGER || type == CustomFieldType.FLOAT || type == CustomFieldType.DATE) {
+            return value.trim();
+        }
+        return value;
+    }
+
+    private static boolean isValidCustomField(CustomFieldType type, String value) {
+        if (type == null) {
+            return true;
+        }
+        try {
+            switch (type) {
+                case INTEGER:
+                    Long.parseLong(value);
+                    return true;
+                case FLOAT:
+                    return FLOAT.matcher(value).matches() && Double.isFinite(Double.parseDouble(value));
+                case DATE:
+                    return isDate(value);
+                case BOOLEAN:
+                    return "true".equals(value) || "false".equals(value);
+                default:
+                    return true;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDate(String value) {
+        try {
+            LocalDate.parse(value);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static InvalidContact invalid(Contact contact, int errorCode, String errorField) {
+        InvalidContact invalid = new InvalidContact(errorCode, errorField);
+        invalid.setId(contact.getId());
+        invalid.setEmail(contact.getEmail());
+        invalid.setExternalId(contact.getExternalId());
+        return invalid;
+    }
+}
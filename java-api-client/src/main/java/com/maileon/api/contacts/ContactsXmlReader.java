@@ -0,0 +1,200 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.MaileonClientException;
+import com.maileon.api.utils.BooleanHelper;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The <code>ContactsXmlReader</code> reads contacts directly from a response stream with a pull parser.
+ * <p>
+ * It accepts the same documents as {@link ContactAdaptor#fromXml(java.util.List)}, a <code>&lt;contacts&gt;</code> list or a single <code>&lt;contact&gt;</code>, but
+ * builds neither a DOM nor intermediate field objects. Each contact is handed to the consumer as soon as its closing tag was read, so large pages can be processed without
+ * holding all contacts.</p>
+ *
+ */
+public class ContactsXmlReader {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private ContactsXmlReader() {
+    }
+
+    /**
+     * Reads all contacts of a document into a list.
+     *
+     * @param in the stream, not closed by this method
+     * @return the contacts
+     * @throws MaileonClientException if the document cannot be parsed
+     */
+    public static List<Contact> read(InputStream in) throws MaileonClientException {
+        List<Contact> contacts = new ArrayList<>();
+        read(in, contacts::add);
+        return contacts;
+    }
+
+    /**
+     * Reads the contacts of a document and passes them one by one to a consumer.
+     *
+     * @param in the stream, not closed by this method
+     * @param consumer the consumer of the contacts
+     * @return the number of contacts read
+     * @throws MaileonClientException if the document cannot be parsed
+     */
+    public static int read(InputStream in, Consumer<? super Contact> consumer) throws MaileonClientException {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(in);
+            reader.nextTag();
+            if ("contact".equals(reader.getLocalName())) {
+                consumer.accept(readContact(reader));
+                return 1;
+            }
+            int count = 0;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if ("contact".equals(reader.getLocalName())) {
+                    consumer.accept(readContact(reader));
+                    count++;
+                } else {
+                    skipElement(reader);
+                }
+            }
+            return count;
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            throw new MaileonClientException("Unable to parse contacts", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // the stream is owned by the caller
+                }
+            }
+        }
+    }
+
+    private static Contact readContact(XMLStreamReader reader) throws XMLStreamException {
+        Contact contact = new Contact();
+        String anonymous = reader.getAttributeValue(null, "anonymous");
+        if (anonymous != null) {
+            contact.setAnonymous(BooleanHelper.parseBoolean(anonymous));
+        }
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "id":
+                    String id = reader.getElementText();
+                    if (!id.isEmpty()) {
+                        contact.setId(Long.parseLong(id));
+                    }
+                    break;
+                case "permission":
+                    contact.setPermission(Permission.get(Integer.parseInt(reader.getElementText())));
+                    break;
+                case "email":
+                    contact.setEmail(reader.getElementText());
+                    break;
+                case "external_id":
+                    contact.setExternalId(reader.getElementText());
+                    break;
+                case "updated":
+                    String updated = reader.getElementText();
+                    if (!updated.isEmpty()) {
+                        contact.setUpdated(Timestamp.valueOf(updated));
+                    }
+                    break;
+                case "created":
+                    String created = reader.getElementText();
+                    if (!created.isEmpty()) {
+                        contact.setCreated(Timestamp.valueOf(created));
+                    }
+                    break;
+                case "standard_fields":
+                    readStandardFields(reader, contact.getStandardFields());
+                    break;
+                case "custom_fields":
+                    readCustomFields(reader, contact.getCustomFields());
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+        return contact;
+    }
+
+    private static void readStandardFields(XMLStreamReader reader, Map<StandardContactField, String> fields) throws XMLStreamException {
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String[] field = readField(reader);
+            if (field != null) {
+                fields.put(StandardContactField.parse(field[0]), field[1]);
+            }
+        }
+    }
+
+    private static void readCustomFields(XMLStreamReader reader, Map<String, String> fields) throws XMLStreamException {
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String[] field = readField(reader);
+            if (field != null) {
+                fields.put(field[0], field[1]);
+            }
+        }
+    }
+
+    /**
+     * Reads a <code>&lt;field&gt;</code> element.
+     *
+     * @param reader the reader positioned at the start of the element
+     * @return name and value, <code>null</code> if the element is not a field
+     */
+    private static String[] readField(XMLStreamReader reader) throws XMLStreamException {
+        if (!"field".equals(reader.getLocalName())) {
+            skipElement(reader);
+            return null;
+        }
+        String[] field = new String[2];
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if ("name".equals(reader.getLocalName())) {
+                field[0] = reader.getElementText();
+            } else if ("value".equals(reader.getLocalName())) {
+                String nil = reader.getAttributeValue(null, "nil");
+                String value = reader.getElementText();
+                field[1] = nil != null && BooleanHelper.parseBoolean(nil) ? null : value;
+            } else {
+                skipElement(reader);
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Skips an element including its children.
+     *
+     * @param reader the reader positioned at the start of the element, positioned at its end afterwards
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // same protection against XXE as XmlUtils
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
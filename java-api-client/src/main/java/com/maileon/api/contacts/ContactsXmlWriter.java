@@ -0,0 +1,119 @@
+package com.maileon.api.contacts;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * The <code>ContactsXmlWriter</code> writes a list of contacts as <code>&lt;contacts&gt;</code> document directly to the request stream.
+ * <p>
+ * Unlike {@link ContactAdaptor#toXml(java.util.List)} it builds neither a DOM nor the document as string, so the memory needed does not grow with the number of contacts.
+ * The entity must be passed as <code>new GenericEntity&lt;List&lt;Contact&gt;&gt;(contacts) {}</code>, so the element type is known.</p>
+ *
+ */
+@Provider
+@Produces("application/vnd.maileon.api+xml")
+public class ContactsXmlWriter implements MessageBodyWriter<List<Contact>> {
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        if (!List.class.isAssignableFrom(type) || !(genericType instanceof ParameterizedType) || !mediaType.getSubtype().endsWith("xml")) {
+            return false;
+        }
+        Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+        return arguments.length == 1 && arguments[0] instanceof Class && Contact.class.isAssignableFrom((Class<?>) arguments[0]);
+    }
+
+    @Override
+    public long getSize(List<Contact> contacts, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(List<Contact> contacts, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
+        write(contacts, entityStream);
+    }
+
+    /**
+     * Writes the contacts in the format of {@link ContactAdaptor#toXml(java.util.List)}. The stream is flushed but not closed.
+     *
+     * @param contacts the contacts
+     * @param out the stream
+     * @throws IOException if the contacts cannot be written
+     */
+    public static void write(List<Contact> contacts, OutputStream out) throws IOException {
+        try {
+            XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement("contacts");
+            for (Contact contact : contacts) {
+                writeContact(writer, contact);
+            }
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            // closing the writer does not close the underlying stream
+            writer.close();
+            out.flush();
+        } catch (XMLStreamException e) {
+            throw new IOException("Unable to write contacts", e);
+        }
+    }
+
+    private static void writeContact(XMLStreamWriter writer, Contact contact) throws XMLStreamException {
+        writer.writeStartElement("contact");
+        if (contact.getEmail() != null) {
+            writeElement(writer, "email", contact.getEmail());
+        }
+        if (contact.getExternalId() != null) {
+            writeElement(writer, "external_id", contact.getExternalId());
+        }
+        if (contact.getId() != null && contact.getId() > 0L) {
+            writeElement(writer, "id", Long.toString(contact.getId()));
+        }
+        writer.writeStartElement("standard_fields");
+        for (Map.Entry<StandardContactField, String> field : contact.getStandardFields().entrySet()) {
+            writeField(writer, field.getKey().getName(), field.getValue());
+        }
+        writer.writeEndElement();
+        writer.writeStartElement("custom_fields");
+        for (Map.Entry<String, String> field : contact.getCustomFields().entrySet()) {
+            writeField(writer, field.getKey(), field.getValue());
+        }
+        writer.writeEndElement();
+        writer.writeEndElement();
+    }
+
+    private static void writeField(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        writer.writeStartElement("field");
+        writeElement(writer, "name", name);
+        if (value == null) {
+            writer.writeEmptyElement("value");
+            writer.writeAttribute("nil", "true");
+        } else {
+            writeElement(writer, "value", value);
+        }
+        writer.writeEndElement();
+    }
+
+    private static void writeElement(XMLStreamWriter writer, String name, String text) throws XMLStreamException {
+        writer.writeStartElement(name);
+        writer.writeCharacters(text);
+        writer.writeEndElement();
+    }
+}
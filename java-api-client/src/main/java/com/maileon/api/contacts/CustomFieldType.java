@@ -0,0 +1,39 @@
+package com.maileon.api.contacts;
+
+import java.util.Locale;
+
+public enum CustomFieldType {
+
+    STRING, INTEGER, FLOAT, DATE, BOOLEAN;
+
+    /**
+     * Parses the type of a {@link CustomContactFieldDefinition}.
+     *
+     * @param type the type as returned by Maileon
+     * @return the type or <code>null</code> if the type is unknown
+     */
+    public static CustomFieldType parse(String type) {
+        if (type == null) {
+            return null;
+        }
+        switch (type.toLowerCase(Locale.ROOT)) {
+            case "string":
+                return STRING;
+            case "integer":
+                return INTEGER;
+            case "float":
+                return FLOAT;
+            case "date":
+                return DATE;
+            case "boolean":
+                return BOOLEAN;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.name().toLowerCase(Locale.ROOT);
+    }
+}
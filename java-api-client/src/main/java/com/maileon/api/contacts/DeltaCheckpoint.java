@@ -0,0 +1,76 @@
+package com.maileon.api.contacts;
+
+import java.sql.Timestamp;
+
+/**
+ * The <code>DeltaCheckpoint</code> is the persisted state of a {@link ContactDeltaSync}.
+ *
+ */
+public class DeltaCheckpoint {
+
+    private Timestamp updatedAfter;
+
+    private Timestamp highWaterMark;
+
+    private Timestamp runStartedAt;
+
+    private int nextPageIndex;
+
+    /**
+     * Gets the lower bound of the <code>updated</code> timestamps requested by the current run.
+     *
+     * @return the lower bound or <code>null</code> if all contacts are requested
+     */
+    public Timestamp getUpdatedAfter() {
+        return updatedAfter;
+    }
+
+    public void setUpdatedAfter(Timestamp updatedAfter) {
+        this.updatedAfter = updatedAfter;
+    }
+
+    /**
+     * Gets the latest <code>updated</code> timestamp of all contacts received so far.
+     *
+     * @return the timestamp or <code>null</code> if no contact was received yet
+     */
+    public Timestamp getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public void setHighWaterMark(Timestamp highWaterMark) {
+        this.highWaterMark = highWaterMark;
+    }
+
+    /**
+     * Gets the time the current run started.
+     *
+     * @return the time or <code>null</code> if no run is in progress
+     */
+    public Timestamp getRunStartedAt() {
+        return runStartedAt;
+    }
+
+    public void setRunStartedAt(Timestamp runStartedAt) {
+        this.runStartedAt = runStartedAt;
+    }
+
+    /**
+     * Gets the page the current run continues with.
+     *
+     * @return the page index starting from 1, or 0 if no run is in progress
+     */
+    public int getNextPageIndex() {
+        return nextPageIndex;
+    }
+
+    public void setNextPageIndex(int nextPageIndex) {
+        this.nextPageIndex = nextPageIndex;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DeltaCheckpoint [updatedAfter=%s, highWaterMark=%s, runStartedAt=%s, nextPageIndex=%s]", updatedAfter, highWaterMark, runStartedAt,
+                nextPageIndex);
+    }
+}
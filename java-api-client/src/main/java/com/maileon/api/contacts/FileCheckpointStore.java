@@ -0,0 +1,93 @@
+package com.maileon.api.contacts;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.Properties;
+
+/**
+ * The <code>FileCheckpointStore</code> keeps the checkpoint in a properties file. The file is replaced atomically, so a crash while saving leaves the previous
+ * checkpoint intact.
+ *
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    private static final String UPDATED_AFTER = "updatedAfter";
+
+    private static final String HIGH_WATER_MARK = "highWaterMark";
+
+    private static final String RUN_STARTED_AT = "runStartedAt";
+
+    private static final String NEXT_PAGE_INDEX = "nextPageIndex";
+
+    private final Path file;
+
+    /**
+     * Instantiates a new file checkpoint store.
+     *
+     * @param file the properties file, created on the first save
+     */
+    public FileCheckpointStore(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("file cannot be null");
+        }
+        this.file = file;
+    }
+
+    @Override
+    public DeltaCheckpoint load() throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        DeltaCheckpoint checkpoint = new DeltaCheckpoint();
+        checkpoint.setUpdatedAfter(toTimestamp(properties.getProperty(UPDATED_AFTER)));
+        checkpoint.setHighWaterMark(toTimestamp(properties.getProperty(HIGH_WATER_MARK)));
+        checkpoint.setRunStartedAt(toTimestamp(properties.getProperty(RUN_STARTED_AT)));
+        checkpoint.setNextPageIndex(Integer.parseInt(properties.getProperty(NEXT_PAGE_INDEX, "0")));
+        return checkpoint;
+    }
+
+    @Override
+    public void save(DeltaCheckpoint checkpoint) throws IOException {
+        Properties properties = new Properties();
+        if (checkpoint.getUpdatedAfter() != null) {
+            properties.setProperty(UPDATED_AFTER, Long.toString(checkpoint.getUpdatedAfter().getTime()));
+        }
+        if (checkpoint.getHighWaterMark() != null) {
+            properties.setProperty(HIGH_WATER_MARK, Long.toString(checkpoint.getHighWaterMark().getTime()));
+        }
+        if (checkpoint.getRunStartedAt() != null) {
+            properties.setProperty(RUN_STARTED_AT, Long.toString(checkpoint.getRunStartedAt().getTime()));
+        }
+        properties.setProperty(NEXT_PAGE_INDEX, Integer.toString(checkpoint.getNextPageIndex()));
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, "Maileon contact delta sync");
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static Timestamp toTimestamp(String millis) {
+        return millis == null ? null : new Timestamp(Long.parseLong(millis));
+    }
+}
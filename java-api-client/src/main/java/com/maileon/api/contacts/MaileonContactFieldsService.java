@@ -21,6 +21,15 @@ public class MaileonContactFieldsService extends AbstractMaileonService {
         super(config, SERVICE);
     }
 
+    /**
+     * Constructs a <code>MaileonContactFieldsService</code> using a shared client.
+     *
+     * @param client shared Maileon client.
+     */
+    public MaileonContactFieldsService(MaileonClient client) {
+        super(client, SERVICE);
+    }
+
     /**
      * Removes the values of a specified standard contact property for all contacts. See
      * <a href="https://dev.maileon.com/api/rest-api-1-0/contacts/delete-standard-field-values/?lang=en">Maileon API documentation</a>.
@@ -57,10 +66,11 @@ public class MaileonContactFieldsService extends AbstractMaileonService {
             throw new MaileonNotFoundException("custom field " + field + " isn't found");
         }
         delete("contacts/fields/custom/" + encodePath(field));
+        invalidateSchemaCaches();
     }
 
     /**
-     * Gets all cutom fields defined in the account. See <a href="https://dev.maileon.com/api/rest-api-1-0/contacts/get-custom-fields/?lang=en">Maileon API documentation</a>.
+     * Gets all custom fields defined in the account. See <a href="https://dev.maileon.com/api/rest-api-1-0/contacts/get-custom-fields/?lang=en">Maileon API documentation</a>.
      *
      * @return list of {@link CustomContactFieldDefinition}.
      * @throws MaileonException
@@ -80,6 +90,7 @@ public class MaileonContactFieldsService extends AbstractMaileonService {
      */
     public void createCustomField(String name, String type) throws MaileonException {
         post("contacts/fields/custom/" + encodePath(name), new QueryParameters("type", type), null);
+        invalidateSchemaCaches();
     }
 
     /**
@@ -92,5 +103,19 @@ public class MaileonContactFieldsService extends AbstractMaileonService {
      */
     public void renameCustomField(String oldName, String newName) throws MaileonException {
         put("contacts/fields/custom/" + encodePath(oldName) + "/" + encodePath(newName), null);
+        invalidateSchemaCaches();
+    }
+
+    /**
+     * Gets the client of this service, the schema caches built on the service share it.
+     *
+     * @return the client
+     */
+    MaileonClient client() {
+        return getClient();
+    }
+
+    private void invalidateSchemaCaches() {
+        getClient().getChangeNotifier().fireChanged(ResourceChangeNotifier.CUSTOM_CONTACT_FIELDS);
     }
 }
@@ -1,15 +1,23 @@
 package com.maileon.api.contacts;
 
 import com.maileon.api.*;
+import com.maileon.api.utils.PageSpliterator;
 import com.maileon.api.utils.PageUtils;
 import java.text.SimpleDateFormat;
 import org.dom4j.Element;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.GenericEntity;
 
 /**
  * The <code>MaileonContactsService</code> client sends operational requests to the <code>ContactsResource</code>.
@@ -28,6 +36,15 @@ public class MaileonContactsService extends AbstractMaileonService {
         super(config, SERVICE);
     }
 
+    /**
+     * Constructs a <code>MaileonContactsService</code> using a shared client.
+     *
+     * @param client shared Maileon client.
+     */
+    public MaileonContactsService(MaileonClient client) {
+        super(client, SERVICE);
+    }
+
     /**
      * Gets the total count of contacts in the account. See <a href="https://dev.maileon.com/api/rest-api-1-0/contacts/get-count-contacts/?lang=en">Maileon API documentation</a>.
      *
@@ -221,8 +238,10 @@ public class MaileonContactsService extends AbstractMaileonService {
         params.add("update_only", updateOnly);
 
         params.add("use_external_id", useExternalId);
-        String xml = ContactAdaptor.toXml(contacts).asXML();
-        return SynchronizationReportAdaptor.fromXml(post("contacts", params, xml).getEntityAsXml());
+        // written to the request stream by ContactsXmlWriter
+        GenericEntity<List<Contact>> entity = new GenericEntity<List<Contact>>(contacts) {
+        };
+        return SynchronizationReportAdaptor.fromXml(postIdempotent("contacts", params, MAILEON_XML_TYPE, MAILEON_XML_TYPE, entity).getEntityAsXml());
     }
 
     /**
@@ -266,12 +285,86 @@ public class MaileonContactsService extends AbstractMaileonService {
             params.add("updated_after", dateformat.format(updatedAfter));
         }
 
-        ResponseWrapper response = get("contacts", params);
-        Page<Contact> page = PageUtils.createPage(pageIndex, pageSize, response);
+        return getStreaming("contacts", params, MAILEON_XML_TYPE, response -> toContactPage(pageIndex, pageSize, response));
+    }
 
-        Element xml = response.getEntityAsXml();
-        page.setItems(ContactAdaptor.fromXml(xml.elements("contact")));
-        return page;
+    /**
+     * Returns all contacts of the account as lazily paged stream. Pages of 1000 contacts are requested as the stream is consumed, two pages are prefetched.
+     *
+     * @param standardFields standard properties of the contacts as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contacts.
+     * @return the stream of contacts, close it to cancel prefetched pages if it is not consumed completely.
+     * @see #streamContacts(java.util.List, java.util.List, int, int)
+     */
+    public Stream<Contact> streamContacts(List<StandardContactField> standardFields, List<String> customFields) {
+        return streamContacts(standardFields, customFields, ContactSyncPipeline.MAX_BATCH_SIZE, 2);
+    }
+
+    /**
+     * Returns all contacts of the account as lazily paged stream. While a page is consumed, the following pages are requested in the background; consumed pages are
+     * released, so the memory needed is bounded by <code>(prefetchPages + 1) * pageSize</code> contacts. A failed page request is thrown as {@link MaileonException} by
+     * the terminal operation of the stream.
+     *
+     * @param standardFields standard properties of the contacts as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contacts.
+     * @param pageSize the number of contacts requested per page.
+     * @param prefetchPages the number of pages requested ahead of the consumed page.
+     * @return the stream of contacts, close it to cancel prefetched pages if it is not consumed completely.
+     */
+    public Stream<Contact> streamContacts(List<StandardContactField> standardFields, List<String> customFields, int pageSize, int prefetchPages) {
+        return streamContacts(standardFields, customFields, pageSize, prefetchPages, true);
+    }
+
+    /**
+     * Exports all contacts of the account with parallel page requests. After the first page revealed the number of pages (<code>X-Pages</code>), up to
+     * <code>parallelPages</code> of the remaining pages are requested concurrently. The actual concurrency is also bounded by the connections and the rate limit of the
+     * client.
+     *
+     * @param standardFields standard properties of the contacts as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contacts.
+     * @param pageSize the number of contacts requested per page.
+     * @param parallelPages the number of pages requested concurrently ahead of the consumed page.
+     * @param ordered if <code>true</code>, the contacts are delivered in page order, otherwise each page as soon as it arrived.
+     * @return the stream of contacts, close it to cancel pending requests if it is not consumed completely.
+     */
+    public Stream<Contact> streamContacts(List<StandardContactField> standardFields, List<String> customFields, int pageSize, int parallelPages, boolean ordered) {
+        return streamContactPages("contacts", standardFields, customFields, pageSize, parallelPages, ordered);
+    }
+
+    /**
+     * Exports all contacts matching a contact filter with parallel page requests, see
+     * {@link #streamContacts(java.util.List, java.util.List, int, int, boolean)}.
+     *
+     * @param contactFilterId the id of the required filter.
+     * @param standardFields standard properties of the contacts as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contacts.
+     * @param pageSize the number of contacts requested per page.
+     * @param parallelPages the number of pages requested concurrently ahead of the consumed page.
+     * @param ordered if <code>true</code>, the contacts are delivered in page order, otherwise each page as soon as it arrived.
+     * @return the stream of contacts, close it to cancel pending requests if it is not consumed completely.
+     */
+    public Stream<Contact> streamContactsByFilterId(long contactFilterId, List<StandardContactField> standardFields, List<String> customFields, int pageSize,
+            int parallelPages, boolean ordered) {
+        return streamContactPages("contacts/filter/" + contactFilterId, standardFields, customFields, pageSize, parallelPages, ordered);
+    }
+
+    private Stream<Contact> streamContactPages(String path, List<StandardContactField> standardFields, List<String> customFields, int pageSize, int parallelPages,
+            boolean ordered) {
+        if (pageSize < 1) {
+            throw new MaileonBadRequestException("pageSize must be > 0 - found: " + pageSize);
+        }
+        if (parallelPages < 0) {
+            throw new MaileonBadRequestException("parallelPages must be >= 0 - found: " + parallelPages);
+        }
+        QueryParameters fields = new QueryParameters();
+        fields.add(standardFieldParameters(standardFields));
+        fields.add(customFieldParameters(customFields));
+        return PageSpliterator.stream(pageIndex -> {
+            QueryParameters params = new QueryParameters("page_index", pageIndex);
+            params.add("page_size", pageSize);
+            params.add(fields);
+            return getStreamingAsync(path, params, MAILEON_XML_TYPE, response -> toContactPage(pageIndex, pageSize, response));
+        }, parallelPages, ordered);
     }
 
     /**
@@ -294,14 +387,7 @@ public class MaileonContactsService extends AbstractMaileonService {
         params.add(standardFieldParameters(standardFields));
         params.add(customFieldParameters(customFields));
 
-        ResponseWrapper response = get("contacts/filter/" + contactFilterId, params);
-
-        Page<Contact> page = PageUtils.createPage(pageIndex, pageSize, response);
-
-        Element xml = response.getEntityAsXml();
-        page.setItems(ContactAdaptor.fromXml(xml.elements("contact")));
-
-        return page;
+        return getStreaming("contacts/filter/" + contactFilterId, params, MAILEON_XML_TYPE, response -> toContactPage(pageIndex, pageSize, response));
     }
 
     /**
@@ -370,6 +456,88 @@ public class MaileonContactsService extends AbstractMaileonService {
         return ContactAdaptor.fromXml(xml.elements());
     }
 
+    /**
+     * Looks up the contacts of many email addresses. The lookups are sent concurrently, as many as the client allows connections per route.
+     *
+     * @param emails the email addresses, duplicates are looked up once.
+     * @param standardFields standard properties of the contacts as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contacts.
+     * @return the found contacts by email, an empty list for unknown addresses, and the error of each failed lookup.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #getContactsByEmail(java.lang.String, java.util.List, java.util.List)
+     */
+    public BatchResult<String, List<Contact>> getContactsByEmails(Collection<String> emails, List<StandardContactField> standardFields, List<String> customFields)
+            throws MaileonException {
+        return getContactsByEmails(emails, standardFields, customFields, getClient().getConfiguration().getMaxConnectionsPerRoute());
+    }
+
+    /**
+     * Looks up the contacts of many email addresses with a bounded number of concurrent requests.
+     * <p>
+     * The lookups are sent by the daemon threads of the asynchronous transport of the client, so the service needs not be closed for the JVM to exit.</p>
+     *
+     * @param emails the email addresses, duplicates are looked up once.
+     * @param standardFields standard properties of the contacts as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contacts.
+     * @param maxConcurrency the maximum number of lookups in flight.
+     * @return the found contacts by email, an empty list for unknown addresses, and the error of each failed lookup.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #getContactsByEmail(java.lang.String, java.util.List, java.util.List)
+     */
+    public BatchResult<String, List<Contact>> getContactsByEmails(Collection<String> emails, List<StandardContactField> standardFields, List<String> customFields,
+            int maxConcurrency) throws MaileonException {
+        QueryParameters params = new QueryParameters();
+        params.add(standardFieldParameters(standardFields));
+        params.add(customFieldParameters(customFields));
+        return executeBatch(emails, maxConcurrency, email -> {
+            if (!email.contains("@")) {
+                return CompletableFuture.completedFuture(new ArrayList<>());
+            }
+            return getStreamingAsync("contacts/emails/" + encodePath(email), params, MAILEON_XML_TYPE, MaileonContactsService::readContacts);
+        });
+    }
+
+    /**
+     * Looks up the contacts of many external ids. The lookups are sent concurrently, as many as the client allows connections per route.
+     *
+     * @param externalIds the external ids, duplicates are looked up once.
+     * @param standardFields standard properties of the contacts as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contacts.
+     * @return the found contacts by external id and the error of each failed lookup.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #getContactsByExternalId(java.lang.String, java.util.List, java.util.List)
+     */
+    public BatchResult<String, List<Contact>> getContactsByExternalIds(Collection<String> externalIds, List<StandardContactField> standardFields,
+            List<String> customFields) throws MaileonException {
+        return getContactsByExternalIds(externalIds, standardFields, customFields, getClient().getConfiguration().getMaxConnectionsPerRoute());
+    }
+
+    /**
+     * Looks up the contacts of many external ids with a bounded number of concurrent requests.
+     * <p>
+     * The lookups are sent by the daemon threads of the asynchronous transport of the client, so the service needs not be closed for the JVM to exit.</p>
+     *
+     * @param externalIds the external ids, duplicates are looked up once.
+     * @param standardFields standard properties of the contacts as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contacts.
+     * @param maxConcurrency the maximum number of lookups in flight.
+     * @return the found contacts by external id and the error of each failed lookup.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #getContactsByExternalId(java.lang.String, java.util.List, java.util.List)
+     */
+    public BatchResult<String, List<Contact>> getContactsByExternalIds(Collection<String> externalIds, List<StandardContactField> standardFields,
+            List<String> customFields, int maxConcurrency) throws MaileonException {
+        QueryParameters params = new QueryParameters();
+        params.add(standardFieldParameters(standardFields));
+        params.add(customFieldParameters(customFields));
+        return executeBatch(externalIds, maxConcurrency, externalId -> {
+            if (externalId.isEmpty()) {
+                return failedFuture(new MaileonNotFoundException("contact with externalId " + externalId + " isn't found"));
+            }
+            return getStreamingAsync("contacts/externalid/" + encodePath(externalId), params, MAILEON_XML_TYPE, MaileonContactsService::readContacts);
+        });
+    }
+
     /**
      * Updates a contact using particular settings.
      *
@@ -476,13 +644,137 @@ public class MaileonContactsService extends AbstractMaileonService {
         delete("contacts/contact", params);
     }
 
+    /**
+     * Removes the contacts of many email addresses. The requests are sent concurrently, as many as the client allows connections per route, and are subject to the rate limit of
+     * the client.
+     *
+     * @param emails the email addresses, duplicates are processed once.
+     * @return <code>true</code> for each processed identifier, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #deleteContactsByEmail(java.lang.String)
+     */
+    public BatchResult<String, Boolean> deleteContactsByEmails(Collection<String> emails) throws MaileonException {
+        return deleteContactsByEmails(emails, getClient().getConfiguration().getMaxConnectionsPerRoute(), null);
+    }
+
+    /**
+     * Removes the contacts of many email addresses with a bounded number of concurrent requests. Identifiers recorded in the journal are skipped, successfully processed
+     * ones are added to it, so a failed or interrupted job can be resumed by calling this method again with the same journal.
+     *
+     * @param emails the email addresses, duplicates are processed once.
+     * @param maxConcurrency the maximum number of requests in flight.
+     * @param journal the journal of completed identifiers, may be <code>null</code>.
+     * @return <code>true</code> for each processed identifier, <code>false</code> for each identifier skipped because of the journal, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #deleteContactsByEmail(java.lang.String)
+     */
+    public BatchResult<String, Boolean> deleteContactsByEmails(Collection<String> emails, int maxConcurrency, BulkJournal journal) throws MaileonException {
+        return executeBulk(emails, maxConcurrency, journal, email -> {
+            if (!email.contains("@")) {
+                return failedFuture(new MaileonNotFoundException("contact with email " + email + " isn't found"));
+            }
+            return deleteAsync("contacts/email/" + encodePath(email), null, MAILEON_XML_TYPE);
+        });
+    }
+
+    /**
+     * Removes the contacts of many external ids. The requests are sent concurrently, as many as the client allows connections per route, and are subject to the rate limit of
+     * the client.
+     *
+     * @param externalIds the external ids, duplicates are processed once.
+     * @return <code>true</code> for each processed identifier, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #deleteContactsByExternalId(java.lang.String)
+     */
+    public BatchResult<String, Boolean> deleteContactsByExternalIds(Collection<String> externalIds) throws MaileonException {
+        return deleteContactsByExternalIds(externalIds, getClient().getConfiguration().getMaxConnectionsPerRoute(), null);
+    }
+
+    /**
+     * Removes the contacts of many external ids with a bounded number of concurrent requests. Identifiers recorded in the journal are skipped, successfully processed
+     * ones are added to it, so a failed or interrupted job can be resumed by calling this method again with the same journal.
+     *
+     * @param externalIds the external ids, duplicates are processed once.
+     * @param maxConcurrency the maximum number of requests in flight.
+     * @param journal the journal of completed identifiers, may be <code>null</code>.
+     * @return <code>true</code> for each processed identifier, <code>false</code> for each identifier skipped because of the journal, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #deleteContactsByExternalId(java.lang.String)
+     */
+    public BatchResult<String, Boolean> deleteContactsByExternalIds(Collection<String> externalIds, int maxConcurrency, BulkJournal journal) throws MaileonException {
+        return executeBulk(externalIds, maxConcurrency, journal, externalId -> {
+            if (externalId.isEmpty()) {
+                return failedFuture(new MaileonNotFoundException("contact with externalId " + externalId + " isn't found"));
+            }
+            return deleteAsync("contacts/externalid/" + encodePath(externalId), null, MAILEON_XML_TYPE);
+        });
+    }
+
+    /**
+     * Removes the contacts of many maileon contact ids. The requests are sent concurrently, as many as the client allows connections per route, and are subject to the rate limit of
+     * the client.
+     *
+     * @param contactIds the maileon contact ids, duplicates are processed once.
+     * @return <code>true</code> for each processed identifier, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #deleteContactsByMaileonId(long)
+     */
+    public BatchResult<Long, Boolean> deleteContactsByMaileonIds(Collection<Long> contactIds) throws MaileonException {
+        return deleteContactsByMaileonIds(contactIds, getClient().getConfiguration().getMaxConnectionsPerRoute(), null);
+    }
+
+    /**
+     * Removes the contacts of many maileon contact ids with a bounded number of concurrent requests. Identifiers recorded in the journal are skipped, successfully processed
+     * ones are added to it, so a failed or interrupted job can be resumed by calling this method again with the same journal.
+     *
+     * @param contactIds the maileon contact ids, duplicates are processed once.
+     * @param maxConcurrency the maximum number of requests in flight.
+     * @param journal the journal of completed identifiers, may be <code>null</code>.
+     * @return <code>true</code> for each processed identifier, <code>false</code> for each identifier skipped because of the journal, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #deleteContactsByMaileonId(long)
+     */
+    public BatchResult<Long, Boolean> deleteContactsByMaileonIds(Collection<Long> contactIds, int maxConcurrency, BulkJournal journal) throws MaileonException {
+        return executeBulk(contactIds, maxConcurrency, journal, contactId -> {
+            if (contactId <= 0) {
+                return failedFuture(new MaileonNotFoundException("contact with id " + contactId + " isn't found"));
+            }
+            return deleteAsync("contacts/contact", new QueryParameters("id", contactId), MAILEON_XML_TYPE);
+        });
+    }
+
+    /**
+     * Reads a page of contacts, parsing the XML directly from the response stream.
+     *
+     * @param pageIndex the page index
+     * @param pageSize the page size
+     * @param response the response
+     * @return the page
+     */
+    static Page<Contact> toContactPage(int pageIndex, int pageSize, ResponseWrapper response) {
+        Page<Contact> page = PageUtils.createPage(pageIndex, pageSize, response);
+        page.setItems(readContacts(response));
+        return page;
+    }
+
+    /**
+     * Reads the contacts of a response with {@link ContactsXmlReader}, without building a DOM.
+     *
+     * @param response the response
+     * @return the contacts, an empty list if the response has no entity
+     */
+    static List<Contact> readContacts(ResponseWrapper response) {
+        InputStream in = response.getEntityAsStream();
+        return in == null ? new ArrayList<>() : ContactsXmlReader.read(in);
+    }
+
     /**
      * Standard field parameters.
      *
      * @param standardFields the standard fields
      * @return the query parameters
      */
-    private static QueryParameters standardFieldParameters(List<StandardContactField> standardFields) {
+    static QueryParameters standardFieldParameters(List<StandardContactField> standardFields) {
         QueryParameters parameters = new QueryParameters();
         if (standardFields != null) {
             for (StandardContactField scf : standardFields) {
@@ -500,7 +792,7 @@ public class MaileonContactsService extends AbstractMaileonService {
      * @param customFields the custom fields
      * @return the query parameters
      */
-    private static QueryParameters customFieldParameters(List<String> customFields) {
+    static QueryParameters customFieldParameters(List<String> customFields) {
         QueryParameters parameters = new QueryParameters();
         if (customFields != null) {
             for (String cf : customFields) {
@@ -529,9 +821,7 @@ public class MaileonContactsService extends AbstractMaileonService {
         QueryParameters params = new QueryParameters();
         params.add(standardFieldParameters(standardFields));
         params.add(customFieldParameters(customFields));
-        ResponseWrapper resp = get("contacts/emails/" + encodePath(email), params);
-        Element xml = resp.getEntityAsXml();
-        return ContactAdaptor.fromXml(xml.elements("contact"));
+        return getStreaming("contacts/emails/" + encodePath(email), params, MAILEON_XML_TYPE, MaileonContactsService::readContacts);
     }
 
     /**
@@ -576,4 +866,122 @@ public class MaileonContactsService extends AbstractMaileonService {
         }
         delete("contacts/externalid/" + externalId + "/unsubscribe");
     }
+
+    /**
+     * Unsubscribes the contacts of many email addresses. The requests are sent concurrently, as many as the client allows connections per route, and are subject to the rate limit of
+     * the client.
+     *
+     * @param emails the email addresses, duplicates are processed once.
+     * @return <code>true</code> for each processed identifier, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #unsubscribeContactsByEmail(java.lang.String)
+     */
+    public BatchResult<String, Boolean> unsubscribeContactsByEmails(Collection<String> emails) throws MaileonException {
+        return unsubscribeContactsByEmails(emails, getClient().getConfiguration().getMaxConnectionsPerRoute(), null);
+    }
+
+    /**
+     * Unsubscribes the contacts of many email addresses with a bounded number of concurrent requests. Identifiers recorded in the journal are skipped, successfully processed
+     * ones are added to it, so a failed or interrupted job can be resumed by calling this method again with the same journal.
+     *
+     * @param emails the email addresses, duplicates are processed once.
+     * @param maxConcurrency the maximum number of requests in flight.
+     * @param journal the journal of completed identifiers, may be <code>null</code>.
+     * @return <code>true</code> for each processed identifier, <code>false</code> for each identifier skipped because of the journal, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #unsubscribeContactsByEmail(java.lang.String)
+     */
+    public BatchResult<String, Boolean> unsubscribeContactsByEmails(Collection<String> emails, int maxConcurrency, BulkJournal journal) throws MaileonException {
+        return executeBulk(emails, maxConcurrency, journal, email -> {
+            if (!email.contains("@")) {
+                return failedFuture(new MaileonNotFoundException("contact with email " + email + " isn't found"));
+            }
+            return deleteAsync("contacts/email/" + encodePath(email) + "/unsubscribe", null, MAILEON_XML_TYPE);
+        });
+    }
+
+    /**
+     * Unsubscribes the contacts of many maileon contact ids. The requests are sent concurrently, as many as the client allows connections per route, and are subject to the rate limit of
+     * the client.
+     *
+     * @param contactIds the maileon contact ids, duplicates are processed once.
+     * @return <code>true</code> for each processed identifier, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #unsubscribeContactById(int)
+     */
+    public BatchResult<Long, Boolean> unsubscribeContactsByIds(Collection<Long> contactIds) throws MaileonException {
+        return unsubscribeContactsByIds(contactIds, getClient().getConfiguration().getMaxConnectionsPerRoute(), null);
+    }
+
+    /**
+     * Unsubscribes the contacts of many maileon contact ids with a bounded number of concurrent requests. Identifiers recorded in the journal are skipped, successfully processed
+     * ones are added to it, so a failed or interrupted job can be resumed by calling this method again with the same journal.
+     *
+     * @param contactIds the maileon contact ids, duplicates are processed once.
+     * @param maxConcurrency the maximum number of requests in flight.
+     * @param journal the journal of completed identifiers, may be <code>null</code>.
+     * @return <code>true</code> for each processed identifier, <code>false</code> for each identifier skipped because of the journal, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #unsubscribeContactById(int)
+     */
+    public BatchResult<Long, Boolean> unsubscribeContactsByIds(Collection<Long> contactIds, int maxConcurrency, BulkJournal journal) throws MaileonException {
+        return executeBulk(contactIds, maxConcurrency, journal, contactId -> {
+            if (contactId <= 0) {
+                return failedFuture(new MaileonNotFoundException("contact with id " + contactId + " isn't found"));
+            }
+            return deleteAsync("contacts/contact/unsubscribe", new QueryParameters("id", contactId), MAILEON_XML_TYPE);
+        });
+    }
+
+    /**
+     * Unsubscribes the contacts of many external ids. The requests are sent concurrently, as many as the client allows connections per route, and are subject to the rate limit of
+     * the client.
+     *
+     * @param externalIds the external ids, duplicates are processed once.
+     * @return <code>true</code> for each processed identifier, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #unsubscribeContactByExternalId(java.lang.String)
+     */
+    public BatchResult<String, Boolean> unsubscribeContactsByExternalIds(Collection<String> externalIds) throws MaileonException {
+        return unsubscribeContactsByExternalIds(externalIds, getClient().getConfiguration().getMaxConnectionsPerRoute(), null);
+    }
+
+    /**
+     * Unsubscribes the contacts of many external ids with a bounded number of concurrent requests. Identifiers recorded in the journal are skipped, successfully processed
+     * ones are added to it, so a failed or interrupted job can be resumed by calling this method again with the same journal.
+     *
+     * @param externalIds the external ids, duplicates are processed once.
+     * @param maxConcurrency the maximum number of requests in flight.
+     * @param journal the journal of completed identifiers, may be <code>null</code>.
+     * @return <code>true</code> for each processed identifier, <code>false</code> for each identifier skipped because of the journal, and the error of each failed one.
+     * @throws MaileonException if the calling thread was interrupted
+     * @see #unsubscribeContactByExternalId(java.lang.String)
+     */
+    public BatchResult<String, Boolean> unsubscribeContactsByExternalIds(Collection<String> externalIds, int maxConcurrency, BulkJournal journal) throws MaileonException {
+        return executeBulk(externalIds, maxConcurrency, journal, externalId -> {
+            if (externalId.isEmpty()) {
+                return failedFuture(new MaileonNotFoundException("contact with externalId " + externalId + " isn't found"));
+            }
+            return deleteAsync("contacts/externalid/" + encodePath(externalId) + "/unsubscribe", null, MAILEON_XML_TYPE);
+        });
+    }
+
+    private static <K> BatchResult<K, Boolean> executeBulk(Collection<K> keys, int maxConcurrency, BulkJournal journal,
+            Function<K, CompletableFuture<ResponseWrapper>> request) throws MaileonException {
+        return executeBatch(keys, maxConcurrency, key -> {
+            if (journal != null && journal.isCompleted(key)) {
+                return CompletableFuture.completedFuture(Boolean.FALSE);
+            }
+            return request.apply(key).thenApply(response -> {
+                if (journal != null) {
+                    try {
+                        journal.markCompleted(key);
+                    } catch (IOException e) {
+                        throw new MaileonClientException("Unable to write journal", e);
+                    }
+                }
+                return Boolean.TRUE;
+            });
+        });
+    }
 }
@@ -0,0 +1,529 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.*;
+import java.text.SimpleDateFormat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.GenericEntity;
+
+/**
+ * The <code>MaileonContactsServiceAsync</code> is the non-blocking counterpart of {@link MaileonContactsService}. Every method returns immediately with a
+ * {@link CompletableFuture}, which is completed with the result or exceptionally with a {@link MaileonException}.
+ *
+ * <p>
+ * The requests are executed by the asynchronous thread pool of the underlying {@link MaileonClient}, see {@link MaileonConfiguration#setAsyncThreadPoolSize(int)}.</p>
+ *
+ */
+public class MaileonContactsServiceAsync extends AbstractMaileonService {
+
+    public static final String SERVICE = "MAILEON CONTACTS ASYNC";
+
+    /**
+     * Constructs a <code>MaileonContactsServiceAsync</code>.
+     *
+     * @param config Maileon API-Configuration.
+     */
+    public MaileonContactsServiceAsync(MaileonConfiguration config) {
+        super(config, SERVICE);
+    }
+
+    /**
+     * Constructs a <code>MaileonContactsServiceAsync</code> using a shared client.
+     *
+     * @param client shared Maileon client.
+     */
+    public MaileonContactsServiceAsync(MaileonClient client) {
+        super(client, SERVICE);
+    }
+
+    /**
+     * Gets the total count of contacts in the account.
+     *
+     * @return the future count of contacts.
+     * @see MaileonContactsService#countContacts()
+     */
+    public CompletableFuture<Integer> countContacts() {
+        return countContacts(null);
+    }
+
+    /**
+     * Gets the total count of contacts in the account.
+     *
+     * @param updatedAfter filter for updated-property
+     * @return the future count of contacts.
+     * @see MaileonContactsService#countContacts(java.util.Date)
+     */
+    public CompletableFuture<Integer> countContacts(Date updatedAfter) {
+        QueryParameters params = null;
+        if (updatedAfter != null) {
+            SimpleDateFormat dateformat = new SimpleDateFormat(DateTimeConstants.SQL_DATE_TIME_FORMAT, Locale.ENGLISH);
+            params = new QueryParameters("updated_after", dateformat.format(updatedAfter));
+        }
+        return getAsync("contacts/count", params, MAILEON_XML_TYPE).thenApply(response -> {
+            try {
+                return Integer.parseInt(response.getEntityAsXml().getText());
+            } catch (NumberFormatException nfe) {
+                throw new MaileonClientException("unexpected response format", nfe);
+            }
+        });
+    }
+
+    /**
+     * Creates a single contact with a given synchronization mode.
+     *
+     * @param contact the {@link Contact} object to create.
+     * @param syncMode the {@link SynchronizationMode} determines the case whether the contact should be update or ignored if it already exists.
+     * @return the future id of created contact
+     * @see MaileonContactsService#createContact(com.maileon.api.contacts.Contact, com.maileon.api.contacts.SynchronizationMode)
+     */
+    public CompletableFuture<Long> createContact(Contact contact, SynchronizationMode syncMode) {
+        return createContact(contact, syncMode, null, null, false, false, null, false);
+    }
+
+    /**
+     * Creates a single contact.
+     *
+     * @param contact the {@link Contact} to create.
+     * @param syncMode the {@link SynchronizationMode} determines whether the permission should be updated or ignored if they already exist.
+     * @param src the source of the contact if provided.
+     * @param subscriptionPage in case where this method was called by a subscription page.
+     * @param doi if <code>true</code> a double opt-in process is started for the created contact.
+     * @param doiPlus the doi plus, ignored if the parameter doi is set to <code>false</code>.
+     * @param doiMailingKey the key of the doi mailing, ignored if the parameter doi is set to <code>false</code>.
+     * @return the future id of the created contact
+     * @see MaileonContactsService#createContact(com.maileon.api.contacts.Contact, com.maileon.api.contacts.SynchronizationMode, java.lang.String, java.lang.String, boolean,
+     * boolean, java.lang.String)
+     */
+    public CompletableFuture<Long> createContact(Contact contact, SynchronizationMode syncMode, String src, String subscriptionPage, boolean doi, boolean doiPlus,
+            String doiMailingKey) {
+        return createContact(contact, syncMode, src, subscriptionPage, doi, doiPlus, doiMailingKey, false);
+    }
+
+    /**
+     * Creates a single contact.
+     *
+     * @param contact the {@link Contact} to create.
+     * @param syncMode the {@link SynchronizationMode} determines whether the permission should be updated or ignored if they already exist.
+     * @param src the source of the contact if provided.
+     * @param subscriptionPage in case where this method was called by a subscription page.
+     * @param doi if <code>true</code> a double opt-in process is started for the created contact.
+     * @param doiPlus the doi plus, ignored if the parameter doi is set to <code>false</code>.
+     * @param doiMailingKey the key of the doi mailing, ignored if the parameter doi is set to <code>false</code>.
+     * @param useExternalIdasPrimaryID if <code>true</code> the externalId will be used as a contact identifier, otherwise the email.
+     * @return the future id of the created contact
+     * @see MaileonContactsService#createContact(com.maileon.api.contacts.Contact, com.maileon.api.contacts.SynchronizationMode, java.lang.String, java.lang.String, boolean,
+     * boolean, java.lang.String, boolean)
+     */
+    public CompletableFuture<Long> createContact(Contact contact, SynchronizationMode syncMode, String src, String subscriptionPage,
+            boolean doi, boolean doiPlus, String doiMailingKey, boolean useExternalIdasPrimaryID) {
+        if (contact == null) {
+            return failedFuture(new MaileonClientException("contact cannot be null"));
+        }
+        if (contact.getEmail() == null) {
+            return failedFuture(new MaileonClientException("email address cannot be null"));
+        }
+        if (useExternalIdasPrimaryID && contact.getExternalId() == null) {
+            return failedFuture(new MaileonClientException("external ID cannot be null when using as primary ID"));
+        }
+        QueryParameters params = new QueryParameters();
+        Permission permission = contact.getPermission();
+        if (permission != null) {
+            params.add("permission", permission.getCode());
+        }
+        if (syncMode != null) {
+            params.add("sync_mode", syncMode.getCode());
+        }
+        params.add("src", src);
+        params.add("subscription_page", subscriptionPage);
+        if (doi) {
+            params.add("doi", doi);
+            if (doiPlus) {
+                params.add("doiplus", doiPlus);
+            }
+            if (doiMailingKey != null) {
+                params.add("doimailing", doiMailingKey);
+            }
+        }
+
+        String xml = ContactAdaptor.toXml(contact, true).asXML();
+        String path = useExternalIdasPrimaryID ? encodedPath("contacts/externalid/", contact.getExternalId()) : encodedPath("contacts/", contact.getEmail());
+        return postAsync(path, params, MAILEON_XML_TYPE, MAILEON_XML_TYPE, xml).thenApply(resp -> {
+            if (resp.getStatusCode() == 201) {
+                return Long.parseLong(resp.getEntityAsXml().getText());
+            }
+            throw new WebApplicationException(resp.getStatusCode());
+        });
+    }
+
+    /**
+     * Synchronizes (updates) a list of contacts in the account.
+     *
+     * @param contacts list of {@link Contact} to synchronize.
+     * @param permission the assigned permission (none, single opt-in, double opt-in, ..., etc).
+     * @param syncMode the {@link SynchronizationMode} determines the case whether the permission should be updated or ignored if they already exist.
+     * @param useExternalId if <code>true</code> the externalId will be used as a contact identifier, otherwise the email.
+     * @param ignoreInvalidContacts if <code>true</code> the invalid contacts will be ignored.
+     * @param reimportUnsubscribedContacts if <code>true</code> the unsubscribed contacts will be reimported, otherwise they will be ignored.
+     * @param overridePermission if <code>true</code> the permission of existing and non existing contacts will be overridden.
+     * @param updateOnly if <code>true</code> only existing contacts are updated and no new contacts are created.
+     * @return the future {@link SynchronizationReport}.
+     * @see MaileonContactsService#synchronizeContacts(java.util.List, com.maileon.api.contacts.Permission, com.maileon.api.contacts.SynchronizationMode, boolean, boolean,
+     * boolean, boolean, boolean)
+     */
+    public CompletableFuture<SynchronizationReport> synchronizeContacts(List<Contact> contacts, Permission permission, SynchronizationMode syncMode,
+            boolean useExternalId, boolean ignoreInvalidContacts, boolean reimportUnsubscribedContacts, boolean overridePermission, boolean updateOnly) {
+        return synchronizeContacts(contacts, permission, syncMode, useExternalId, ignoreInvalidContacts, reimportUnsubscribedContacts, overridePermission, updateOnly, false);
+    }
+
+    /**
+     * Synchronizes (updates) a list of contacts in the account.
+     *
+     * @param contacts list of {@link Contact} to synchronize.
+     * @param permission the assigned permission (none, single opt-in, double opt-in, ..., etc).
+     * @param syncMode the {@link SynchronizationMode} determines the case whether the permission should be updated or ignored if they already exist.
+     * @param useExternalId if <code>true</code> the externalId will be used as a contact identifier, otherwise the email.
+     * @param ignoreInvalidContacts if <code>true</code> the invalid contacts will be ignored.
+     * @param reimportUnsubscribedContacts if <code>true</code> the unsubscribed contacts will be reimported, otherwise they will be ignored.
+     * @param overridePermission if <code>true</code> the permission of existing and non existing contacts will be overridden.
+     * @param updateOnly if <code>true</code> only existing contacts are updated and no new contacts are created.
+     * @param preferMaileonId if <code>true</code> Maileon tries identifying contacts by Maileon-ID, if available.
+     * @return the future {@link SynchronizationReport}.
+     * @see MaileonContactsService#synchronizeContacts(java.util.List, com.maileon.api.contacts.Permission, com.maileon.api.contacts.SynchronizationMode, boolean, boolean,
+     * boolean, boolean, boolean, boolean)
+     */
+    public CompletableFuture<SynchronizationReport> synchronizeContacts(List<Contact> contacts, Permission permission, SynchronizationMode syncMode,
+            boolean useExternalId, boolean ignoreInvalidContacts, boolean reimportUnsubscribedContacts, boolean overridePermission, boolean updateOnly, boolean preferMaileonId) {
+        if (contacts == null) {
+            return failedFuture(new MaileonClientException("contacts cannot be null"));
+        }
+        if (contacts.isEmpty()) {
+            return CompletableFuture.completedFuture(new SynchronizationReport());
+        }
+        QueryParameters params = new QueryParameters();
+        if (permission != null) {
+            params.add("permission", permission.getCode());
+        }
+        if (syncMode != null) {
+            params.add("sync_mode", syncMode.getCode());
+        }
+        if (preferMaileonId) {
+            params.add("prefer_maileon_id", true);
+        }
+
+        params.add("ignore_invalid_contacts", ignoreInvalidContacts);
+        params.add("reimport_unsubscribed_contacts", reimportUnsubscribedContacts);
+        params.add("override_permission", overridePermission);
+        params.add("update_only", updateOnly);
+
+        params.add("use_external_id", useExternalId);
+        // written to the request stream by ContactsXmlWriter
+        GenericEntity<List<Contact>> entity = new GenericEntity<List<Contact>>(contacts) {
+        };
+        return postIdempotentAsync("contacts", params, MAILEON_XML_TYPE, MAILEON_XML_TYPE, entity)
+                .thenApply(response -> SynchronizationReportAdaptor.fromXml(response.getEntityAsXml()));
+    }
+
+    /**
+     * Returns a page of contacts in the accounts.
+     *
+     * @param standardFields standard properties of the contacts as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contacts.
+     * @param pageIndex the page index starting from 1.
+     * @param pageSize the number of contacts in the page.
+     * @return the future page containing the returned {@link Contact} objects.
+     * @see MaileonContactsService#getContacts(java.util.List, java.util.List, int, int)
+     */
+    public CompletableFuture<Page<Contact>> getContacts(List<StandardContactField> standardFields, List<String> customFields, int pageIndex, int pageSize) {
+        return getContacts(standardFields, customFields, pageIndex, pageSize, null);
+    }
+
+    /**
+     * Returns a page of contacts in the accounts.
+     *
+     * @param standardFields standard properties of the contacts as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contacts.
+     * @param pageIndex the page index starting from 1.
+     * @param pageSize the number of contacts in the page.
+     * @param updatedAfter filter for updated-property
+     * @return the future page containing the returned {@link Contact} objects.
+     * @see MaileonContactsService#getContacts(java.util.List, java.util.List, int, int, java.util.Date)
+     */
+    public CompletableFuture<Page<Contact>> getContacts(List<StandardContactField> standardFields, List<String> customFields, int pageIndex, int pageSize, Date updatedAfter) {
+        if (pageIndex < 1) {
+            return failedFuture(new MaileonBadRequestException("pageIndex must be > 0 - found: " + pageIndex));
+        }
+        if (pageSize < 1) {
+            return failedFuture(new MaileonBadRequestException("pageSize must be > 0 - found: " + pageSize));
+        }
+        QueryParameters params = new QueryParameters("page_index", pageIndex);
+        params.add("page_size", pageSize);
+        params.add(MaileonContactsService.standardFieldParameters(standardFields));
+        params.add(MaileonContactsService.customFieldParameters(customFields));
+        if (updatedAfter != null) {
+            SimpleDateFormat dateformat = new SimpleDateFormat(DateTimeConstants.SQL_DATE_TIME_FORMAT, Locale.ENGLISH);
+            params.add("updated_after", dateformat.format(updatedAfter));
+        }
+
+        return getStreamingAsync("contacts", params, MAILEON_XML_TYPE, response -> MaileonContactsService.toContactPage(pageIndex, pageSize, response));
+    }
+
+    /**
+     * Returns a page of contacts in the accounts that match a particular filter.
+     *
+     * @param contactFilterId the id of the required filter.
+     * @param standardFields standard properties of the contacts as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contacts.
+     * @param pageIndex the page index starting from 1.
+     * @param pageSize the number of contacts in the page.
+     * @return the future page containing the returned {@link Contact} objects.
+     * @see MaileonContactsService#getContactsByFilterId(long, java.util.List, java.util.List, int, int)
+     */
+    public CompletableFuture<Page<Contact>> getContactsByFilterId(long contactFilterId, List<StandardContactField> standardFields, List<String> customFields,
+            int pageIndex, int pageSize) {
+        QueryParameters params = new QueryParameters("page_index", pageIndex);
+        params.add("page_size", pageSize);
+        params.add(MaileonContactsService.standardFieldParameters(standardFields));
+        params.add(MaileonContactsService.customFieldParameters(customFields));
+
+        return getStreamingAsync("contacts/filter/" + contactFilterId, params, MAILEON_XML_TYPE,
+                response -> MaileonContactsService.toContactPage(pageIndex, pageSize, response));
+    }
+
+    /**
+     * Returns a single contact with a given email address.
+     *
+     * @param email the email of the searched contacts.
+     * @param standardFields standard properties of the contact as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contact.
+     * @return the future {@link Contact}.
+     * @see MaileonContactsService#getContact(java.lang.String, java.util.List, java.util.List)
+     */
+    public CompletableFuture<Contact> getContact(String email, List<StandardContactField> standardFields, List<String> customFields) {
+        if (email == null || !email.contains("@")) {
+            return failedFuture(new MaileonNotFoundException("contact with email " + email + " isn't found"));
+        }
+        QueryParameters params = new QueryParameters();
+        params.add(MaileonContactsService.standardFieldParameters(standardFields));
+        params.add(MaileonContactsService.customFieldParameters(customFields));
+        return getAsync(encodedPath("contacts/email/", email), params, MAILEON_XML_TYPE)
+                .thenApply(response -> ContactAdaptor.fromXml(response.getEntityAsXml()));
+    }
+
+    /**
+     * Returns a single contact using maileon contact id.
+     *
+     * @param id the maileon contact id.
+     * @param checksum the checksum of the maileon contact id to prevent form fields manipulation.
+     * @param standardFields standard properties of the contact as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contact.
+     * @return the future {@link Contact}.
+     * @see MaileonContactsService#getContact(long, java.lang.String, java.util.List, java.util.List)
+     */
+    public CompletableFuture<Contact> getContact(long id, String checksum, List<StandardContactField> standardFields, List<String> customFields) {
+        if (checksum == null) {
+            return failedFuture(new MaileonBadRequestException("illegal checksum"));
+        }
+        QueryParameters params = new QueryParameters("id", id);
+        params.add("checksum", checksum);
+        params.add(MaileonContactsService.standardFieldParameters(standardFields));
+        params.add(MaileonContactsService.customFieldParameters(customFields));
+
+        return getAsync("contacts/contact", params, MAILEON_XML_TYPE).thenApply(response -> ContactAdaptor.fromXml(response.getEntityAsXml()));
+    }
+
+    /**
+     * Returns a list of contacts using an external id.
+     *
+     * @param externalId the externaId to use.
+     * @param standardFields standard properties of the contact as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contact.
+     * @return the future list of found {@link Contact}.
+     * @see MaileonContactsService#getContactsByExternalId(java.lang.String, java.util.List, java.util.List)
+     */
+    public CompletableFuture<List<Contact>> getContactsByExternalId(String externalId, List<StandardContactField> standardFields, List<String> customFields) {
+        if (externalId == null || externalId.isEmpty()) {
+            return failedFuture(new MaileonNotFoundException("contact with externalId " + externalId + " isn't found"));
+        }
+        QueryParameters params = new QueryParameters();
+        params.add(MaileonContactsService.standardFieldParameters(standardFields));
+        params.add(MaileonContactsService.customFieldParameters(customFields));
+        return getAsync(encodedPath("contacts/externalid/", externalId), params, MAILEON_XML_TYPE)
+                .thenApply(response -> ContactAdaptor.fromXml(response.getEntityAsXml().elements()));
+    }
+
+    /**
+     * Returns the contacts having the provided email address.
+     *
+     * @param email the email of the searched contacts.
+     * @param standardFields standard properties of the contact as list of {@link StandardContactField}.
+     * @param customFields custom properties of the contact.
+     * @return the future list of the found {@link Contact}.
+     * @see MaileonContactsService#getContactsByEmail(java.lang.String, java.util.List, java.util.List)
+     */
+    public CompletableFuture<List<Contact>> getContactsByEmail(String email, List<StandardContactField> standardFields, List<String> customFields) {
+        if (email == null || !email.contains("@")) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        QueryParameters params = new QueryParameters();
+        params.add(MaileonContactsService.standardFieldParameters(standardFields));
+        params.add(MaileonContactsService.customFieldParameters(customFields));
+        return getStreamingAsync(encodedPath("contacts/emails/", email), params, MAILEON_XML_TYPE, MaileonContactsService::readContacts);
+    }
+
+    /**
+     * Updates a contact using particular settings.
+     *
+     * @param contact the {@link Contact} to update
+     * @param checksum the corresponding checksum of the contact.
+     * @param triggerDoi if <code>true</code> a doi process will be triggered.
+     * @param src the source of the contact if provided.
+     * @param pageKey in case where this method was called by a landing page.
+     * @param doiMailingKey the key of the doi mailing.
+     * @param ignoreChecksum if this flag ist set to <code>true</code>, the method will ignore the checksum.
+     * @return the future completed when the contact was updated
+     * @see MaileonContactsService#updateContact(com.maileon.api.contacts.Contact, java.lang.String, boolean, java.lang.String, java.lang.String, java.lang.String, boolean)
+     */
+    public CompletableFuture<Void> updateContact(Contact contact, String checksum, boolean triggerDoi, String src, String pageKey, String doiMailingKey, boolean ignoreChecksum) {
+        Long id = contact.getId();
+        if (null == id) {
+            return failedFuture(new MaileonClientException("contact id required"));
+        }
+        QueryParameters params = new QueryParameters("id", id);
+        params.add("checksum", checksum);
+        Permission permission = contact.getPermission();
+        if (permission != null) {
+            params.add("permission", permission.getCode());
+        }
+        params.add("triggerdoi", triggerDoi);
+        params.add("src", src);
+        params.add("page_key", pageKey);
+        params.add("doimailing", doiMailingKey);
+        if (ignoreChecksum) {
+            params.add("ignore_checksum", true);
+        }
+        return putAsync("contacts/contact", params, MAILEON_XML_TYPE, ContactAdaptor.toXml(contact, false).asXML()).thenApply(response -> null);
+    }
+
+    /**
+     * Updates a contact identified by its email address.
+     *
+     * @param email the email of contact
+     * @param contact the {@link Contact} to update
+     * @return the future completed when the contact was updated
+     * @see MaileonContactsService#updateContactByEmail(java.lang.String, com.maileon.api.contacts.Contact)
+     */
+    public CompletableFuture<Void> updateContactByEmail(String email, Contact contact) {
+        if (null == email || !email.contains("@")) {
+            return failedFuture(new MaileonClientException("email is required"));
+        }
+        QueryParameters params = new QueryParameters();
+        Permission permission = contact.getPermission();
+        if (permission != null) {
+            params.add("permission", permission.getCode());
+        }
+        return putAsync(encodedPath("contacts/", email), params, MAILEON_XML_TYPE, ContactAdaptor.toXml(contact, false).asXML()).thenApply(response -> null);
+    }
+
+    /**
+     * Removes a contact completely given an email address.
+     *
+     * @param email the corresponding email address of the contact.
+     * @return the future completed when the contact was deleted
+     * @see MaileonContactsService#deleteContactsByEmail(java.lang.String)
+     */
+    public CompletableFuture<Void> deleteContactsByEmail(String email) {
+        if (email == null || !email.contains("@")) {
+            return failedFuture(new MaileonNotFoundException("contact with email " + email + " isn't found"));
+        }
+        return deleteAsync(encodedPath("contacts/email/", email), null, MAILEON_XML_TYPE).thenApply(response -> null);
+    }
+
+    /**
+     * Removes a contact completely given an external contact id.
+     *
+     * @param externalId the corresponding external contact id.
+     * @return the future completed when the contacts were deleted
+     * @see MaileonContactsService#deleteContactsByExternalId(java.lang.String)
+     */
+    public CompletableFuture<Void> deleteContactsByExternalId(String externalId) {
+        if (externalId == null || externalId.isEmpty()) {
+            return failedFuture(new MaileonNotFoundException("contact with externalId " + externalId + " isn't found"));
+        }
+        return deleteAsync(encodedPath("contacts/externalid/", externalId), null, MAILEON_XML_TYPE).thenApply(response -> null);
+    }
+
+    /**
+     * Removes a contact completely given a maileon contact id.
+     *
+     * @param contactId the maileon contact id
+     * @return the future completed when the contact was deleted
+     * @see MaileonContactsService#deleteContactsByMaileonId(long)
+     */
+    public CompletableFuture<Void> deleteContactsByMaileonId(long contactId) {
+        if (contactId <= 0) {
+            return failedFuture(new MaileonNotFoundException("contact with id " + contactId + " isn't found"));
+        }
+        return deleteAsync("contacts/contact", new QueryParameters("id", contactId), MAILEON_XML_TYPE).thenApply(response -> null);
+    }
+
+    /**
+     * Unsubscribes the contact(s) with the given email address in the account.
+     *
+     * @param email of contacts to unsubsribe.
+     * @return the future completed when the contacts were unsubscribed
+     * @see MaileonContactsService#unsubscribeContactsByEmail(java.lang.String)
+     */
+    public CompletableFuture<Void> unsubscribeContactsByEmail(String email) {
+        if (email == null || !email.contains("@")) {
+            return failedFuture(new MaileonNotFoundException("contact with email " + email + " isn't found"));
+        }
+        return deleteAsync(encodedPath("contacts/email/", email) + "/unsubscribe", null, MAILEON_XML_TYPE).thenApply(response -> null);
+    }
+
+    /**
+     * Unsubscribes a contact using the maileon contact id.
+     *
+     * @param contactId the given maileon contact id.
+     * @return the future completed when the contact was unsubscribed
+     * @see MaileonContactsService#unsubscribeContactById(int)
+     */
+    public CompletableFuture<Void> unsubscribeContactById(long contactId) {
+        if (contactId <= 0) {
+            return failedFuture(new MaileonNotFoundException("contact with id " + contactId + " isn't found"));
+        }
+        return deleteAsync("contacts/contact/unsubscribe", new QueryParameters("id", contactId), MAILEON_XML_TYPE).thenApply(response -> null);
+    }
+
+    /**
+     * Unsubscribes a contact using an external contact id.
+     *
+     * @param externalId the provided external contact id.
+     * @return the future completed when the contacts were unsubscribed
+     * @see MaileonContactsService#unsubscribeContactByExternalId(java.lang.String)
+     */
+    public CompletableFuture<Void> unsubscribeContactByExternalId(String externalId) {
+        if (externalId == null || externalId.isEmpty()) {
+            return failedFuture(new MaileonNotFoundException("contact with externalId " + externalId + " isn't found"));
+        }
+        return deleteAsync(encodedPath("contacts/externalid/", externalId) + "/unsubscribe", null, MAILEON_XML_TYPE).thenApply(response -> null);
+    }
+
+    /**
+     * Gets all custom fields defined in the account.
+     *
+     * @return the future list of {@link CustomContactFieldDefinition}.
+     * @see MaileonContactFieldsService#getCustomFields()
+     */
+    public CompletableFuture<List<CustomContactFieldDefinition>> getCustomFields() {
+        return getAsync("contacts/fields/custom", null, MAILEON_XML_TYPE).thenApply(response -> CustomContactFieldDefinitionAdaptor.fromXml(response.getEntityAsXml()));
+    }
+
+    private static String encodedPath(String prefix, String value) {
+        return prefix + encodePath(value);
+    }
+}
@@ -3,6 +3,7 @@ package com.maileon.api.mailings;
 import com.maileon.api.AbstractMaileonService;
 import com.maileon.api.MaileonBadRequestException;
 import com.maileon.api.MaileonClientException;
+import com.maileon.api.MaileonClient;
 import com.maileon.api.MaileonConfiguration;
 import com.maileon.api.MaileonException;
 import com.maileon.api.MaileonNotFoundException;
@@ -14,13 +15,16 @@ import com.maileon.api.mailings.trigger.DispatchOptionsXmlSerializer;
 import com.maileon.api.mailings.xml.MailingsXmlSerializer;
 import com.maileon.api.utils.PageUtils;
 import com.maileon.api.utils.serialization.KeyValuePair;
+import org.apache.commons.io.IOUtils;
 import org.dom4j.Element;
 
 import javax.ws.rs.core.MediaType;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
@@ -67,6 +71,15 @@ public class MaileonMailingsService extends AbstractMaileonService {
         super(config, SERVICE);
     }
 
+    /**
+     * Constructs a <code>MaileonMailingsService</code> using a shared client.
+     *
+     * @param client shared Maileon client.
+     */
+    public MaileonMailingsService(MaileonClient client) {
+        super(client, SERVICE);
+    }
+
     /**
      * Creates a regular mailing and returns its ID.
      * <p>
@@ -1233,6 +1246,28 @@ public class MaileonMailingsService extends AbstractMaileonService {
         return get("mailings/" + mailingId + "/attachments/" + attachmentId, null, MediaType.WILDCARD_TYPE).getEntity();
     }
 
+    /**
+     * Writes the attachment with the provided id to a stream without holding the whole file in memory.
+     *
+     * @param mailingId the id of the mailing
+     * @param attachmentId the id of the required attachment.
+     * @param out the stream the attachment is written to, which is not closed.
+     * @return the number of bytes written.
+     * @throws MaileonException
+     */
+    public long writeAttachment(long mailingId, long attachmentId, OutputStream out) throws MaileonException {
+        return getStreaming("mailings/" + mailingId + "/attachments/" + attachmentId, null, MediaType.WILDCARD_TYPE, response -> {
+            if (!response.hasEntity()) {
+                return 0L;
+            }
+            try (InputStream in = response.getEntityAsStream()) {
+                return IOUtils.copyLarge(in, out);
+            } catch (IOException e) {
+                throw new MaileonClientException("failed to write attachment", e);
+            }
+        });
+    }
+
     /**
      * Returns a page of mailings in the account that match the provided scheduling time (one or a list).
      * <p>
@@ -0,0 +1,78 @@
+package com.maileon.api.metrics;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Replaces the variable parts of a request path by placeholders, so calls can be grouped by endpoint without creating one metric per contact or mailing.
+ *
+ */
+public final class EndpointTemplate {
+
+    /**
+     * Path segments followed by a name or an external id.
+     */
+    private static final Set<String> NAME_PARENTS = new HashSet<>(Arrays.asList("types", "custom", "standard"));
+
+    private static final Set<String> EMAIL_PARENTS = new HashSet<>(Arrays.asList("email", "emails"));
+
+    /**
+     * Fixed path segments which may follow a segment in {@link #NAME_PARENTS}.
+     */
+    private static final Set<String> RESERVED = new HashSet<>(Arrays.asList("count", "values", "unsubscribe"));
+
+    private EndpointTemplate() {
+    }
+
+    /**
+     * Gets the endpoint template of a path, e.g. <code>contacts/email/{email}</code> for <code>contacts/email/max%40example.com</code>.
+     *
+     * @param path the path
+     * @return the endpoint template
+     */
+    public static String of(String path) {
+        if (path == null) {
+            return null;
+        }
+        String[] segments = path.split("/");
+        StringBuilder sb = new StringBuilder(path.length());
+        String previous = null;
+        for (String segment : segments) {
+            if (sb.length() > 0) {
+                sb.append('/');
+            }
+            sb.append(placeholder(previous, segment));
+            previous = segment;
+        }
+        return sb.toString();
+    }
+
+    private static String placeholder(String previous, String segment) {
+        if (segment.isEmpty() || RESERVED.contains(segment)) {
+            return segment;
+        }
+        if (isNumber(segment)) {
+            return "{id}";
+        }
+        if (segment.contains("@") || segment.contains("%40") || (previous != null && EMAIL_PARENTS.contains(previous))) {
+            return "{email}";
+        }
+        if ("externalid".equals(previous)) {
+            return "{externalId}";
+        }
+        if (previous != null && NAME_PARENTS.contains(previous)) {
+            return "{name}";
+        }
+        return segment;
+    }
+
+    private static boolean isNumber(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
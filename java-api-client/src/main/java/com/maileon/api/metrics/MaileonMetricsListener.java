@@ -0,0 +1,19 @@
+package com.maileon.api.metrics;
+
+/**
+ * A <code>MaileonMetricsListener</code> is notified once for every call to Maileon, after its last attempt completed.
+ * <p>
+ * Listeners are called on the thread completing the call and must not block. Use it to feed a metrics library, e.g. a Micrometer timer tagged with
+ * {@link RequestMetrics#getMethod()}, {@link RequestMetrics#getEndpointTemplate()} and {@link RequestMetrics#getStatusCode()}.</p>
+ *
+ */
+@FunctionalInterface
+public interface MaileonMetricsListener {
+
+    /**
+     * Called when a call completed, successfully or not.
+     *
+     * @param metrics the metrics of the call
+     */
+    void requestCompleted(RequestMetrics metrics);
+}
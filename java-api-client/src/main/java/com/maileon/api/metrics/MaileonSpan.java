@@ -0,0 +1,27 @@
+package com.maileon.api.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The span of a call to Maileon started by a {@link MaileonTracer}.
+ *
+ */
+public interface MaileonSpan {
+
+    /**
+     * Gets the headers added to every attempt of the call, e.g. <code>traceparent</code> for W3C trace context propagation.
+     *
+     * @return the headers
+     */
+    default Map<String, String> getHeaders() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Ends the span.
+     *
+     * @param metrics the metrics of the call
+     */
+    void end(RequestMetrics metrics);
+}
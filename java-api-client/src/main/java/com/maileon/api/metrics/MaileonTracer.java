@@ -0,0 +1,19 @@
+package com.maileon.api.metrics;
+
+/**
+ * A <code>MaileonTracer</code> starts a span for every call to Maileon. It can be bridged to OpenTelemetry by starting a client span with the given name and injecting its
+ * context with {@link MaileonSpan#getHeaders()}.
+ *
+ */
+@FunctionalInterface
+public interface MaileonTracer {
+
+    /**
+     * Starts the span of a call.
+     *
+     * @param method the HTTP method
+     * @param endpointTemplate the path of the call with ids replaced by placeholders, e.g. <code>contacts/email/{email}</code>
+     * @return the span, never <code>null</code>
+     */
+    MaileonSpan startSpan(String method, String endpointTemplate);
+}
@@ -0,0 +1,91 @@
+package com.maileon.api.metrics;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The <code>MetricsFilter</code> counts the entity bytes sent and received and exposes the {@link MetricsRecorder} of a request to the connection pool. It runs before the
+ * entity coders, so compressed entities are counted as sent over the wire.
+ *
+ */
+@Priority(Priorities.ENTITY_CODER - 1000)
+public class MetricsFilter implements ClientRequestFilter, ClientResponseFilter, ReaderInterceptor, WriterInterceptor {
+
+    @Override
+    public void filter(ClientRequestContext requestContext) throws IOException {
+        MetricsRecorder.setCurrent((MetricsRecorder) requestContext.getProperty(MetricsRecorder.PROPERTY));
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) throws IOException {
+        MetricsRecorder.setCurrent(null);
+    }
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+        MetricsRecorder recorder = (MetricsRecorder) context.getProperty(MetricsRecorder.PROPERTY);
+        if (recorder != null) {
+            context.setInputStream(new FilterInputStream(context.getInputStream()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        recorder.addBytesReceived(1L);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = super.read(b, off, len);
+                    if (n > 0) {
+                        recorder.addBytesReceived(n);
+                    }
+                    return n;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    long skipped = super.skip(n);
+                    recorder.addBytesReceived(skipped);
+                    return skipped;
+                }
+            });
+        }
+        return context.proceed();
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        MetricsRecorder recorder = (MetricsRecorder) context.getProperty(MetricsRecorder.PROPERTY);
+        if (recorder != null) {
+            context.setOutputStream(new FilterOutputStream(context.getOutputStream()) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    recorder.addBytesSent(1L);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    recorder.addBytesSent(len);
+                }
+            });
+        }
+        context.proceed();
+    }
+}
@@ -0,0 +1,71 @@
+package com.maileon.api.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the transport metrics of all attempts of a call. The recorder is attached to each attempt as request property and made available to the connection pool by the
+ * {@link MetricsFilter} on the thread executing the request.
+ *
+ */
+public final class MetricsRecorder {
+
+    /**
+     * The name of the request property holding the recorder.
+     */
+    public static final String PROPERTY = MetricsRecorder.class.getName();
+
+    private static final ThreadLocal<MetricsRecorder> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    private final AtomicLong poolWaitNanos = new AtomicLong();
+
+    /**
+     * Records the time a request waited for a pooled connection on the current thread.
+     *
+     * @param nanos the waiting time
+     */
+    public static void recordPoolWait(long nanos) {
+        MetricsRecorder recorder = CURRENT.get();
+        if (recorder != null) {
+            recorder.poolWaitNanos.addAndGet(nanos);
+        }
+    }
+
+    /**
+     * Removes the recorder of the current thread, e.g. after a request failed before its response was filtered.
+     */
+    public static void clearCurrent() {
+        CURRENT.remove();
+    }
+
+    static void setCurrent(MetricsRecorder recorder) {
+        if (recorder == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(recorder);
+        }
+    }
+
+    void addBytesSent(long bytes) {
+        bytesSent.addAndGet(bytes);
+    }
+
+    void addBytesReceived(long bytes) {
+        bytesReceived.addAndGet(bytes);
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    public long getPoolWaitNanos() {
+        return poolWaitNanos.get();
+    }
+}
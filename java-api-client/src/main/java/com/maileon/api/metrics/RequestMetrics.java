@@ -0,0 +1,187 @@
+package com.maileon.api.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The <code>RequestMetrics</code> describe a completed call to Maileon including all its attempts.
+ *
+ */
+public class RequestMetrics {
+
+    private final String method;
+
+    private final String path;
+
+    private final String endpointTemplate;
+
+    private final int statusCode;
+
+    private final int attempts;
+
+    private final long bytesSent;
+
+    private final long bytesReceived;
+
+    private final long latencyNanos;
+
+    private final long poolWaitNanos;
+
+    private final long rateLimitWaitNanos;
+
+    private final Throwable error;
+
+    /**
+     * Instantiates new request metrics.
+     *
+     * @param method the HTTP method
+     * @param path the path of the call
+     * @param statusCode the status code of the last response, 0 if no response was received
+     * @param attempts the number of attempts
+     * @param bytesSent the number of bytes of all request entities
+     * @param bytesReceived the number of bytes of all response entities read
+     * @param latencyNanos the duration of the call including all attempts
+     * @param poolWaitNanos the time waited for free pooled connections
+     * @param rateLimitWaitNanos the time waited for the rate limiter
+     * @param error the error the call failed with or <code>null</code>
+     */
+    public RequestMetrics(String method, String path, int statusCode, int attempts, long bytesSent, long bytesReceived, long latencyNanos, long poolWaitNanos,
+            long rateLimitWaitNanos, Throwable error) {
+        this.method = method;
+        this.path = path;
+        this.endpointTemplate = EndpointTemplate.of(path);
+        this.statusCode = statusCode;
+        this.attempts = attempts;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.latencyNanos = latencyNanos;
+        this.poolWaitNanos = poolWaitNanos;
+        this.rateLimitWaitNanos = rateLimitWaitNanos;
+        this.error = error;
+    }
+
+    /**
+     * Gets the HTTP method.
+     *
+     * @return the method
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Gets the path of the call. It may contain personal data like email addresses, so prefer {@link #getEndpointTemplate()} for metrics.
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the path with ids, email addresses and names replaced by placeholders, e.g. <code>contacts/email/{email}</code>.
+     *
+     * @return the endpoint template
+     */
+    public String getEndpointTemplate() {
+        return endpointTemplate;
+    }
+
+    /**
+     * Gets the status code of the last response.
+     *
+     * @return the status code, 0 if no response was received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Gets the number of attempts.
+     *
+     * @return the number of attempts, 1 if the call was not retried
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Gets the number of retries.
+     *
+     * @return the number of retries
+     */
+    public int getRetries() {
+        return attempts - 1;
+    }
+
+    /**
+     * Gets the number of bytes of all request entities as sent over the wire.
+     *
+     * @return the number of bytes
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * Gets the number of bytes of all response entities read.
+     *
+     * @return the number of bytes
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Gets the duration of the call including rate limiting, all attempts and backoffs.
+     *
+     * @param unit the unit
+     * @return the duration
+     */
+    public long getLatency(TimeUnit unit) {
+        return unit.convert(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the time waited for free pooled connections.
+     *
+     * @param unit the unit
+     * @return the duration
+     */
+    public long getPoolWait(TimeUnit unit) {
+        return unit.convert(poolWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the time waited for the rate limiter.
+     *
+     * @param unit the unit
+     * @return the duration
+     */
+    public long getRateLimitWait(TimeUnit unit) {
+        return unit.convert(rateLimitWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the error the call failed with.
+     *
+     * @return the error or <code>null</code>
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Checks if the call succeeded.
+     *
+     * @return <code>true</code>, if the call completed without error
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics{" + method + " " + endpointTemplate + ", statusCode=" + statusCode + ", attempts=" + attempts + ", bytesSent=" + bytesSent + ", bytesReceived="
+                + bytesReceived + ", latencyMillis=" + getLatency(TimeUnit.MILLISECONDS) + ", poolWaitMillis=" + getPoolWait(TimeUnit.MILLISECONDS) + '}';
+    }
+}
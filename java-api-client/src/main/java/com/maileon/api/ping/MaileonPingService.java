@@ -1,6 +1,7 @@
 package com.maileon.api.ping;
 
 import com.maileon.api.AbstractMaileonService;
+import com.maileon.api.MaileonClient;
 import com.maileon.api.MaileonConfiguration;
 import com.maileon.api.MaileonException;
 import com.maileon.api.ResponseWrapper;
@@ -22,6 +23,15 @@ public class MaileonPingService extends AbstractMaileonService {
         super(config, SERVICE);
     }
 
+    /**
+     * Instantiates a new Maileon ping service using a shared client.
+     *
+     * @param client The shared Maileon client
+     */
+    public MaileonPingService(MaileonClient client) {
+        super(client, SERVICE);
+    }
+
     /**
      * Checks the authorization of the API-Key for retrieve actions.
      * <p>
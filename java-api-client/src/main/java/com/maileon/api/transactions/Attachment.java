@@ -1,12 +1,23 @@
 package com.maileon.api.transactions;
 
+import com.maileon.api.MaileonClientException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.apache.commons.io.IOUtils;
 
 public class Attachment implements Serializable {
 
     private final String filename;
     private final String mimetype;
     private final String data;
+    private final transient AttachmentSource source;
 
     /**
      * Create a new attachment.
@@ -16,18 +27,38 @@ public class Attachment implements Serializable {
      * @param data the file contents of the attachment, encoded as Base64
      */
     protected Attachment(String filename, String mimetype, String data) {
+        this(filename, mimetype, data, null);
+        if (data == null) {
+            throw new NullPointerException("data of attachment must not be null");
+        }
+    }
+
+    /**
+     * Create a new streamed attachment. The contents are read from the source and encoded as Base64 while the transaction is serialized, so they are never held in
+     * memory as a whole.
+     *
+     * @param filename the file name of the attachment
+     * @param mimetype the mime type of the attachment
+     * @param source the source of the file contents of the attachment
+     */
+    protected Attachment(String filename, String mimetype, AttachmentSource source) {
+        this(filename, mimetype, null, source);
+        if (source == null) {
+            throw new NullPointerException("source of attachment must not be null");
+        }
+    }
+
+    private Attachment(String filename, String mimetype, String data, AttachmentSource source) {
         if (filename == null) {
             throw new NullPointerException("file name must of attachment not be null");
         }
         if (mimetype == null) {
             throw new NullPointerException("mime type name of attachment must not be null");
         }
-        if (data == null) {
-            throw new NullPointerException("data of attachment must not be null");
-        }
         this.filename = filename;
         this.mimetype = mimetype;
         this.data = data;
+        this.source = source;
     }
 
     public String getFilename() {
@@ -38,8 +69,85 @@ public class Attachment implements Serializable {
         return mimetype;
     }
 
+    /**
+     * Gets the contents encoded as Base64. For a streamed attachment the whole contents are read and encoded on each call, use
+     * {@link #writeData(java.io.OutputStream)} instead.
+     *
+     * @return the file contents of the attachment, encoded as Base64
+     * @throws MaileonClientException if the contents of a streamed attachment cannot be read
+     */
     public String getData() {
-        return data;
+        if (data != null) {
+            return data;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeData(out);
+        } catch (IOException e) {
+            throw new MaileonClientException("Unable to read attachment " + filename, e);
+        }
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
     }
 
+    /**
+     * Checks whether the contents are read from an {@link AttachmentSource} when the transaction is serialized.
+     *
+     * @return <code>true</code> if the attachment is streamed
+     */
+    public boolean isStreamed() {
+        return source != null;
+    }
+
+    /**
+     * Writes the contents encoded as Base64. The stream is not closed.
+     *
+     * @param out the stream
+     * @throws IOException if the contents cannot be read or written
+     */
+    public void writeData(OutputStream out) throws IOException {
+        if (data != null) {
+            out.write(data.getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        OutputStream base64 = Base64.getEncoder().wrap(new OutputStream() {
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() {
+                // keeps the stream open, closing the encoder only writes the padding
+            }
+        });
+        try (InputStream in = source.open()) {
+            IOUtils.copy(in, base64);
+        }
+        base64.close();
+    }
+
+    /**
+     * Serializes a streamed attachment with its encoded contents, since the source cannot be serialized.
+     *
+     * @return the attachment to serialize
+     * @throws ObjectStreamException if the contents cannot be read
+     */
+    protected Object writeReplace() throws ObjectStreamException {
+        if (source == null) {
+            return this;
+        }
+        try {
+            return new Attachment(filename, mimetype, getData());
+        } catch (MaileonClientException e) {
+            InvalidObjectException error = new InvalidObjectException(e.getMessage());
+            error.initCause(e);
+            throw error;
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package com.maileon.api.transactions;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An <code>AttachmentSource</code> supplies the contents of a streamed {@link Attachment} each time the transaction is serialized.
+ * <p>
+ * Since a request may be retried, the source must be able to open a new stream with the same contents more than once.</p>
+ *
+ * @see Transaction#addAttachment(java.lang.String, java.lang.String, com.maileon.api.transactions.AttachmentSource)
+ */
+@FunctionalInterface
+public interface AttachmentSource {
+
+    /**
+     * Opens a stream of the contents. The stream is closed by the caller.
+     *
+     * @return the stream of the attachment contents
+     * @throws IOException if the contents cannot be read
+     */
+    InputStream open() throws IOException;
+}
@@ -1,9 +1,11 @@
 package com.maileon.api.transactions;
 
 import com.maileon.api.AbstractMaileonService;
+import com.maileon.api.MaileonClient;
 import com.maileon.api.MaileonConfiguration;
 import com.maileon.api.MaileonException;
 import com.maileon.api.Page;
+import com.maileon.api.ResourceChangeNotifier;
 import com.maileon.api.ResponseWrapper;
 import com.maileon.api.transactions.serializer.TransactionProcessingReportsJsonSerializer;
 import com.maileon.api.transactions.serializer.TransactionTypeXmlSerializer;
@@ -11,6 +13,7 @@ import com.maileon.api.transactions.serializer.TransactionTypesXmlSerializer;
 import com.maileon.api.transactions.serializer.TransactionsJsonSerializer;
 import com.maileon.api.utils.PageUtils;
 
+import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.MediaType;
 import java.util.Arrays;
 import java.util.List;
@@ -35,6 +38,15 @@ public class MaileonTransactionsService extends AbstractMaileonService {
         super(config, SERVICE);
     }
 
+    /**
+     * Instantiates a new instance of transaction service using a shared client.
+     *
+     * @param client the shared Maileon client
+     */
+    public MaileonTransactionsService(MaileonClient client) {
+        super(client, SERVICE);
+    }
+
     /**
      * Returns the overall number of transaction types in the account.
      * <p>
@@ -78,6 +90,7 @@ public class MaileonTransactionsService extends AbstractMaileonService {
      */
     public long createTransactionType(TransactionType type) throws MaileonException {
         ResponseWrapper response = post("transactions/types", TransactionTypeXmlSerializer.serialize(type).asXML());
+        invalidateTypeRegistries();
         return Long.parseLong(response.getEntityAsXml().getText());
     }
 
@@ -92,6 +105,21 @@ public class MaileonTransactionsService extends AbstractMaileonService {
      * @throws MaileonException
      */
     public long createTransactionTypeByExample(TransactionType type, String example) throws MaileonException {
+        ResponseWrapper response = post("transactions/types", null, MediaType.APPLICATION_JSON_TYPE, MAILEON_XML_TYPE, toTransactionTypeJson(type, example));
+        invalidateTypeRegistries();
+        return Long.parseLong(response.getEntityAsXml().getText());
+
+    }
+
+    /**
+     * Builds the JSON definition of a transaction type from an example transaction.
+     *
+     * @param type the definition of transaction type
+     * @param example an example transaction
+     * @return the JSON definition
+     * @throws IllegalArgumentException if the type or the example is invalid
+     */
+    static String toTransactionTypeJson(TransactionType type, String example) {
         if (type == null) {
             throw new IllegalArgumentException("type is null");
         }
@@ -112,9 +140,7 @@ public class MaileonTransactionsService extends AbstractMaileonService {
             transactionType.put("archivingDuration", type.getArchivingDuration());
         }
         transactionType.put("content", parsedExample);
-        ResponseWrapper response = post("transactions/types", null, MediaType.APPLICATION_JSON_TYPE, MAILEON_XML_TYPE, transactionType.toJSONString());
-        return Long.parseLong(response.getEntityAsXml().getText());
-
+        return transactionType.toJSONString();
     }
 
     /**
@@ -125,6 +151,7 @@ public class MaileonTransactionsService extends AbstractMaileonService {
      */
     public void deleteTransactionTypeByName(String typeName) throws MaileonException {
         delete("transactions/types/" + typeName);
+        invalidateTypeRegistries();
     }
 
     /**
@@ -137,6 +164,7 @@ public class MaileonTransactionsService extends AbstractMaileonService {
      */
     public void deleteTransactionType(long id) throws MaileonException {
         delete("transactions/types/" + id);
+        invalidateTypeRegistries();
     }
 
     /**
@@ -197,7 +225,11 @@ public class MaileonTransactionsService extends AbstractMaileonService {
             throws MaileonException {
         QueryParameters params = new QueryParameters("ignore_invalid_transactions", ignoreInvalidTransactions);
         params.add("generate_transaction_id", generateTransactionId);
-        ResponseWrapper response = post("transactions", params, MediaType.APPLICATION_JSON_TYPE, TransactionsJsonSerializer.serialize(transactions).toJSONString());
+        TransactionsJsonSerializer.validate(transactions);
+        // written to the request stream by TransactionsJsonSerializer
+        GenericEntity<List<Transaction>> entity = new GenericEntity<List<Transaction>>(transactions) {
+        };
+        ResponseWrapper response = post("transactions", params, MediaType.APPLICATION_JSON_TYPE, entity);
         if (response.hasEntity()) {
             return TransactionProcessingReportsJsonSerializer.deserialize(response.getEntityAsString());
         }
@@ -220,4 +252,16 @@ public class MaileonTransactionsService extends AbstractMaileonService {
         delete("transactions", params);
     }
 
+    /**
+     * Gets the client of this service, the type registries built on the service share it.
+     *
+     * @return the client
+     */
+    MaileonClient client() {
+        return getClient();
+    }
+
+    private void invalidateTypeRegistries() {
+        getClient().getChangeNotifier().fireChanged(ResourceChangeNotifier.TRANSACTION_TYPES);
+    }
 }
@@ -0,0 +1,218 @@
+package com.maileon.api.transactions;
+
+import com.maileon.api.AbstractMaileonService;
+import com.maileon.api.MaileonClient;
+import com.maileon.api.MaileonClientException;
+import com.maileon.api.MaileonConfiguration;
+import com.maileon.api.MaileonException;
+import com.maileon.api.Page;
+import com.maileon.api.ResourceChangeNotifier;
+import com.maileon.api.transactions.serializer.TransactionProcessingReportsJsonSerializer;
+import com.maileon.api.transactions.serializer.TransactionTypeXmlSerializer;
+import com.maileon.api.transactions.serializer.TransactionTypesXmlSerializer;
+import com.maileon.api.transactions.serializer.TransactionsJsonSerializer;
+import com.maileon.api.utils.PageUtils;
+
+import javax.ws.rs.core.GenericEntity;
+import javax.ws.rs.core.MediaType;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The <code>MaileonTransactionsServiceAsync</code> is the non-blocking counterpart of {@link MaileonTransactionsService}. Every method returns immediately with a
+ * {@link CompletableFuture}, which is completed with the result or exceptionally with a {@link MaileonException}.
+ *
+ */
+public class MaileonTransactionsServiceAsync extends AbstractMaileonService {
+
+    public static final String SERVICE = "MAILEON TRANSACTIONS SERVICE ASYNC";
+
+    /**
+     * Instantiates a new instance of the asynchronous transaction service.
+     *
+     * @param config the configuration of Maileon API
+     */
+    public MaileonTransactionsServiceAsync(MaileonConfiguration config) {
+        super(config, SERVICE);
+    }
+
+    /**
+     * Instantiates a new instance of the asynchronous transaction service using a shared client.
+     *
+     * @param client the shared Maileon client
+     */
+    public MaileonTransactionsServiceAsync(MaileonClient client) {
+        super(client, SERVICE);
+    }
+
+    /**
+     * Returns the overall number of transaction types in the account.
+     *
+     * @return the future count of transaction types
+     * @see MaileonTransactionsService#getTransactionTypesCount()
+     */
+    public CompletableFuture<Integer> getTransactionTypesCount() {
+        return getAsync("transactions/types/count", null, MAILEON_XML_TYPE).thenApply(response -> Integer.parseInt(response.getEntityAsXml().getText()));
+    }
+
+    /**
+     * Returns a page (list) of all transaction types defined in the account.
+     *
+     * @param pageIndex stating from 1
+     * @param pageSize the number transaction types of within a page
+     * @return the future page containing the found transaction types as {@link TransactionType} objects
+     * @see MaileonTransactionsService#getTransactionTypes(int, int)
+     */
+    public CompletableFuture<Page<TransactionType>> getTransactionTypes(int pageIndex, int pageSize) {
+        QueryParameters params = new QueryParameters("page_index", pageIndex);
+        params.add("page_size", pageSize);
+        return getAsync("transactions/types", params, MAILEON_XML_TYPE).thenApply(response -> {
+            Page<TransactionType> page = PageUtils.createPage(pageIndex, pageSize, response);
+            page.setItems(TransactionTypesXmlSerializer.deserialize(response.getEntityAsXml()));
+            return page;
+        });
+    }
+
+    /**
+     * Creates a new transaction type with the given name in the account.
+     *
+     * @param type the definition of transaction type
+     * @return the future id of created transaction type.
+     * @see MaileonTransactionsService#createTransactionType(com.maileon.api.transactions.TransactionType)
+     */
+    public CompletableFuture<Long> createTransactionType(TransactionType type) {
+        return postAsync("transactions/types", null, MAILEON_XML_TYPE, MAILEON_XML_TYPE, TransactionTypeXmlSerializer.serialize(type).asXML())
+                .thenApply(response -> typesChanged(Long.parseLong(response.getEntityAsXml().getText())));
+    }
+
+    /**
+     * Creates a new transaction type from an example transaction.
+     *
+     * @param type the definition of transaction type
+     * @param example an example transaction
+     * @return the future id of created transaction type
+     * @see MaileonTransactionsService#createTransactionTypeByExample(com.maileon.api.transactions.TransactionType, java.lang.String)
+     */
+    public CompletableFuture<Long> createTransactionTypeByExample(TransactionType type, String example) {
+        String json;
+        try {
+            json = MaileonTransactionsService.toTransactionTypeJson(type, example);
+        } catch (IllegalArgumentException e) {
+            return failedFuture(e);
+        }
+        return postAsync("transactions/types", null, MediaType.APPLICATION_JSON_TYPE, MAILEON_XML_TYPE, json)
+                .thenApply(response -> typesChanged(Long.parseLong(response.getEntityAsXml().getText())));
+    }
+
+    /**
+     * Deletes a transaction type.
+     *
+     * @param typeName the name of transaction type
+     * @return the future completed when the transaction type was deleted
+     * @see MaileonTransactionsService#deleteTransactionTypeByName(java.lang.String)
+     */
+    public CompletableFuture<Void> deleteTransactionTypeByName(String typeName) {
+        return deleteAsync("transactions/types/" + typeName, null, MAILEON_XML_TYPE).thenApply(response -> typesChanged(null));
+    }
+
+    /**
+     * Deletes a transaction type.
+     *
+     * @param id the id of transaction type
+     * @return the future completed when the transaction type was deleted
+     * @see MaileonTransactionsService#deleteTransactionType(long)
+     */
+    public CompletableFuture<Void> deleteTransactionType(long id) {
+        return deleteAsync("transactions/types/" + id, null, MAILEON_XML_TYPE).thenApply(response -> typesChanged(null));
+    }
+
+    /**
+     * Retrieves the transaction type with the given id.
+     *
+     * @param id the id of the required transaction type
+     * @return the future transaction type
+     * @see MaileonTransactionsService#getTransactionType(long)
+     */
+    public CompletableFuture<TransactionType> getTransactionType(long id) {
+        return getAsync("transactions/types/" + id, null, MAILEON_XML_TYPE).thenApply(response -> TransactionTypeXmlSerializer.deserialize(response.getEntityAsXml()));
+    }
+
+    /**
+     * Retrieves the transaction type with the given name.
+     *
+     * @param name the name of the required transaction type
+     * @return the future transaction type
+     * @see MaileonTransactionsService#getTransactionType(java.lang.String)
+     */
+    public CompletableFuture<TransactionType> getTransactionType(String name) {
+        return getAsync("transactions/types/" + name, null, MAILEON_XML_TYPE).thenApply(response -> TransactionTypeXmlSerializer.deserialize(response.getEntityAsXml()));
+    }
+
+    /**
+     * Creates a single transaction.
+     *
+     * @param transaction the transaction data
+     * @param ignoreInvalidTransactions if set to <code>false</code>, exceptions like invalid contacts will cause the service to return <code>400 Bad request</code>
+     * @return the future report of type {@link TransactionProcessingReport}
+     * @see MaileonTransactionsService#createTransaction(com.maileon.api.transactions.Transaction, boolean)
+     */
+    public CompletableFuture<TransactionProcessingReport> createTransaction(Transaction transaction, boolean ignoreInvalidTransactions) {
+        return createTransactions(Collections.singletonList(transaction), ignoreInvalidTransactions, false).thenApply(reports -> reports.iterator().next());
+    }
+
+    /**
+     * Creates several transactions in the account.
+     *
+     * @param transactions the list of {@link Transaction} to create
+     * @param ignoreInvalidTransactions if set to <code>false</code>, exceptions like invalid contacts will cause the service to return <code>400 Bad request</code>
+     * @param generateTransactionId if set to <code>true</code>, Maileon generates an id for each transaction
+     * @return the future list of reports of type {@link TransactionProcessingReport}, one for each transaction
+     * @see MaileonTransactionsService#createTransactions(java.util.List, boolean, boolean)
+     */
+    public CompletableFuture<List<TransactionProcessingReport>> createTransactions(List<Transaction> transactions, boolean ignoreInvalidTransactions,
+            boolean generateTransactionId) {
+        QueryParameters params = new QueryParameters("ignore_invalid_transactions", ignoreInvalidTransactions);
+        params.add("generate_transaction_id", generateTransactionId);
+        try {
+            TransactionsJsonSerializer.validate(transactions);
+        } catch (MaileonClientException e) {
+            return failedFuture(e);
+        }
+        // written to the request stream by TransactionsJsonSerializer
+        GenericEntity<List<Transaction>> entity = new GenericEntity<List<Transaction>>(transactions) {
+        };
+        return postAsync("transactions", params, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE, entity)
+                .thenApply(response -> {
+                    if (response.hasEntity()) {
+                        return TransactionProcessingReportsJsonSerializer.deserialize(response.getEntityAsString());
+                    }
+                    throw new MaileonException(response);
+                });
+    }
+
+    /**
+     * Deletes all transactions of a given type before a given date in the account.
+     *
+     * @param typeId the id of a transaction type
+     * @param beforeTimestamp the unix timestamp
+     * @return the future completed when the transactions were deleted
+     * @see MaileonTransactionsService#deleteTransactions(long, long)
+     */
+    public CompletableFuture<Void> deleteTransactions(long typeId, long beforeTimestamp) {
+        QueryParameters params = new QueryParameters("type_id", typeId);
+        params.add("before_timestamp", beforeTimestamp * 1000L);
+        return deleteAsync("transactions", params, MAILEON_XML_TYPE).thenApply(response -> null);
+    }
+
+    /**
+     * Invalidates the type registries of the client after a transaction type was created or deleted.
+     *
+     * @param result the result of the request
+     * @return the result
+     */
+    private <T> T typesChanged(T result) {
+        getClient().getChangeNotifier().fireChanged(ResourceChangeNotifier.TRANSACTION_TYPES);
+        return result;
+    }
+}
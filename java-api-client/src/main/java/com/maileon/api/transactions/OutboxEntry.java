@@ -0,0 +1,41 @@
+package com.maileon.api.transactions;
+
+/**
+ * A transaction stored in a {@link TransactionOutbox} and not acknowledged yet.
+ *
+ */
+public class OutboxEntry {
+
+    private final long id;
+
+    private final Transaction transaction;
+
+    /**
+     * Instantiates a new outbox entry.
+     *
+     * @param id the id of the entry in the outbox
+     * @param transaction the stored transaction
+     */
+    public OutboxEntry(long id, Transaction transaction) {
+        this.id = id;
+        this.transaction = transaction;
+    }
+
+    /**
+     * Gets the id to acknowledge the entry with.
+     *
+     * @return the id of the entry
+     */
+    public long getId() {
+        return id;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OutboxEntry [id=%s]", id);
+    }
+}
@@ -6,8 +6,11 @@ import org.json.simple.parser.ParseException;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
@@ -70,23 +73,25 @@ public class Transaction {
     }
 
     /**
-     * Read an attachment from a file and add it to the transaction, using the name of the provided {@link File} as the attachment's file name.
+     * Read an attachment from a file and add it to the transaction, using the name of the provided {@link File} as the attachment's file name. The file is read
+     * immediately, use {@link #addAttachment(java.lang.String, java.lang.String, java.nio.file.Path)} to stream it when the transaction is sent.
      *
      * @param file the file to read the attachment contents from
      * @param mimetype the mime type of the attachment
-     * @throws IOException
+     * @throws IOException if the file cannot be read
      */
     public void addAttachment(File file, String mimetype) throws IOException {
         addAttachment(file.getName(), mimetype, file);
     }
 
     /**
-     * Read an attachment from a file and add it to the transaction.
+     * Read an attachment from a file and add it to the transaction. The file is read immediately, use
+     * {@link #addAttachment(java.lang.String, java.lang.String, java.nio.file.Path)} to stream it when the transaction is sent.
      *
      * @param filename the file name of the attachment to use in the e-mail
      * @param mimetype the mime type of the attachment
      * @param file the file to read the attachment contents from
-     * @throws IOException
+     * @throws IOException if the file cannot be read
      */
     public void addAttachment(String filename, String mimetype, File file) throws IOException {
         try (FileInputStream fis = new FileInputStream(file)) {
@@ -94,6 +99,34 @@ public class Transaction {
         }
     }
 
+    /**
+     * Add an attachment read from a file to the transaction. The file is read when the transaction is serialized, so it must not be removed before the transaction
+     * was sent.
+     *
+     * @param filename the file name of the attachment to use in the e-mail
+     * @param mimetype the mime type of the attachment
+     * @param path the file to read the attachment contents from
+     * @throws IOException if the file cannot be read
+     */
+    public void addAttachment(String filename, String mimetype, Path path) throws IOException {
+        if (!Files.isRegularFile(path) || !Files.isReadable(path)) {
+            throw new FileNotFoundException(path + " is not a readable file");
+        }
+        addAttachment(filename, mimetype, () -> Files.newInputStream(path));
+    }
+
+    /**
+     * Add a streamed attachment to the transaction. The contents are read from the source and encoded as Base64 while the transaction is serialized, so the memory
+     * needed does not depend on the size of the attachment.
+     *
+     * @param filename the file name of the attachment to use in the e-mail
+     * @param mimetype the mime type of the attachment
+     * @param source the source of the attachment contents, opened each time the transaction is serialized
+     */
+    public void addAttachment(String filename, String mimetype, AttachmentSource source) {
+        attachments.add(new Attachment(filename, mimetype, source));
+    }
+
     /**
      * Read an attachment from a stream and add it to the transaction. This method closes the provided input stream.
      *
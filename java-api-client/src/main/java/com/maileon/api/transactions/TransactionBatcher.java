@@ -0,0 +1,416 @@
+package com.maileon.api.transactions;
+
+import com.maileon.api.MaileonClient;
+import com.maileon.api.MaileonClientException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The <code>TransactionBatcher</code> collects transactions submitted by any number of threads and creates them in batches with
+ * {@link MaileonTransactionsServiceAsync#createTransactions(java.util.List, boolean, boolean)}.
+ * <p>
+ * A batch is sent as soon as it is full or the linger time passed since its first transaction was taken from the queue. Up to <code>maxInFlight</code> batches are
+ * sent concurrently. The future returned by {@link #submit(com.maileon.api.transactions.Transaction)} is completed with the report of its transaction, or exceptionally
+ * with the error of its batch. Since the reports are mapped back by position, invalid transactions are ignored by default, so they get a report with
+ * <code>queued=false</code> instead of failing their whole batch.</p>
+ * <p>
+ * The queue is bounded: when it is full, {@link #submit(com.maileon.api.transactions.Transaction)} blocks until the sender caught up. {@link #close()} sends the
+ * remaining transactions and waits for all batches. The settings must be made before the first transaction is submitted.</p>
+ * <p>
+ * If the sending thread is interrupted, the batcher is closed: the transactions not sent yet fail and further submits are rejected.</p>
+ *
+ * <pre>
+ * try (TransactionBatcher batcher = new TransactionBatcher(client).setLingerMillis(20L)) {
+ *     batcher.submit(transaction).thenAccept(report -&gt; ...);
+ * }
+ * </pre>
+ *
+ */
+public class TransactionBatcher implements Closeable {
+
+    private static final Entry POISON = new Entry(null, -1L);
+
+    private final MaileonTransactionsServiceAsync service;
+
+    private int batchSize = 200;
+
+    private long lingerMillis = 50L;
+
+    private int queueCapacity = 10000;
+
+    private int maxInFlight = 4;
+
+    private boolean ignoreInvalidTransactions = true;
+
+    private boolean generateTransactionId;
+
+    private TransactionOutbox outbox;
+
+    /**
+     * The outbox ids of the queued and sending transactions.
+     */
+    private final Set<Long> outboxIdsInFlight = ConcurrentHashMap.newKeySet();
+
+    private BlockingQueue<Entry> queue;
+
+    private Semaphore inFlight;
+
+    private Thread sender;
+
+    private volatile boolean closed;
+
+    /**
+     * Instantiates a new batcher sending the transactions with the given service.
+     *
+     * @param service the asynchronous transactions service
+     */
+    public TransactionBatcher(MaileonTransactionsServiceAsync service) {
+        if (service == null) {
+            throw new IllegalArgumentException("service cannot be null");
+        }
+        this.service = service;
+    }
+
+    /**
+     * Instantiates a new batcher sending the transactions with a new service of the given client.
+     *
+     * @param client the shared Maileon client
+     */
+    public TransactionBatcher(MaileonClient client) {
+        this(new MaileonTransactionsServiceAsync(client));
+    }
+
+    /**
+     * Sets the maximum number of transactions sent in one request, 200 by default.
+     *
+     * @param batchSize the number of transactions
+     * @return this batcher
+     */
+    public TransactionBatcher setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be > 0 - found: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets how long a batch waits for more transactions, 50 ms by default.
+     *
+     * @param lingerMillis the linger time in milliseconds, 0 to send whatever is queued immediately
+     * @return this batcher
+     */
+    public TransactionBatcher setLingerMillis(long lingerMillis) {
+        if (lingerMillis < 0L) {
+            throw new IllegalArgumentException("lingerMillis must be >= 0 - found: " + lingerMillis);
+        }
+        this.lingerMillis = lingerMillis;
+        return this;
+    }
+
+    /**
+     * Sets the number of transactions queued before {@link #submit(com.maileon.api.transactions.Transaction)} blocks, 10000 by default.
+     *
+     * @param queueCapacity the capacity of the queue
+     * @return this batcher
+     */
+    public TransactionBatcher setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be > 0 - found: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the number of batches sent concurrently, 4 by default.
+     *
+     * @param maxInFlight the number of concurrent requests
+     * @return this batcher
+     */
+    public TransactionBatcher setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be > 0 - found: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Sets whether invalid transactions are ignored, <code>true</code> by default. Otherwise an invalid transaction fails its whole batch.
+     *
+     * @param ignoreInvalidTransactions <code>true</code> to ignore invalid transactions
+     * @return this batcher
+     */
+    public TransactionBatcher setIgnoreInvalidTransactions(boolean ignoreInvalidTransactions) {
+        this.ignoreInvalidTransactions = ignoreInvalidTransactions;
+        return this;
+    }
+
+    /**
+     * Sets whether Maileon generates an id for each transaction.
+     *
+     * @param generateTransactionId <code>true</code> to generate transaction ids
+     * @return this batcher
+     */
+    public TransactionBatcher setGenerateTransactionId(boolean generateTransactionId) {
+        this.generateTransactionId = generateTransactionId;
+        return this;
+    }
+
+    /**
+     * Sets the outbox each transaction is written to before it is queued. An entry is acknowledged when Maileon returned the report of its transaction, also if the
+     * transaction was rejected as invalid, so only transactions of failed requests remain in the outbox.
+     *
+     * @param outbox the outbox, <code>null</code> to keep the transactions in memory only. It is not closed by the batcher.
+     * @return this batcher
+     */
+    public TransactionBatcher setOutbox(TransactionOutbox outbox) {
+        this.outbox = outbox;
+        return this;
+    }
+
+    /**
+     * Queues the transactions of the outbox that are not acknowledged and not being sent by this batcher, e.g. those left by a previous run or by failed requests.
+     * If the batcher is closed meanwhile, the transactions not queued remain pending for the next replay.
+     *
+     * @return the future reports of the queued transactions
+     * @throws MaileonClientException if the outbox cannot be read
+     */
+    public List<CompletableFuture<TransactionProcessingReport>> replayOutbox() throws MaileonClientException {
+        if (outbox == null) {
+            throw new IllegalStateException("no outbox set");
+        }
+        List<OutboxEntry> pending;
+        try {
+            pending = outbox.getPendingEntries();
+        } catch (IOException e) {
+            throw new MaileonClientException("Unable to read outbox", e);
+        }
+        List<CompletableFuture<TransactionProcessingReport>> futures = new ArrayList<>();
+        for (OutboxEntry outboxEntry : pending) {
+            if (outboxIdsInFlight.add(outboxEntry.getId())) {
+                futures.add(enqueue(new Entry(outboxEntry.getTransaction(), outboxEntry.getId()), false));
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * Queues a transaction, blocking while the queue is full. With an outbox, the transaction is written to it first, and acknowledged again if the batcher was
+     * closed meanwhile and the transaction is rejected.
+     *
+     * @param transaction the transaction
+     * @return the future report of the transaction
+     */
+    public CompletableFuture<TransactionProcessingReport> submit(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("transaction cannot be null");
+        }
+        if (closed) {
+            throw new IllegalStateException("batcher is closed");
+        }
+        long outboxId = -1L;
+        if (outbox != null) {
+            try {
+                outboxId = outbox.append(transaction);
+            } catch (IOException e) {
+                CompletableFuture<TransactionProcessingReport> future = new CompletableFuture<>();
+                future.completeExceptionally(new MaileonClientException("Unable to write transaction to outbox", e));
+                return future;
+            }
+            outboxIdsInFlight.add(outboxId);
+        }
+        return enqueue(new Entry(transaction, outboxId), true);
+    }
+
+    /**
+     * Queues an entry.
+     *
+     * @param entry the entry
+     * @param acknowledgeIfClosed <code>true</code> to acknowledge the outbox entry if the batcher is closed, so a rejected transaction is not sent by a later replay
+     * @return the future report of the transaction
+     */
+    private CompletableFuture<TransactionProcessingReport> enqueue(Entry entry, boolean acknowledgeIfClosed) {
+        try {
+            // queued under the lock, so no transaction can follow the poison entry of close()
+            synchronized (this) {
+                if (closed) {
+                    if (entry.outboxId >= 0L) {
+                        if (acknowledgeIfClosed) {
+                            outbox.acknowledge(entry.outboxId);
+                        }
+                        outboxIdsInFlight.remove(entry.outboxId);
+                    }
+                    throw new IllegalStateException("batcher is closed");
+                }
+                start();
+                queue.put(entry);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entry.future.completeExceptionally(new MaileonClientException("interrupted while queuing transaction", e));
+        }
+        if (entry.outboxId >= 0L) {
+            entry.future.whenComplete((report, e) -> outboxIdsInFlight.remove(entry.outboxId));
+        }
+        return entry.future;
+    }
+
+    /**
+     * Stops accepting transactions, sends the queued ones and waits until all batches are completed.
+     */
+    @Override
+    public void close() {
+        Thread t;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            t = sender;
+        }
+        if (t == null) {
+            return;
+        }
+        try {
+            queue.put(POISON);
+            t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void start() {
+        if (sender != null) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        inFlight = new Semaphore(maxInFlight);
+        sender = new Thread(this::run, "maileon-transaction-batcher");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    private void run() {
+        boolean done = false;
+        List<Entry> batch = null;
+        try {
+            while (!done) {
+                Entry first = queue.take();
+                if (first == POISON) {
+                    break;
+                }
+                batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < batchSize) {
+                    Entry next = queue.poll(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == POISON) {
+                        done = true;
+                        break;
+                    }
+                    batch.add(next);
+                }
+                inFlight.acquire();
+                send(batch);
+                batch = null;
+            }
+            // wait for the running batches
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            MaileonClientException error = new MaileonClientException("transaction batcher was interrupted", e);
+            // no sender is left, so reject further submits
+            closed = true;
+            if (batch != null) {
+                fail(batch, error);
+            }
+            failQueued(error);
+            // waits for a submit blocked in put(), which got room by the drain above, later submits see closed
+            synchronized (this) {
+                failQueued(error);
+            }
+        }
+    }
+
+    private void failQueued(Throwable error) {
+        List<Entry> entries = new ArrayList<>();
+        queue.drainTo(entries);
+        fail(entries, error);
+    }
+
+    private static void fail(List<Entry> entries, Throwable error) {
+        for (Entry entry : entries) {
+            if (entry != POISON) {
+                entry.future.completeExceptionally(error);
+            }
+        }
+    }
+
+    private void send(List<Entry> batch) {
+        List<Transaction> transactions = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            transactions.add(entry.transaction);
+        }
+        CompletableFuture<List<TransactionProcessingReport>> future;
+        try {
+            future = service.createTransactions(transactions, ignoreInvalidTransactions, generateTransactionId);
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((reports, e) -> {
+            try {
+                Throwable error = e;
+                if (error == null && reports.size() != batch.size()) {
+                    error = new MaileonClientException("expected " + batch.size() + " reports but received " + reports.size());
+                }
+                if (error != null) {
+                    fail(batch, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                } else {
+                    for (int i = 0; i < batch.size(); i++) {
+                        Entry entry = batch.get(i);
+                        if (entry.outboxId >= 0L) {
+                            outbox.acknowledge(entry.outboxId);
+                        }
+                        entry.future.complete(reports.get(i));
+                    }
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private static final class Entry {
+
+        private final Transaction transaction;
+
+        /**
+         * The id in the outbox, -1 if not stored.
+         */
+        private final long outboxId;
+
+        private final CompletableFuture<TransactionProcessingReport> future = new CompletableFuture<>();
+
+        Entry(Transaction transaction, long outboxId) {
+            this.transaction = transaction;
+            this.outboxId = outboxId;
+        }
+    }
+}
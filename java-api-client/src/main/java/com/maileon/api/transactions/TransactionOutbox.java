@@ -0,0 +1,444 @@
+package com.maileon.api.transactions;
+
+import com.maileon.api.transactions.serializer.JsonStreamWriter;
+import com.maileon.api.transactions.serializer.TransactionJsonSerializer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * The <code>TransactionOutbox</code> is a write-ahead log of transactions on local disk, so transactions survive a crash of the JVM or an outage of Maileon.
+ * <p>
+ * Transactions are appended as JSON to memory-mapped segment files in a directory. An entry is pending until it is acknowledged, which marks it in place. Segments
+ * whose entries are all acknowledged are deleted once a newer segment is written. After a restart, {@link #getPendingEntries()} returns the entries to send again, so
+ * delivery is at least once.</p>
+ * <p>
+ * Writes to the mapped segments survive a crash of the JVM. To also survive a crash of the operating system, enable {@link #setSyncOnWrite(boolean)}, which forces
+ * every entry to disk at the cost of throughput.</p>
+ * <p>
+ * Every segment with pending entries stays mapped, as does the current one, so the outbox maps the segment size times their number of address space, see
+ * {@link #getMappedBytes()}. During a long outage of Maileon this grows with the pending entries. Segments are unmapped as soon as they are deleted and when the
+ * outbox is closed.</p>
+ * <p>
+ * A directory must be used by one outbox at a time. The outbox is thread-safe.</p>
+ *
+ * <pre>
+ * TransactionOutbox outbox = new TransactionOutbox(Paths.get("/var/lib/shop/maileon-outbox"));
+ * TransactionBatcher batcher = new TransactionBatcher(client).setOutbox(outbox);
+ * batcher.replayOutbox();
+ * </pre>
+ *
+ */
+public class TransactionOutbox implements Closeable {
+
+    private static final Logger logger = Logger.getLogger("Maileon");
+
+    private static final String PREFIX = "outbox-";
+
+    private static final String SUFFIX = ".log";
+
+    /**
+     * length (int), state (byte), crc (int)
+     */
+    private static final int HEADER_SIZE = 9;
+
+    private static final byte PENDING = 1;
+
+    private static final byte ACKNOWLEDGED = 2;
+
+    /**
+     * <code>sun.misc.Unsafe</code> and its <code>invokeCleaner</code> method on Java 9 and later, <code>null</code> on Java 8.
+     */
+    private static final Object UNSAFE;
+
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+
+    private Segment current;
+
+    /**
+     * The highest segment number found on disk or created, new segments are numbered above it so a file left by a failed delete is never reused.
+     */
+    private int lastNumber;
+
+    private boolean syncOnWrite;
+
+    private boolean closed;
+
+    /**
+     * Opens an outbox with segments of 64 MB.
+     *
+     * @param directory the directory of the segment files, created if missing
+     * @throws IOException if the segments cannot be read or created
+     */
+    public TransactionOutbox(Path directory) throws IOException {
+        this(directory, 64 * 1024 * 1024);
+    }
+
+    /**
+     * Opens an outbox. Entries larger than the segment size get a segment of their own.
+     *
+     * @param directory the directory of the segment files, created if missing
+     * @param segmentSize the size of a segment file in bytes
+     * @throws IOException if the segments cannot be read or created
+     */
+    public TransactionOutbox(Path directory, int segmentSize) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory cannot be null");
+        }
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("segmentSize must be >= 1024 - found: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int number = Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                segments.put(number, Segment.open(number, file));
+                lastNumber = Math.max(lastNumber, number);
+            }
+        }
+        // segments of earlier runs are only read, new entries go to a new segment
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment.pending == 0) {
+                delete(segment);
+            }
+        }
+    }
+
+    /**
+     * Sets whether each entry is forced to disk before {@link #append(com.maileon.api.transactions.Transaction)} returns, <code>false</code> by default.
+     *
+     * @param syncOnWrite <code>true</code> to force each entry to disk
+     * @return this outbox
+     */
+    public synchronized TransactionOutbox setSyncOnWrite(boolean syncOnWrite) {
+        this.syncOnWrite = syncOnWrite;
+        return this;
+    }
+
+    /**
+     * Appends a transaction.
+     *
+     * @param transaction the transaction
+     * @return the id to acknowledge the entry with
+     * @throws IOException if the entry cannot be written
+     */
+    public long append(Transaction transaction) throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(512);
+        try (JsonStreamWriter writer = new JsonStreamWriter(json)) {
+            TransactionJsonSerializer.write(transaction, writer);
+        }
+        byte[] payload = json.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        int recordSize = HEADER_SIZE + payload.length;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("outbox is closed");
+            }
+            // a terminating 0 length must still fit
+            if (current == null || current.buffer.remaining() < recordSize + 4) {
+                roll(recordSize + 4);
+            }
+            MappedByteBuffer buffer = current.buffer;
+            int position = buffer.position();
+            buffer.put(position + 4, PENDING);
+            buffer.putInt(position + 5, (int) crc.getValue());
+            ByteBuffer record = buffer.duplicate();
+            record.position(position + HEADER_SIZE);
+            record.put(payload);
+            // the length is written last, so a torn record reads as the end of the segment
+            buffer.putInt(position, payload.length);
+            buffer.position(position + recordSize);
+            current.pending++;
+            if (syncOnWrite) {
+                buffer.force();
+            }
+            return toId(current.number, position);
+        }
+    }
+
+    /**
+     * Acknowledges an entry, so it is not returned by {@link #getPendingEntries()} anymore. Unknown or already acknowledged ids are ignored.
+     *
+     * @param id the id of the entry
+     */
+    public synchronized void acknowledge(long id) {
+        Segment segment = segments.get((int) (id >>> 32));
+        if (segment == null || closed) {
+            return;
+        }
+        int position = (int) id;
+        if (segment.buffer.get(position + 4) != PENDING) {
+            return;
+        }
+        segment.buffer.put(position + 4, ACKNOWLEDGED);
+        if (syncOnWrite) {
+            segment.buffer.force();
+        }
+        segment.pending--;
+        if (segment.pending == 0 && segment != current) {
+            delete(segment);
+        }
+    }
+
+    /**
+     * Reads the entries not acknowledged yet, in the order they were appended.
+     *
+     * @return the pending entries
+     * @throws IOException if an entry cannot be parsed
+     */
+    public synchronized List<OutboxEntry> getPendingEntries() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("outbox is closed");
+        }
+        List<OutboxEntry> entries = new ArrayList<>();
+        JSONParser parser = new JSONParser();
+        for (Segment segment : segments.values()) {
+            MappedByteBuffer buffer = segment.buffer;
+            int end = segment == current ? buffer.position() : segment.end;
+            int position = 0;
+            while (position < end) {
+                int length = buffer.getInt(position);
+                if (buffer.get(position + 4) == PENDING) {
+                    byte[] payload = new byte[length];
+                    ByteBuffer record = buffer.duplicate();
+                    record.position(position + HEADER_SIZE);
+                    record.get(payload);
+                    try {
+                        JSONObject object = (JSONObject) parser.parse(new String(payload, StandardCharsets.UTF_8));
+                        entries.add(new OutboxEntry(toId(segment.number, position), TransactionJsonSerializer.deserialize(object)));
+                    } catch (ParseException e) {
+                        throw new IOException("corrupt outbox entry " + toId(segment.number, position), e);
+                    }
+                }
+                position += HEADER_SIZE + length;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Gets the number of entries not acknowledged yet.
+     *
+     * @return the number of pending entries
+     */
+    public synchronized int getPendingCount() {
+        int count = 0;
+        for (Segment segment : segments.values()) {
+            count += segment.pending;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the size of the mapped segments, i.e. of the segments with pending entries and the current one.
+     *
+     * @return the mapped bytes
+     */
+    public synchronized long getMappedBytes() {
+        if (closed) {
+            return 0L;
+        }
+        long size = 0L;
+        for (Segment segment : segments.values()) {
+            size += segment.buffer.capacity();
+        }
+        return size;
+    }
+
+    /**
+     * Forces the written entries to disk, unmaps and closes the segment files. The pending entries remain for the next run.
+     *
+     * @throws IOException if the segments cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+            segment.release();
+        }
+        if (current != null && current.pending == 0) {
+            deleteFile(current);
+        }
+    }
+
+    private void roll(int minSize) throws IOException {
+        Segment previous = current;
+        int number = ++lastNumber;
+        current = Segment.create(number, directory.resolve(PREFIX + String.format("%010d", number) + SUFFIX), Math.max(segmentSize, minSize));
+        segments.put(number, current);
+        if (previous != null) {
+            previous.end = previous.buffer.position();
+            if (previous.pending == 0) {
+                delete(previous);
+            }
+        }
+    }
+
+    private void delete(Segment segment) {
+        segments.remove(segment.number);
+        segment.release();
+        deleteFile(segment);
+    }
+
+    private static void deleteFile(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to delete outbox segment " + segment.file + ", it is deleted by the next run", e);
+        }
+    }
+
+    /**
+     * Releases the mapping of a buffer now instead of when it is garbage collected. The buffer must not be accessed afterwards.
+     *
+     * @param buffer the buffer
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else {
+                // Java 8
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.log(Level.FINE, "Unable to unmap outbox segment, it is unmapped when garbage collected", e);
+        }
+    }
+
+    private static long toId(int segment, int position) {
+        return ((long) segment << 32) | position;
+    }
+
+    private static final class Segment {
+
+        private final int number;
+
+        private final Path file;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        /**
+         * The end of the records of a segment not written anymore.
+         */
+        private int end;
+
+        private int pending;
+
+        private Segment(int number, Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.number = number;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(int number, Path file, int size) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(number, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        static Segment open(int number, Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(number, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+            segment.scan();
+            return segment;
+        }
+
+        /**
+         * Unmaps and closes the segment file.
+         */
+        void release() {
+            unmap(buffer);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Unable to close outbox segment " + file, e);
+            }
+        }
+
+        /**
+         * Finds the end of the valid records and counts the pending ones.
+         */
+        private void scan() {
+            CRC32 crc = new CRC32();
+            int position = 0;
+            int limit = buffer.capacity();
+            while (position + HEADER_SIZE <= limit) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + HEADER_SIZE + length > limit) {
+                    break;
+                }
+                ByteBuffer record = buffer.duplicate();
+                record.position(position + HEADER_SIZE);
+                record.limit(position + HEADER_SIZE + length);
+                crc.reset();
+                crc.update(record);
+                if ((int) crc.getValue() != buffer.getInt(position + 5)) {
+                    // torn by a crash of the operating system
+                    break;
+                }
+                if (buffer.get(position + 4) == PENDING) {
+                    pending++;
+                }
+                position += HEADER_SIZE + length;
+            }
+            end = position;
+        }
+    }
+}
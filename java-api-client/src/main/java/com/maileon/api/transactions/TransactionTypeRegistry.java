@@ -0,0 +1,235 @@
+package com.maileon.api.transactions;
+
+import com.maileon.api.MaileonClient;
+import com.maileon.api.MaileonException;
+import com.maileon.api.MaileonNotFoundException;
+import com.maileon.api.Page;
+import com.maileon.api.ResourceChangeNotifier;
+import com.maileon.api.utils.RefreshingCache;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * The <code>TransactionTypeRegistry</code> keeps the transaction types of the account, so producers that only know the name of a type can resolve its id without a
+ * request per transaction.
+ * <p>
+ * All types are loaded page by page on first use and reloaded in the background shortly before they are older than the TTL, ten minutes by default, see
+ * {@link RefreshingCache}. Until the reload completes, and if it fails, the previous types are served. A lookup of an unknown type reloads the types once, unless they
+ * were loaded less than the miss reload interval ago, ten seconds by default, so types created elsewhere are found without waiting for the TTL.</p>
+ * <p>
+ * Types created or deleted with {@link MaileonTransactionsService} or {@link MaileonTransactionsServiceAsync} invalidate the registry immediately if the service uses
+ * the same {@link MaileonClient} as the registry, see {@link ResourceChangeNotifier}. Changes made through another client or outside of this application are seen
+ * after the TTL, on a lookup miss or after {@link #invalidate()}.</p>
+ *
+ * <pre>
+ * TransactionTypeRegistry types = new TransactionTypeRegistry(client);
+ * transaction.setType(types.getId("order_confirmation"));
+ * </pre>
+ *
+ */
+public class TransactionTypeRegistry {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final MaileonTransactionsService service;
+
+    private final MaileonTransactionsServiceAsync asyncService;
+
+    /**
+     * Registered with the change notifier of the client, which references it weakly.
+     */
+    private final Runnable invalidation = this::invalidate;
+
+    private final RefreshingCache<Types> cache;
+
+    private volatile long missReloadIntervalMillis = 10000L;
+
+    /**
+     * Instantiates a new registry loading the types with the given service. It is invalidated by changes made through any service using the client of the given one.
+     *
+     * @param service the transactions service
+     */
+    public TransactionTypeRegistry(MaileonTransactionsService service) {
+        if (service == null) {
+            throw new IllegalArgumentException("service cannot be null");
+        }
+        this.service = service;
+        MaileonClient client = service.client();
+        this.asyncService = new MaileonTransactionsServiceAsync(client);
+        this.cache = new RefreshingCache<>("transaction types", () -> new Types(loadAll()), () -> loadAllAsync(1, new ArrayList<>()).thenApply(Types::new));
+        client.getChangeNotifier().addListener(ResourceChangeNotifier.TRANSACTION_TYPES, invalidation);
+    }
+
+    /**
+     * Instantiates a new registry loading the types with a new service of the given client.
+     *
+     * @param client the shared Maileon client
+     */
+    public TransactionTypeRegistry(MaileonClient client) {
+        this(new MaileonTransactionsService(client));
+    }
+
+    /**
+     * Gets the service the types are loaded with. Types created or deleted with it invalidate this registry.
+     *
+     * @return the transactions service
+     */
+    public MaileonTransactionsService getService() {
+        return service;
+    }
+
+    /**
+     * Sets the time after which the types are reloaded, 600000 ms by default.
+     *
+     * @param ttlMillis the time to live in milliseconds
+     * @return this registry
+     */
+    public TransactionTypeRegistry setTtlMillis(long ttlMillis) {
+        cache.setTtlMillis(ttlMillis);
+        return this;
+    }
+
+    /**
+     * Sets the minimum time between two reloads caused by lookups of unknown types, 10000 ms by default.
+     *
+     * @param missReloadIntervalMillis the interval in milliseconds
+     * @return this registry
+     */
+    public TransactionTypeRegistry setMissReloadIntervalMillis(long missReloadIntervalMillis) {
+        if (missReloadIntervalMillis < 0L) {
+            throw new IllegalArgumentException("missReloadIntervalMillis must be >= 0 - found: " + missReloadIntervalMillis);
+        }
+        this.missReloadIntervalMillis = missReloadIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Resolves the name of a type to its id.
+     *
+     * @param name the name of the type
+     * @return the id of the type
+     * @throws MaileonNotFoundException if no type with the name is known after a reload
+     * @throws MaileonException if the types were not loaded yet and cannot be loaded
+     */
+    public long getId(String name) throws MaileonException {
+        TransactionType type = getType(name);
+        if (type == null) {
+            throw new MaileonNotFoundException("transaction type " + name + " isn't found");
+        }
+        return type.getId();
+    }
+
+    /**
+     * Gets a type by its name.
+     *
+     * @param name the name of the type
+     * @return the type or <code>null</code> if no type with the name is known after a reload
+     * @throws MaileonException if the types cannot be loaded
+     */
+    public TransactionType getType(String name) throws MaileonException {
+        return find(types -> types.byName.get(name));
+    }
+
+    /**
+     * Gets a type by its id.
+     *
+     * @param id the id of the type
+     * @return the type or <code>null</code> if no type with the id is known after a reload
+     * @throws MaileonException if the types cannot be loaded
+     */
+    public TransactionType getType(long id) throws MaileonException {
+        return find(types -> types.byId.get(id));
+    }
+
+    /**
+     * Checks whether a type with the given name is known.
+     *
+     * @param name the name of the type
+     * @return <code>true</code> if the type is known, also after a reload
+     * @throws MaileonException if the types cannot be loaded
+     */
+    public boolean contains(String name) throws MaileonException {
+        return getType(name) != null;
+    }
+
+    /**
+     * Gets all types.
+     *
+     * @return the types in the order returned by Maileon
+     * @throws MaileonException if the types were not loaded yet and cannot be loaded
+     */
+    public List<TransactionType> getTypes() throws MaileonException {
+        return cache.get().list;
+    }
+
+    /**
+     * Discards the types, the next access loads them again.
+     */
+    public void invalidate() {
+        cache.invalidate();
+    }
+
+    /**
+     * Loads the types now, waiting for the responses.
+     *
+     * @throws MaileonException if the types cannot be loaded
+     */
+    public void refresh() throws MaileonException {
+        cache.refresh();
+    }
+
+    private TransactionType find(Function<Types, TransactionType> lookup) throws MaileonException {
+        TransactionType type = lookup.apply(cache.get());
+        if (type == null) {
+            type = lookup.apply(cache.reloadIfOlderThan(missReloadIntervalMillis));
+        }
+        return type;
+    }
+
+    private List<TransactionType> loadAll() throws MaileonException {
+        List<TransactionType> result = new ArrayList<>();
+        Page<TransactionType> page;
+        int pageIndex = 1;
+        do {
+            page = service.getTransactionTypes(pageIndex++, PAGE_SIZE);
+            result.addAll(page.getItems());
+        } while (page.getPageIndex() < page.getNumberOfPages());
+        return result;
+    }
+
+    private CompletableFuture<List<TransactionType>> loadAllAsync(int pageIndex, List<TransactionType> result) {
+        return asyncService.getTransactionTypes(pageIndex, PAGE_SIZE).thenCompose(page -> {
+            result.addAll(page.getItems());
+            if (page.getPageIndex() < page.getNumberOfPages()) {
+                return loadAllAsync(pageIndex + 1, result);
+            }
+            return CompletableFuture.completedFuture(result);
+        });
+    }
+
+    private static final class Types {
+
+        private final List<TransactionType> list;
+
+        private final Map<String, TransactionType> byName;
+
+        private final Map<Long, TransactionType> byId;
+
+        Types(List<TransactionType> types) {
+            Map<String, TransactionType> names = new HashMap<>(types.size() * 2);
+            Map<Long, TransactionType> ids = new HashMap<>(types.size() * 2);
+            for (TransactionType type : types) {
+                names.put(type.getName(), type);
+                ids.put(type.getId(), type);
+            }
+            this.list = Collections.unmodifiableList(new ArrayList<>(types));
+            this.byName = names;
+            this.byId = ids;
+        }
+    }
+}
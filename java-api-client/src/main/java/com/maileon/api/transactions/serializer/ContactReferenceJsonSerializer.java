@@ -73,6 +73,25 @@ public class ContactReferenceJsonSerializer implements MessageBodyReader<Contact
         return result;
     }
 
+    /**
+     * Writes a contact reference in the format of {@link #serialize(com.maileon.api.transactions.ContactReference)} without building the JSON object.
+     *
+     * @param contact the contact reference
+     * @param writer the writer
+     * @throws IOException if the reference cannot be written
+     */
+    public static void write(ContactReference contact, JsonStreamWriter writer) throws IOException {
+        if (contact == null) {
+            writer.value((String) null);
+            return;
+        }
+        writer.beginObject()
+                .optional("id", contact.getId())
+                .optional("email", contact.getEmail())
+                .optional("external_id", contact.getExternalId())
+                .endObject();
+    }
+
     @SuppressWarnings("unchecked")
     private static <T> void maybePut(String key, T value, JSONObject object) {
         if (value != null) {
@@ -48,7 +48,9 @@ public class ImportContactReferenceJsonSerializer implements MessageBodyReader<I
         result.setId((Long) contactObject.get("id"));
         result.setEmail((String) contactObject.get("email"));
         result.setExternalId((String) contactObject.get("external_id"));
-        result.setPermission((Integer) contactObject.get("permission"));
+        // parsed JSON numbers are Long
+        Number permission = (Number) contactObject.get("permission");
+        result.setPermission(permission == null ? null : permission.intValue());
         result.setErrorField((String) contactObject.get("error_field"));
         return result;
     }
@@ -75,7 +77,30 @@ public class ImportContactReferenceJsonSerializer implements MessageBodyReader<I
         return result;
     }
 
-    private static void validateContact(ImportContactReference contact) {
+    /**
+     * Writes an import reference in the format of {@link #serialize(com.maileon.api.transactions.ImportContactReference)} without building the JSON object.
+     *
+     * @param contact the import reference
+     * @param writer the writer
+     * @throws IOException if the reference cannot be written
+     */
+    public static void write(ImportContactReference contact, JsonStreamWriter writer) throws IOException {
+        validateContact(contact);
+        writer.beginObject()
+                .optional("id", contact.getId())
+                .optional("email", contact.getEmail())
+                .optional("external_id", contact.getExternalId())
+                .optional("permission", contact.getPermission())
+                .endObject();
+    }
+
+    /**
+     * Checks that an import reference identifies the contact and has a permission.
+     *
+     * @param contact the import reference
+     * @throws MaileonClientException if the reference is incomplete
+     */
+    public static void validateContact(ImportContactReference contact) {
         if (contact.getId() == null && contact.getEmail() == null && contact.getExternalId() == null) {
             throw new MaileonClientException("When using the import statement you must provide one of the following parameters: id, email, external_id.");
         }
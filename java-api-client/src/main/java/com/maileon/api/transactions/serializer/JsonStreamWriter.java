@@ -0,0 +1,399 @@
+package com.maileon.api.transactions.serializer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.util.Map;
+import org.json.simple.JSONAware;
+
+/**
+ * The <code>JsonStreamWriter</code> writes JSON as UTF-8 directly to a stream.
+ * <p>
+ * Strings are encoded into a byte buffer reused by the writers of a thread and written whenever it is full, so no intermediate object tree, string or byte array
+ * is allocated. Separators are inserted automatically. Values of the content of a transaction are written like json-simple does: maps as objects, collections and
+ * arrays as arrays, numbers and booleans as literals and any other object as string.</p>
+ * <p>
+ * A writer is not thread-safe and must be closed, which flushes it and returns the buffer, on the thread that created it.</p>
+ *
+ */
+public class JsonStreamWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<>();
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private final OutputStream out;
+
+    private byte[] buffer;
+
+    private int count;
+
+    private boolean needsComma;
+
+    /**
+     * Instantiates a new writer.
+     *
+     * @param out the stream, not closed by this writer
+     */
+    public JsonStreamWriter(OutputStream out) {
+        this.out = out;
+        byte[] pooled = BUFFERS.get();
+        if (pooled != null) {
+            BUFFERS.set(null);
+            this.buffer = pooled;
+        } else {
+            this.buffer = new byte[BUFFER_SIZE];
+        }
+    }
+
+    /**
+     * Begins an object.
+     *
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter beginObject() throws IOException {
+        separator();
+        write('{');
+        needsComma = false;
+        return this;
+    }
+
+    /**
+     * Ends the current object.
+     *
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter endObject() throws IOException {
+        write('}');
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Begins an array.
+     *
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter beginArray() throws IOException {
+        separator();
+        write('[');
+        needsComma = false;
+        return this;
+    }
+
+    /**
+     * Ends the current array.
+     *
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter endArray() throws IOException {
+        write(']');
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes the name of the next member of an object.
+     *
+     * @param name the name
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter name(String name) throws IOException {
+        separator();
+        string(name);
+        write(':');
+        needsComma = false;
+        return this;
+    }
+
+    /**
+     * Writes a string value, escaped as needed.
+     *
+     * @param value the value, written as <code>null</code> if <code>null</code>
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter value(String value) throws IOException {
+        separator();
+        if (value == null) {
+            ascii("null");
+        } else {
+            string(value);
+        }
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes a number value.
+     *
+     * @param value the value
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter value(long value) throws IOException {
+        separator();
+        ascii(Long.toString(value));
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes a member with a value of the content of a transaction.
+     *
+     * @param name the name
+     * @param value the value, skipped if <code>null</code>
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter optional(String name, Object value) throws IOException {
+        if (value != null) {
+            name(name);
+            value(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a value of the content of a transaction.
+     *
+     * @param value the value
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter value(Object value) throws IOException {
+        if (value == null || value instanceof String) {
+            return value((String) value);
+        }
+        if (value instanceof Map) {
+            beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                name(String.valueOf(entry.getKey()));
+                value(entry.getValue());
+            }
+            return endObject();
+        }
+        if (value instanceof Iterable) {
+            beginArray();
+            for (Object element : (Iterable<?>) value) {
+                value(element);
+            }
+            return endArray();
+        }
+        if (value.getClass().isArray()) {
+            beginArray();
+            for (int i = 0, n = Array.getLength(value); i < n; i++) {
+                value(Array.get(value, i));
+            }
+            return endArray();
+        }
+        separator();
+        if (value instanceof JSONAware) {
+            raw(((JSONAware) value).toJSONString());
+        } else if (value instanceof Double && (((Double) value).isNaN() || ((Double) value).isInfinite())
+                || value instanceof Float && (((Float) value).isNaN() || ((Float) value).isInfinite())) {
+            // not representable in JSON
+            ascii("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            ascii(value.toString());
+        } else {
+            string(value.toString());
+        }
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value from characters supplied in chunks, e.g. while they are encoded.
+     *
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter beginString() throws IOException {
+        separator();
+        write('"');
+        return this;
+    }
+
+    /**
+     * Writes characters of a string value begun with {@link #beginString()}. The characters are not escaped.
+     *
+     * @param chars the characters, only ASCII characters that need no escaping
+     * @param offset the offset of the first character
+     * @param length the number of characters
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter stringChunk(byte[] chars, int offset, int length) throws IOException {
+        if (length > buffer.length - count) {
+            flushBuffer();
+            if (length > buffer.length) {
+                out.write(chars, offset, length);
+                return this;
+            }
+        }
+        System.arraycopy(chars, offset, buffer, count, length);
+        count += length;
+        return this;
+    }
+
+    /**
+     * Ends a string value begun with {@link #beginString()}.
+     *
+     * @return this writer
+     * @throws IOException if the stream cannot be written
+     */
+    public JsonStreamWriter endString() throws IOException {
+        write('"');
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * Writes the buffered bytes to the stream and flushes it.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Flushes the writer and returns the buffer to the pool of the thread. The stream is not closed.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            BUFFERS.set(buffer);
+            buffer = null;
+        }
+    }
+
+    private void separator() throws IOException {
+        if (needsComma) {
+            write(',');
+        }
+    }
+
+    private void string(String s) throws IOException {
+        write('"');
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                write('\\');
+                write(c);
+            } else if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                escape(c);
+            } else if (c < 0x80) {
+                write(c);
+            } else {
+                i = utf8(s, i);
+            }
+        }
+        write('"');
+    }
+
+    /**
+     * Encodes the non-ASCII character at the given index, combined with the next one if they form a surrogate pair.
+     *
+     * @param s the string
+     * @param i the index of the character
+     * @return the index of the last character encoded
+     * @throws IOException if the stream cannot be written
+     */
+    private int utf8(String s, int i) throws IOException {
+        char c = s.charAt(i);
+        if (c < 0x800) {
+            write(0xc0 | (c >> 6));
+            write(0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, s.charAt(++i));
+            write(0xf0 | (codePoint >> 18));
+            write(0x80 | ((codePoint >> 12) & 0x3f));
+            write(0x80 | ((codePoint >> 6) & 0x3f));
+            write(0x80 | (codePoint & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+            // unpaired surrogates cannot be encoded in UTF-8
+            escape(c);
+        } else {
+            write(0xe0 | (c >> 12));
+            write(0x80 | ((c >> 6) & 0x3f));
+            write(0x80 | (c & 0x3f));
+        }
+        return i;
+    }
+
+    private void escape(char c) throws IOException {
+        switch (c) {
+            case '\b':
+                ascii("\\b");
+                break;
+            case '\f':
+                ascii("\\f");
+                break;
+            case '\n':
+                ascii("\\n");
+                break;
+            case '\r':
+                ascii("\\r");
+                break;
+            case '\t':
+                ascii("\\t");
+                break;
+            default:
+                ascii("\\u");
+                write(HEX[(c >> 12) & 0xf]);
+                write(HEX[(c >> 8) & 0xf]);
+                write(HEX[(c >> 4) & 0xf]);
+                write(HEX[c & 0xf]);
+        }
+    }
+
+    private void ascii(String s) throws IOException {
+        for (int i = 0, n = s.length(); i < n; i++) {
+            write(s.charAt(i));
+        }
+    }
+
+    private void raw(String json) throws IOException {
+        // already escaped, only needs encoding
+        for (int i = 0, n = json.length(); i < n; i++) {
+            char c = json.charAt(i);
+            if (c < 0x80) {
+                write(c);
+            } else {
+                i = utf8(json, i);
+            }
+        }
+    }
+
+    private void write(int b) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
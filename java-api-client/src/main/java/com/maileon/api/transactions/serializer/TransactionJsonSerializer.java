@@ -2,7 +2,6 @@ package com.maileon.api.transactions.serializer;
 
 import com.maileon.api.transactions.Attachment;
 import com.maileon.api.transactions.Transaction;
-import org.apache.commons.io.IOUtils;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
@@ -18,7 +17,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 
 @Provider
@@ -46,7 +45,67 @@ public class TransactionJsonSerializer implements MessageBodyReader<Transaction>
     public void writeTo(Transaction t, Class<?> type, Type genericType, Annotation[] annotations,
             MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
             throws IOException, WebApplicationException {
-        IOUtils.write(serialize(t).toJSONString(), entityStream, StandardCharsets.UTF_8);
+        try (JsonStreamWriter writer = new JsonStreamWriter(entityStream)) {
+            write(t, writer);
+        }
+    }
+
+    /**
+     * Writes a transaction in the format of {@link #serialize(com.maileon.api.transactions.Transaction)} without building the JSON object.
+     *
+     * @param transaction the transaction
+     * @param writer the writer
+     * @throws IOException if the transaction cannot be written
+     */
+    public static void write(Transaction transaction, JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        if (transaction.getType() > 0) {
+            writer.name("type").value(transaction.getType());
+        }
+        if (transaction.getTypeName() != null) {
+            writer.name("typeName").value(transaction.getTypeName());
+        }
+        if (transaction.getContact() != null) {
+            writer.name("contact");
+            ContactReferenceJsonSerializer.write(transaction.getContact(), writer);
+        }
+        if (transaction.getImportReference() != null) {
+            writer.name("import").beginObject().name("contact");
+            ImportContactReferenceJsonSerializer.write(transaction.getImportReference(), writer);
+            writer.endObject();
+        }
+        writer.name("content").value(transaction.getContent());
+        if (transaction.getAttachments() != null && !transaction.getAttachments().isEmpty()) {
+            writer.name("attachments").beginArray();
+            for (Attachment attachment : transaction.getAttachments()) {
+                writer.beginObject()
+                        .name("filename").value(attachment.getFilename())
+                        .name("mimetype").value(attachment.getMimetype())
+                        .name("data");
+                if (attachment.isStreamed()) {
+                    // encoded while it is read, Base64 needs no escaping
+                    writer.beginString();
+                    attachment.writeData(new OutputStream() {
+
+                        @Override
+                        public void write(int b) throws IOException {
+                            writer.stringChunk(new byte[]{(byte) b}, 0, 1);
+                        }
+
+                        @Override
+                        public void write(byte[] b, int off, int len) throws IOException {
+                            writer.stringChunk(b, off, len);
+                        }
+                    });
+                    writer.endString();
+                } else {
+                    writer.value(attachment.getData());
+                }
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+        writer.endObject();
     }
 
     @SuppressWarnings("unchecked")
@@ -76,6 +135,39 @@ public class TransactionJsonSerializer implements MessageBodyReader<Transaction>
         return result;
     }
 
+    /**
+     * Restores a transaction from its JSON representation as written by {@link #serialize(com.maileon.api.transactions.Transaction)}.
+     *
+     * @param object the JSON object
+     * @return the transaction
+     */
+    public static Transaction deserialize(JSONObject object) {
+        Transaction transaction = new Transaction();
+        Object type = object.get("type");
+        if (type != null) {
+            transaction.setType(((Number) type).longValue());
+        }
+        transaction.setTypeName((String) object.get("typeName"));
+        JSONObject contact = (JSONObject) object.get("contact");
+        if (contact != null) {
+            transaction.setContact(new ContactReferenceJsonSerializer().deserialize(contact));
+        }
+        JSONObject importContact = (JSONObject) object.get("import");
+        if (importContact != null) {
+            transaction.setImportReference(ImportContactReferenceJsonSerializer.deserialize((JSONObject) importContact.get("contact")));
+        }
+        transaction.setContent(object.get("content"));
+        JSONArray attachments = (JSONArray) object.get("attachments");
+        if (attachments != null) {
+            for (Object o : attachments) {
+                JSONObject attachment = (JSONObject) o;
+                transaction.addAttachment((String) attachment.get("filename"), (String) attachment.get("mimetype"),
+                        Base64.getDecoder().decode((String) attachment.get("data")));
+            }
+        }
+        return transaction;
+    }
+
     private static JSONArray serialize(List<Attachment> attachments) {
         JSONArray result = new JSONArray();
         for (Attachment attachment : attachments) {
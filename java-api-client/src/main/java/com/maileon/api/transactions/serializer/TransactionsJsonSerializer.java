@@ -1,7 +1,7 @@
 package com.maileon.api.transactions.serializer;
 
+import com.maileon.api.MaileonClientException;
 import com.maileon.api.transactions.Transaction;
-import org.apache.commons.io.IOUtils;
 import org.json.simple.JSONArray;
 
 import javax.ws.rs.Produces;
@@ -13,25 +13,67 @@ import javax.ws.rs.ext.Provider;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+/**
+ * The <code>TransactionsJsonSerializer</code> writes a list of transactions as JSON array directly to the request stream.
+ * <p>
+ * Unlike {@link #serialize(java.util.List)} it builds neither the json-simple objects nor the document as string, so the memory needed does not grow with the
+ * number of transactions. The entity must be passed as <code>new GenericEntity&lt;List&lt;Transaction&gt;&gt;(transactions) {}</code>, so the element type is
+ * known.</p>
+ *
+ */
 @Provider
 @Produces(MediaType.APPLICATION_JSON)
 public class TransactionsJsonSerializer implements MessageBodyWriter<List<Transaction>> {
 
-
     @Override
     public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
-        return type == Transaction.class && mediaType.getSubtype().endsWith("json");
+        if (!List.class.isAssignableFrom(type) || !(genericType instanceof ParameterizedType) || !mediaType.getSubtype().endsWith("json")) {
+            return false;
+        }
+        Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+        return arguments.length == 1 && arguments[0] instanceof Class && Transaction.class.isAssignableFrom((Class<?>) arguments[0]);
     }
 
     @Override
     public void writeTo(List<Transaction> transactions, Class<?> type, Type genericType, Annotation[] annotations,
             MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
             throws IOException, WebApplicationException {
-        IOUtils.write(serialize(transactions).toJSONString(), entityStream, StandardCharsets.UTF_8);
+        write(transactions, entityStream);
+    }
+
+    /**
+     * Writes the transactions in the format of {@link #serialize(java.util.List)}. The stream is flushed but not closed.
+     *
+     * @param transactions the transactions
+     * @param out the stream
+     * @throws IOException if the transactions cannot be written
+     */
+    public static void write(List<Transaction> transactions, OutputStream out) throws IOException {
+        try (JsonStreamWriter writer = new JsonStreamWriter(out)) {
+            writer.beginArray();
+            for (Transaction transaction : transactions) {
+                TransactionJsonSerializer.write(transaction, writer);
+            }
+            writer.endArray();
+        }
+    }
+
+    /**
+     * Checks the import references of the transactions, so incomplete ones fail before the request is sent instead of while its body is written.
+     *
+     * @param transactions the transactions
+     * @throws MaileonClientException if an import reference is incomplete
+     */
+    public static void validate(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            if (transaction.getImportReference() != null) {
+                ImportContactReferenceJsonSerializer.validateContact(transaction.getImportReference());
+            }
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -14,8 +14,20 @@ import java.util.zip.GZIPOutputStream;
 
 public class GzipReaderWriterInterceptor implements ReaderInterceptor, WriterInterceptor {
 
+    /**
+     * Request property enabling gzip compression of a single request entity, if the interceptor is shared by all requests of a client.
+     */
+    public static final String REQUEST_COMPRESSION_PROPERTY = GzipReaderWriterInterceptor.class.getName() + ".requestCompression";
+
     private final boolean requestCompressionEnabled;
 
+    /**
+     * Creates an interceptor which compresses only requests with the property {@link #REQUEST_COMPRESSION_PROPERTY} set to <code>true</code>.
+     */
+    public GzipReaderWriterInterceptor() {
+        this(false);
+    }
+
     public GzipReaderWriterInterceptor(boolean requestCompressionEnabled) {
         this.requestCompressionEnabled = requestCompressionEnabled;
     }
@@ -43,7 +55,7 @@ public class GzipReaderWriterInterceptor implements ReaderInterceptor, WriterInt
 
     @Override
     public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
-        if (requestCompressionEnabled) {
+        if (requestCompressionEnabled || Boolean.TRUE.equals(context.getProperty(REQUEST_COMPRESSION_PROPERTY))) {
             context.getHeaders().putSingle("Content-Encoding", "gzip");
 
             final OutputStream outputStream = context.getOutputStream();
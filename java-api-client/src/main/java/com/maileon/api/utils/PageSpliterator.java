@@ -0,0 +1,200 @@
+package com.maileon.api.utils;
+
+import com.maileon.api.MaileonClientException;
+import com.maileon.api.Page;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The <code>PageSpliterator</code> iterates the items of all pages of a paged resource, requesting the following pages in the background.
+ * <p>
+ * After the first page revealed the number of pages, up to <code>prefetchPages</code> further pages are requested in parallel while the current page is consumed. A
+ * page is dropped as soon as its last item was handed out, so at most <code>prefetchPages + 1</code> pages are held at a time. Pages are requested by index, changes of
+ * the resource during the iteration may therefore cause items to be skipped or seen twice.</p>
+ * <p>
+ * If the spliterator is not ordered, pages are consumed in the order their responses arrive, so a slow page does not hold back the pages requested after it.</p>
+ *
+ * @param <T> the type of the items
+ */
+public class PageSpliterator<T> implements Spliterator<T> {
+
+    private final IntFunction<CompletableFuture<Page<T>>> pageLoader;
+
+    private final int prefetchPages;
+
+    private final boolean ordered;
+
+    private final Deque<CompletableFuture<Page<T>>> pending = new ArrayDeque<>();
+
+    /**
+     * The requested pages in the order of completion, only used if not ordered.
+     */
+    private final BlockingQueue<CompletableFuture<Page<T>>> completed = new LinkedBlockingQueue<>();
+
+    private int nextPageIndex = 1;
+
+    private int numberOfPages = -1;
+
+    private Iterator<T> current;
+
+    private boolean closed;
+
+    /**
+     * Instantiates a new ordered spliterator.
+     *
+     * @param pageLoader requests the page with the given index, starting from 1
+     * @param prefetchPages the number of pages requested ahead of the current page
+     */
+    public PageSpliterator(IntFunction<CompletableFuture<Page<T>>> pageLoader, int prefetchPages) {
+        this(pageLoader, prefetchPages, true);
+    }
+
+    /**
+     * Instantiates a new spliterator.
+     *
+     * @param pageLoader requests the page with the given index, starting from 1
+     * @param prefetchPages the number of pages requested ahead of the current page
+     * @param ordered if <code>false</code>, pages are consumed in the order of their arrival
+     */
+    public PageSpliterator(IntFunction<CompletableFuture<Page<T>>> pageLoader, int prefetchPages, boolean ordered) {
+        if (pageLoader == null) {
+            throw new IllegalArgumentException("pageLoader cannot be null");
+        }
+        if (prefetchPages < 0) {
+            throw new IllegalArgumentException("prefetchPages must be >= 0 - found: " + prefetchPages);
+        }
+        this.pageLoader = pageLoader;
+        this.prefetchPages = prefetchPages;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Creates a sequential stream of the items. Closing the stream cancels the prefetched pages.
+     *
+     * @param <T> the type of the items
+     * @param pageLoader requests the page with the given index, starting from 1
+     * @param prefetchPages the number of pages requested ahead of the current page
+     * @param ordered if <code>false</code>, pages are consumed in the order of their arrival
+     * @return the stream
+     */
+    public static <T> Stream<T> stream(IntFunction<CompletableFuture<Page<T>>> pageLoader, int prefetchPages, boolean ordered) {
+        PageSpliterator<T> spliterator = new PageSpliterator<>(pageLoader, prefetchPages, ordered);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (current == null || !current.hasNext()) {
+            current = null;
+            Page<T> page = nextPage();
+            if (page == null) {
+                return false;
+            }
+            if (page.getItems() != null) {
+                current = page.getItems().iterator();
+            }
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ordered ? ORDERED | NONNULL : NONNULL;
+    }
+
+    /**
+     * Cancels the pages requested but not consumed yet. Further calls of {@link #tryAdvance(java.util.function.Consumer)} return <code>false</code>.
+     */
+    public void close() {
+        closed = true;
+        current = null;
+        for (CompletableFuture<Page<T>> page : pending) {
+            page.cancel(true);
+        }
+        pending.clear();
+        completed.clear();
+    }
+
+    private Page<T> nextPage() {
+        if (closed) {
+            return null;
+        }
+        requestPages(1);
+        if (pending.isEmpty()) {
+            return null;
+        }
+        Page<T> page = await();
+        numberOfPages = page.getNumberOfPages();
+        requestPages(prefetchPages);
+        return page;
+    }
+
+    private void requestPages(int count) {
+        if (numberOfPages < 0) {
+            // the first page tells how many pages there are
+            if (nextPageIndex == 1) {
+                request(nextPageIndex++);
+            }
+            return;
+        }
+        while (nextPageIndex <= numberOfPages && pending.size() < count) {
+            request(nextPageIndex++);
+        }
+    }
+
+    private void request(int pageIndex) {
+        CompletableFuture<Page<T>> future = pageLoader.apply(pageIndex);
+        pending.add(future);
+        if (!ordered) {
+            future.whenComplete((page, e) -> completed.add(future));
+        }
+    }
+
+    private Page<T> await() {
+        try {
+            CompletableFuture<Page<T>> future;
+            if (ordered) {
+                future = pending.poll();
+            } else {
+                future = completed.take();
+                pending.remove(future);
+            }
+            return future.get();
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new MaileonClientException("interrupted while waiting for page", e);
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MaileonClientException("request failed", cause);
+        }
+    }
+}
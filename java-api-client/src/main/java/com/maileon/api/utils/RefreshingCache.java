@@ -0,0 +1,209 @@
+package com.maileon.api.utils;
+
+import com.maileon.api.MaileonException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The <code>RefreshingCache</code> keeps a value loaded from Maileon, e.g. the custom contact fields or the transaction types of the account, for a TTL.
+ * <p>
+ * The value is loaded on first use, waiting for the response. Once 80% of the TTL passed, the next access starts a reload in the background, so the value is usually
+ * replaced before it expires. Until the reload completes, and if it fails, the previous value is served; after a failure, the next reload starts once 80% of the TTL
+ * passed again. {@link #invalidate()} discards the value, a reload started before is not applied.</p>
+ *
+ * @param <T> the type of the value
+ */
+public class RefreshingCache<T> {
+
+    /**
+     * Loads the value, waiting for the response.
+     *
+     * @param <T> the type of the value
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+
+        T load() throws MaileonException;
+    }
+
+    private static final Logger logger = Logger.getLogger("Maileon");
+
+    /**
+     * The percentage of the TTL after which a reload is started.
+     */
+    private static final long REFRESH_AHEAD_PERCENT = 80L;
+
+    private final String name;
+
+    private final Loader<T> loader;
+
+    private final Supplier<CompletableFuture<T>> asyncLoader;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private Consumer<T> listener;
+
+    private volatile long ttlMillis = 600000L;
+
+    private volatile Entry<T> entry;
+
+    /**
+     * Incremented whenever the value is replaced or discarded, so a reload started before is not applied.
+     */
+    private long generation;
+
+    /**
+     * Instantiates a new cache.
+     *
+     * @param name the name of the value, used in log messages
+     * @param loader loads the value on first use and by {@link #refresh()}
+     * @param asyncLoader loads the value in the background before it expires
+     */
+    public RefreshingCache(String name, Loader<T> loader, Supplier<CompletableFuture<T>> asyncLoader) {
+        if (loader == null || asyncLoader == null) {
+            throw new IllegalArgumentException("loader and asyncLoader cannot be null");
+        }
+        this.name = name;
+        this.loader = loader;
+        this.asyncLoader = asyncLoader;
+    }
+
+    /**
+     * Sets the listener called with each loaded value before it is served. It is called while the cache is locked and must not access the cache.
+     *
+     * @param listener the listener, may be <code>null</code>
+     * @return this cache
+     */
+    public synchronized RefreshingCache<T> setListener(Consumer<T> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Sets the time after which the value expires, 600000 ms by default.
+     *
+     * @param ttlMillis the time to live in milliseconds
+     * @return this cache
+     */
+    public RefreshingCache<T> setTtlMillis(long ttlMillis) {
+        if (ttlMillis < 0L) {
+            throw new IllegalArgumentException("ttlMillis must be >= 0 - found: " + ttlMillis);
+        }
+        this.ttlMillis = ttlMillis;
+        return this;
+    }
+
+    /**
+     * Gets the value, loading it if there is none and starting a reload in the background if it is about to expire.
+     *
+     * @return the value
+     * @throws MaileonException if there is no value and it cannot be loaded
+     */
+    public T get() throws MaileonException {
+        Entry<T> current = entry;
+        if (current == null) {
+            synchronized (this) {
+                current = entry;
+                if (current == null) {
+                    return store(loader.load());
+                }
+            }
+        }
+        if (System.currentTimeMillis() - current.loadedAt >= ttlMillis * REFRESH_AHEAD_PERCENT / 100L && refreshing.compareAndSet(false, true)) {
+            reload(current);
+        }
+        return current.value;
+    }
+
+    /**
+     * Loads the value now, waiting for the response, unless it was loaded less than the given time ago. Concurrent callers wait for a single load, so a burst of
+     * lookups missing in the value causes at most one request per interval.
+     *
+     * @param minAgeMillis the minimum age of the value to reload it
+     * @return the current value
+     * @throws MaileonException if the value cannot be loaded
+     */
+    public synchronized T reloadIfOlderThan(long minAgeMillis) throws MaileonException {
+        Entry<T> current = entry;
+        if (current != null && System.currentTimeMillis() - current.loadedAt < minAgeMillis) {
+            return current.value;
+        }
+        return store(loader.load());
+    }
+
+    /**
+     * Loads the value now, waiting for the response.
+     *
+     * @throws MaileonException if the value cannot be loaded
+     */
+    public void refresh() throws MaileonException {
+        T value = loader.load();
+        synchronized (this) {
+            store(value);
+        }
+    }
+
+    /**
+     * Discards the value, the next access loads it again.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        entry = null;
+    }
+
+    private T store(T value) {
+        generation++;
+        if (listener != null) {
+            listener.accept(value);
+        }
+        entry = new Entry<>(value);
+        return value;
+    }
+
+    private void reload(Entry<T> current) {
+        long started;
+        synchronized (this) {
+            started = generation;
+        }
+        CompletableFuture<T> future;
+        try {
+            future = asyncLoader.get();
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((value, e) -> {
+            try {
+                synchronized (this) {
+                    if (generation != started) {
+                        return;
+                    }
+                    if (e != null) {
+                        logger.log(Level.WARNING, "Unable to reload " + name + ", keeping the previous value", e);
+                        // retry after the next refresh point instead of on every access
+                        entry = new Entry<>(current.value);
+                    } else {
+                        store(value);
+                    }
+                }
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+
+        private final long loadedAt = System.currentTimeMillis();
+
+        Entry(T value) {
+            this.value = value;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.maileon.api.wa;
 
 import com.maileon.api.AbstractMaileonService;
+import com.maileon.api.MaileonClient;
 import com.maileon.api.MaileonClientException;
 import com.maileon.api.MaileonConfiguration;
 import com.maileon.api.MaileonException;
@@ -20,6 +21,10 @@ public class MarketingAutomationService extends AbstractMaileonService {
         super(config, SERVICE);
     }
 
+    public MarketingAutomationService(MaileonClient client) {
+        super(client, SERVICE);
+    }
+
     /**
      * Start marketing automation program for the given contacts.
      *
@@ -0,0 +1,91 @@
+package com.maileon.api;
+
+import com.maileon.api.contacts.MaileonContactsService;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class AdaptiveRateLimiterStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testTokenBucket() throws Exception {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(20.0, 5, 10);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.release(200, -1L);
+        }
+        // the burst is granted at once
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100L));
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.release(200, -1L);
+        }
+        // the next five permits are refilled at 20 per second
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200L));
+    }
+
+    @Test
+    public void testAdaptiveConcurrency() throws Exception {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(0.0, 1, 8);
+        assertEquals(8, limiter.getConcurrencyLimit());
+        limiter.acquire();
+        limiter.release(429, 0L);
+        assertEquals(4, limiter.getConcurrencyLimit());
+        limiter.acquire();
+        limiter.release(503, 0L);
+        assertEquals(2, limiter.getConcurrencyLimit());
+        assertEquals(2L, limiter.getThrottledCount());
+
+        // additive increase: one more request in flight per window of successful responses
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+            limiter.release(200, -1L);
+        }
+        assertEquals(3, limiter.getConcurrencyLimit());
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.release(200, -1L);
+        }
+        assertEquals(8, limiter.getConcurrencyLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testThrottledResponsesLowerConcurrency() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(5).setThrottleEvery(3).setRetryAfterSeconds(0));
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(0.0, 1, 16);
+        MaileonClient client = stubs.client(stub, config -> config.setRateLimiter(limiter).setRetryPolicy(new RetryPolicy().setBackoff(1L, 10L, 2.0)));
+        MaileonContactsService contactsService = new MaileonContactsService(client);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(5, contactsService.countContacts());
+        }
+        assertEquals(stub.getThrottledCount(), limiter.getThrottledCount());
+        assertTrue(limiter.getConcurrencyLimit() < 16);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testSharedLimiter() throws Exception {
+        AdaptiveRateLimiter limiter = AdaptiveRateLimiter.forApiKey("shared-test", 10.0, 5, 4);
+        assertSame(limiter, AdaptiveRateLimiter.forApiKey("shared-test", 10.0, 5, 4));
+        assertThrows(IllegalArgumentException.class, () -> AdaptiveRateLimiter.forApiKey("shared-test", 20.0, 5, 4));
+
+        AdaptiveRateLimiter.releaseForApiKey("shared-test");
+        AdaptiveRateLimiter.releaseForApiKey("shared-test");
+        // no longer used, so new parameters are accepted
+        AdaptiveRateLimiter other = AdaptiveRateLimiter.forApiKey("shared-test", 20.0, 5, 4);
+        assertNotSame(limiter, other);
+        AdaptiveRateLimiter.releaseForApiKey("shared-test");
+    }
+}
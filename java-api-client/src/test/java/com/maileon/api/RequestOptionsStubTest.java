@@ -0,0 +1,107 @@
+package com.maileon.api;
+
+import com.maileon.api.contacts.MaileonContactsService;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.ProcessingException;
+import org.apache.http.conn.ConnectTimeoutException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class RequestOptionsStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testConnectTimeout() throws Exception {
+        // a listener which never accepts, once its backlog is full further connections time out
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            List<Socket> backlog = new ArrayList<>();
+            try {
+                for (int i = 0; i < 2; i++) {
+                    Socket socket = new Socket();
+                    socket.connect(server.getLocalSocketAddress(), 1000);
+                    backlog.add(socket);
+                }
+                MaileonConfiguration config = new MaileonConfiguration("http://127.0.0.1:" + server.getLocalPort() + "/1.0", "stub");
+                try (MaileonClient client = new MaileonClient(config)) {
+                    MaileonContactsService contactsService = new MaileonContactsService(client).withOptions(new RequestOptions().setConnectTimeoutMillis(200L));
+                    long start = System.nanoTime();
+                    ProcessingException e = assertThrows(ProcessingException.class, contactsService::countContacts);
+                    assertTrue(e.getCause() instanceof ConnectTimeoutException, e.toString());
+                    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5L));
+                }
+            } finally {
+                for (Socket socket : backlog) {
+                    socket.close();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadTimeout() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(5).setLatencyMillis(1000L));
+        MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stub));
+        MaileonContactsService limited = contactsService.withOptions(new RequestOptions().setReadTimeoutMillis(100L));
+
+        ProcessingException e = assertThrows(ProcessingException.class, limited::countContacts);
+        assertTrue(e.getCause() instanceof SocketTimeoutException, e.toString());
+        // the options of the copy do not leak into the service it was created from
+        assertNull(contactsService.getRequestOptions());
+        assertEquals(5, contactsService.countContacts());
+    }
+
+    @Test
+    public void testTotalTimeout() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(5).setLatencyMillis(2000L));
+        MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stub)).withOptions(new RequestOptions().setTimeoutMillis(200L));
+
+        long start = System.nanoTime();
+        assertThrows(MaileonTimeoutException.class, contactsService::countContacts);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500L));
+    }
+
+    @Test
+    public void testTimedCallOfUnclosedServiceStartsNoNonDaemonThreads() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(5));
+        Set<Thread> before = MaileonStubExtension.nonDaemonThreads();
+        // a blocking call with a deadline on a service creating its own client, never closed by existing callers
+        MaileonContactsService contactsService = stubs.closeAfter(new MaileonContactsService(stubs.config(stub).setRequestTimeoutMillis(5000L)));
+        assertEquals("contact1@example.com", contactsService.getContact("contact1@example.com", null, null).getEmail());
+
+        Set<Thread> started = MaileonStubExtension.nonDaemonThreads();
+        started.removeAll(before);
+        assertTrue(started.isEmpty(), started.toString());
+    }
+
+    @Test
+    public void testCancellation() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(5).setLatencyMillis(2000L));
+        CancellationToken token = new CancellationToken();
+        MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stub)).withOptions(new RequestOptions().setCancellationToken(token));
+
+        DelayScheduler.schedule(token::cancel, 100L, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        assertThrows(CancellationException.class, () -> contactsService.getContacts(null, null, 1, 10));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500L));
+        // calls started after the cancellation are not sent
+        int requests = stub.getRequestCount();
+        assertThrows(CancellationException.class, contactsService::countContacts);
+        assertEquals(requests, stub.getRequestCount());
+    }
+}
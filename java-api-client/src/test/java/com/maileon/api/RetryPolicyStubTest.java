@@ -0,0 +1,48 @@
+package com.maileon.api;
+
+import com.maileon.api.contacts.MaileonContactsService;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class RetryPolicyStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testThrottledRequestsAreRetried() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(5).setThrottleEvery(2).setRetryAfterSeconds(0));
+        MaileonClient client = stubs.client(stub, config -> config.setRetryPolicy(new RetryPolicy().setBackoff(1L, 10L, 2.0)));
+        MaileonContactsService contactsService = new MaileonContactsService(client);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(5, contactsService.countContacts());
+        }
+        assertEquals(3, stub.getThrottledCount());
+        assertEquals(3L, client.getRetryStatistics().getRecoveredRequests());
+    }
+
+    @Test
+    public void testRetryAfterAboveMaxBackoffFails() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(5).setThrottleEvery(1).setRetryAfterSeconds(60));
+        MaileonClient client = stubs.client(stub, config -> config.setRetryPolicy(new RetryPolicy().setBackoff(1L, 10L, 2.0)));
+        MaileonContactsService contactsService = new MaileonContactsService(client);
+        long start = System.nanoTime();
+        assertThrows(MaileonThrottledException.class, contactsService::countContacts);
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        assertEquals(1, stub.getThrottledCount());
+        assertEquals(1L, client.getRetryStatistics().getExhaustedRequests());
+    }
+
+    @Test
+    public void testRequestsAreNotRetriedByDefault() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(5).setThrottleEvery(1).setRetryAfterSeconds(0));
+        MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stub));
+        assertThrows(MaileonThrottledException.class, contactsService::countContacts);
+        assertEquals(1, stub.getRequestCount());
+    }
+}
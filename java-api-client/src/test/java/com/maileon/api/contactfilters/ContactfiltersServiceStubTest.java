@@ -0,0 +1,23 @@
+package com.maileon.api.contactfilters;
+
+import com.maileon.api.Page;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class ContactfiltersServiceStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testContactfilters() throws Exception {
+        MaileonContactfiltersService contactfiltersService = new MaileonContactfiltersService(stubs.client(stubs.start(new MaileonStubServer().withContactFilters(3))));
+
+        assertEquals(3L, contactfiltersService.getContactfiltersCount());
+        Page<Contactfilter> page = contactfiltersService.getContactfilters(2, 2);
+        assertEquals(1, page.getItems().size());
+    }
+}
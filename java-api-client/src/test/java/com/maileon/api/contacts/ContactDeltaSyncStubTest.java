@@ -0,0 +1,94 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class ContactDeltaSyncStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testContactDeltaSync() throws Exception {
+        Path checkpointFile = Files.createTempFile("maileon-delta", ".properties");
+        Files.delete(checkpointFile);
+        try {
+            MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stubs.start(new MaileonStubServer().withContacts(25))));
+            ContactDeltaSync sync = new ContactDeltaSync(contactsService, new FileCheckpointStore(checkpointFile)).setPageSize(10).setOverlapMillis(0L);
+
+            // the consumer fails on the 15th contact, the second page is delivered again after the restart
+            List<String> received = new ArrayList<>();
+            assertThrows(IllegalStateException.class, () -> sync.run(contact -> {
+                if (received.size() == 14) {
+                    throw new IllegalStateException("crash");
+                }
+                received.add(contact.getEmail());
+            }));
+            assertEquals(2, sync.getCheckpoint().getNextPageIndex());
+            assertEquals(15, sync.run(contact -> received.add(contact.getEmail())));
+            assertEquals(25L, received.stream().distinct().count());
+            assertEquals(0, sync.getCheckpoint().getNextPageIndex());
+
+            Contact changed = new Contact();
+            changed.setEmail("contact3@example.com");
+            contactsService.synchronizeContacts(Collections.singletonList(changed), Permission.NONE, SynchronizationMode.UPDATE, false, true, false, false, false);
+            received.clear();
+            assertEquals(1, sync.run(contact -> received.add(contact.getEmail())));
+            assertEquals("contact3@example.com", received.get(0));
+        } finally {
+            Files.deleteIfExists(checkpointFile);
+        }
+    }
+
+    @Test
+    public void testContactUpdatedOnReadPageDuringRun() throws Exception {
+        Path checkpointFile = Files.createTempFile("maileon-delta", ".properties");
+        Files.delete(checkpointFile);
+        try {
+            MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stubs.start(new MaileonStubServer().withContacts(25))));
+            ContactDeltaSync sync = new ContactDeltaSync(contactsService, new FileCheckpointStore(checkpointFile)).setPageSize(10).setOverlapMillis(1000L);
+
+            // contact1 is updated after the first page was read, contact25 on the last page two seconds later
+            List<String> received = new ArrayList<>();
+            assertEquals(25, sync.run(contact -> {
+                if (received.size() == 10) {
+                    update(contactsService, "contact1@example.com");
+                    try {
+                        Thread.sleep(2100L);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    update(contactsService, "contact25@example.com");
+                }
+                received.add(contact.getEmail());
+            }));
+
+            received.clear();
+            assertEquals(2, sync.run(contact -> received.add(contact.getEmail())));
+            assertTrue(received.contains("contact1@example.com"));
+            assertTrue(received.contains("contact25@example.com"));
+        } finally {
+            Files.deleteIfExists(checkpointFile);
+        }
+    }
+
+    private static void update(MaileonContactsService contactsService, String email) {
+        Contact changed = new Contact();
+        changed.setEmail(email);
+        try {
+            contactsService.synchronizeContacts(Collections.singletonList(changed), Permission.NONE, SynchronizationMode.UPDATE, false, true, false, false, false);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.MaileonClient;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class ContactFieldSchemaCacheStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testContactFieldSchemaCache() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withCustomField("score", "integer"));
+        MaileonClient client = stubs.client(stub);
+        ContactFieldSchemaCache schema = new ContactFieldSchemaCache(client);
+        assertEquals(CustomFieldType.INTEGER, schema.getType("score"));
+        assertFalse(schema.contains("birthday_child"));
+        assertEquals(1L, schema.getVersion());
+        assertEquals(1, stub.getRequestCount());
+
+        // any service of the same client invalidates the cache
+        new MaileonContactFieldsService(client).createCustomField("birthday_child", "date");
+        assertEquals(CustomFieldType.DATE, schema.getType("birthday_child"));
+        assertEquals(2L, schema.getVersion());
+
+        // the field is unknown until the reload after the ttl
+        stub.withCustomField("active", "boolean");
+        schema.setTtlMillis(0L);
+        schema.getTypes();
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (!schema.contains("active") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(CustomFieldType.BOOLEAN, schema.getType("active"));
+        assertEquals(3L, schema.getVersion());
+    }
+}
@@ -0,0 +1,105 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.MaileonClient;
+import com.maileon.api.MaileonClientException;
+import com.maileon.api.MaileonThrottledException;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class ContactSyncPipelineStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testContactSyncPipeline() throws Exception {
+        MaileonClient client = stubs.client(stubs.start(new MaileonStubServer()));
+        SynchronizationReport report = new ContactSyncPipeline(client).setBatchSize(100).setMaxInFlight(3)
+                .synchronize(IntStream.rangeClosed(1, 1050).mapToObj(i -> {
+                    Contact contact = new Contact();
+                    contact.setEmail("pipeline" + i + "@example.com");
+                    return contact;
+                }));
+        assertTrue(report.isSuccess());
+        assertEquals(1050, report.getCountContacts());
+        assertEquals(1050, report.getCountNewContacts());
+    }
+
+    @Test
+    public void testValidatedPipeline() throws Exception {
+        MaileonClient client = stubs.client(stubs.start(new MaileonStubServer()));
+        ContactValidator validator = new ContactValidator()
+                .setCustomFieldDefinitions(Arrays.asList(new CustomContactFieldDefinition("score", "integer")));
+        SynchronizationReport report = new ContactSyncPipeline(client).setBatchSize(100).setValidator(validator)
+                .synchronize(IntStream.rangeClosed(1, 300).mapToObj(i -> {
+                    Contact contact = new Contact();
+                    contact.setEmail(i % 100 == 0 ? "invalid" + i : " validated" + i + "@Example.COM");
+                    contact.getCustomFields().put("score", i % 150 == 0 ? "high" : Integer.toString(i));
+                    return contact;
+                }));
+        assertEquals(300, report.getCountContacts());
+        assertEquals(296, report.getCountNewContacts());
+        assertEquals(4, report.getCountInvalidContacts());
+        assertEquals(ContactValidator.INVALID_EMAIL, report.getInvalidContacts().get(0).getErrorCode());
+        assertEquals("score", report.getInvalidContacts().get(1).getErrorField());
+        assertTrue(report.getInvalidContacts().get(0).getErrorCode() < 0);
+
+        // contacts identified by external id need no email address unless required explicitly
+        Contact external = new Contact();
+        external.setExternalId("ext-1");
+        assertEquals(1, validator.validate(Arrays.asList(external), true).getValidContacts().size());
+        assertEquals(ContactValidator.INVALID_EMAIL, validator.validate(external).getErrorCode());
+        validator.setRequireEmail(true);
+        assertEquals(1, validator.validate(Arrays.asList(external), true).getInvalidContacts().size());
+    }
+
+    @Test
+    public void testFailedBatchKeepsPartialReport() throws Exception {
+        MaileonClient client = stubs.client(stubs.start(new MaileonStubServer().setThrottleEvery(3)));
+        ContactSyncException e = assertThrows(ContactSyncException.class, () -> new ContactSyncPipeline(client).setBatchSize(100).setMaxInFlight(1)
+                .synchronize(IntStream.rangeClosed(1, 500).mapToObj(ContactSyncPipelineStubTest::contact)));
+        assertTrue(e.getCause() instanceof MaileonThrottledException, e.getCause().toString());
+        assertFalse(e.getPartialReport().isSuccess());
+        assertEquals(200, e.getPartialReport().getCountContacts());
+        assertEquals(200, e.getPartialReport().getCountNewContacts());
+    }
+
+    @Test
+    public void testSynchronousFailureReleasesPermit() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        MaileonContactsServiceAsync service = new MaileonContactsServiceAsync(stubs.client(stubs.start(new MaileonStubServer()))) {
+            @Override
+            public CompletableFuture<SynchronizationReport> synchronizeContacts(List<Contact> contacts, Permission permission, SynchronizationMode syncMode,
+                    boolean useExternalId, boolean ignoreInvalidContacts, boolean reimportUnsubscribedContacts, boolean overridePermission, boolean updateOnly,
+                    boolean preferMaileonId) {
+                if (calls.incrementAndGet() == 2) {
+                    throw new MaileonClientException("rejected");
+                }
+                return super.synchronizeContacts(contacts, permission, syncMode, useExternalId, ignoreInvalidContacts, reimportUnsubscribedContacts, overridePermission,
+                        updateOnly, preferMaileonId);
+            }
+        };
+        ContactSyncException e = assertThrows(ContactSyncException.class, () -> new ContactSyncPipeline(service).setBatchSize(100).setMaxInFlight(1)
+                .synchronize(IntStream.rangeClosed(1, 300).mapToObj(ContactSyncPipelineStubTest::contact)));
+        assertEquals("rejected", e.getCause().getMessage());
+        assertEquals(100, e.getPartialReport().getCountContacts());
+        assertEquals(2, calls.get());
+    }
+
+    private static Contact contact(int i) {
+        Contact contact = new Contact();
+        contact.setEmail("pipeline" + i + "@example.com");
+        return contact;
+    }
+}
@@ -0,0 +1,76 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.MaileonNotFoundException;
+import com.maileon.api.Page;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class ContactsServiceAsyncStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testAsyncContacts() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(150));
+        MaileonContactsServiceAsync contactsService = new MaileonContactsServiceAsync(stubs.client(stub));
+
+        assertEquals(Integer.valueOf(150), contactsService.countContacts().get());
+        Page<Contact> page = contactsService.getContacts(null, null, 2, 100).get();
+        assertEquals(50, page.getItems().size());
+        assertEquals("contact101@example.com", page.getItems().get(0).getEmail());
+
+        Contact contact = new Contact();
+        contact.setEmail("new@example.com");
+        SynchronizationReport report = contactsService.synchronizeContacts(Arrays.asList(contact), Permission.NONE, SynchronizationMode.UPDATE,
+                false, false, false, false, false).get();
+        assertEquals(1, report.getCountNewContacts());
+        assertEquals(151, stub.getContactCount());
+    }
+
+    @Test
+    public void testUnclosedServiceStartsNoNonDaemonThreads() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(10));
+        Set<Thread> before = MaileonStubExtension.nonDaemonThreads();
+        // never closed by existing callers, closed here after the assertion only
+        MaileonContactsServiceAsync contactsService = stubs.closeAfter(new MaileonContactsServiceAsync(stubs.config(stub)));
+        assertEquals(Integer.valueOf(10), contactsService.countContacts().get());
+
+        Set<Thread> started = MaileonStubExtension.nonDaemonThreads();
+        started.removeAll(before);
+        assertTrue(started.isEmpty(), started.toString());
+    }
+
+    @Test
+    public void testAsyncErrors() throws Exception {
+        MaileonContactsServiceAsync contactsService = new MaileonContactsServiceAsync(stubs.client(stubs.start(new MaileonStubServer().withContacts(1))));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> contactsService.getContact("unknown@example.com", null, null).get());
+        assertTrue(e.getCause() instanceof MaileonNotFoundException, e.getCause().toString());
+        assertEquals(404, ((MaileonNotFoundException) e.getCause()).getStatusCode());
+
+        // validation errors fail the future instead of being thrown
+        assertTrue(contactsService.getContacts(null, null, 0, 100).isCompletedExceptionally());
+    }
+
+    @Test
+    public void testAsyncCancellation() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(10).setLatencyMillis(500L));
+        MaileonContactsServiceAsync contactsService = new MaileonContactsServiceAsync(stubs.client(stub));
+
+        CompletableFuture<Page<Contact>> future = contactsService.getContacts(null, null, 1, 10);
+        assertTrue(future.cancel(true));
+        assertThrows(CancellationException.class, future::join);
+        assertEquals(Integer.valueOf(10), contactsService.countContacts().get());
+    }
+}
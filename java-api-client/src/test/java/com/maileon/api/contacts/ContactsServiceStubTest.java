@@ -0,0 +1,131 @@
+package com.maileon.api.contacts;
+
+import com.maileon.api.BatchResult;
+import com.maileon.api.MaileonNotFoundException;
+import com.maileon.api.Page;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class ContactsServiceStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testContactPaging() throws Exception {
+        MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stubs.start(new MaileonStubServer().withContacts(250))));
+        contactsService.setCompressionEnabled(true);
+
+        Page<Contact> page = contactsService.getContacts(null, null, 3, 100);
+        assertEquals(250, page.getTotalItems());
+        assertEquals(3, page.getNumberOfPages());
+        assertEquals(50, page.getItems().size());
+        assertEquals("contact201@example.com", page.getItems().get(0).getEmail());
+    }
+
+    @Test
+    public void testBatchLookups() throws Exception {
+        MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stubs.start(new MaileonStubServer().withContacts(10))));
+
+        BatchResult<String, List<Contact>> byEmail = contactsService.getContactsByEmails(
+                Arrays.asList("contact7@example.com", "contact9@example.com", "contact7@example.com", "unknown@example.com", "invalid"), null, null, 2);
+        assertTrue(byEmail.isSuccess());
+        assertEquals(Arrays.asList("contact7@example.com", "contact9@example.com", "unknown@example.com", "invalid"), new ArrayList<>(byEmail.getResults().keySet()));
+        assertEquals(Long.valueOf(9L), byEmail.get("contact9@example.com").get(0).getId());
+        assertTrue(byEmail.get("unknown@example.com").isEmpty());
+
+        BatchResult<String, List<Contact>> byExternalId = contactsService.getContactsByExternalIds(Arrays.asList("ext-3", "", "ext-4"), null, null);
+        assertEquals(2, byExternalId.getResults().size());
+        assertEquals("contact4@example.com", byExternalId.get("ext-4").get(0).getEmail());
+        assertTrue(byExternalId.getError("") instanceof MaileonNotFoundException);
+    }
+
+    @Test
+    public void testBatchLookupsOfUnclosedServiceStartNoNonDaemonThreads() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(10));
+        Set<Thread> before = MaileonStubExtension.nonDaemonThreads();
+        // never closed by existing callers, closed here after the assertion only
+        MaileonContactsService contactsService = stubs.closeAfter(new MaileonContactsService(stubs.config(stub)));
+        assertTrue(contactsService.getContactsByEmails(Arrays.asList("contact1@example.com", "contact2@example.com"), null, null).isSuccess());
+        assertEquals(1, contactsService.getContactsByExternalIds(Arrays.asList("ext-1"), null, null).getResults().size());
+
+        Set<Thread> started = MaileonStubExtension.nonDaemonThreads();
+        started.removeAll(before);
+        assertTrue(started.isEmpty(), started.toString());
+    }
+
+    @Test
+    public void testBulkDeleteWithJournal() throws Exception {
+        Path file = Files.createTempFile("maileon", ".journal");
+        Files.delete(file);
+        try {
+            MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(10));
+            MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stub));
+            List<String> emails = Arrays.asList("contact1@example.com", "contact2@example.com", "unknown@example.com");
+
+            try (BulkJournal journal = new BulkJournal(file)) {
+                BatchResult<String, Boolean> result = contactsService.deleteContactsByEmails(emails, 2, journal);
+                assertEquals(Boolean.TRUE, result.get("contact2@example.com"));
+                assertTrue(result.getError("unknown@example.com") instanceof MaileonNotFoundException);
+            }
+            assertEquals(8, stub.getContactCount());
+
+            // resumed: only the failed email is requested again
+            int requests = stub.getRequestCount();
+            try (BulkJournal journal = new BulkJournal(file)) {
+                assertEquals(2, journal.size());
+                BatchResult<String, Boolean> result = contactsService.deleteContactsByEmails(emails, 2, journal);
+                assertEquals(Boolean.FALSE, result.get("contact1@example.com"));
+                assertEquals(1, result.getErrors().size());
+            }
+            assertEquals(requests + 1, stub.getRequestCount());
+
+            BatchResult<String, Boolean> result = contactsService.unsubscribeContactsByEmails(Arrays.asList("contact3@example.com", "contact4@example.com"));
+            assertTrue(result.isSuccess());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testStreamContacts() throws Exception {
+        MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stubs.start(new MaileonStubServer().withContacts(1234))));
+        try (Stream<Contact> contacts = contactsService.streamContacts(null, null, 100, 2)) {
+            assertEquals(1234L, contacts.map(Contact::getEmail).distinct().count());
+        }
+        try (Stream<Contact> contacts = contactsService.streamContacts(null, null, 100, 2)) {
+            assertEquals("contact150@example.com", contacts.skip(149).findFirst().get().getEmail());
+        }
+        try (Stream<Contact> contacts = contactsService.streamContactsByFilterId(1L, null, null, 100, 4, false)) {
+            assertEquals(1234L, contacts.map(Contact::getEmail).distinct().count());
+        }
+    }
+
+    @Test
+    public void testCompressedSynchronization() throws Exception {
+        MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stubs.start(new MaileonStubServer().withContacts(10))));
+        contactsService.setCompressionEnabled(true);
+        contactsService.setRequestCompressionEnabled(true);
+
+        List<Contact> contacts = new ArrayList<>();
+        for (String email : new String[]{"contact1@example.com", "new@example.com"}) {
+            Contact contact = new Contact();
+            contact.setEmail(email);
+            contacts.add(contact);
+        }
+        SynchronizationReport report = contactsService.synchronizeContacts(contacts, Permission.NONE, SynchronizationMode.UPDATE, false, true, false, false, false);
+        assertEquals(1, report.getCountNewContacts());
+        assertEquals(1, report.getCountExistingContacts());
+    }
+}
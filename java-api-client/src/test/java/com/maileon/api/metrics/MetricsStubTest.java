@@ -0,0 +1,90 @@
+package com.maileon.api.metrics;
+
+import com.maileon.api.MaileonConfiguration;
+import com.maileon.api.MaileonNotFoundException;
+import com.maileon.api.contacts.MaileonContactsService;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.ProcessingException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class MetricsStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    private final List<RequestMetrics> completed = new CopyOnWriteArrayList<>();
+
+    private final List<String> started = new CopyOnWriteArrayList<>();
+
+    private final List<RequestMetrics> ended = new CopyOnWriteArrayList<>();
+
+    private void record(MaileonConfiguration config) {
+        config.setMetricsListener(completed::add);
+        config.setTracer((method, endpointTemplate) -> {
+            started.add(method + " " + endpointTemplate);
+            return ended::add;
+        });
+    }
+
+    @Test
+    public void testMetricsAndSpans() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(5).setLatencyMillis(20L));
+        MaileonContactsService contactsService = new MaileonContactsService(stubs.client(stub, this::record));
+
+        assertEquals(5, contactsService.countContacts());
+        contactsService.getContact("contact3@example.com", null, null);
+        assertThrows(MaileonNotFoundException.class, () -> contactsService.getContact("unknown@example.com", null, null));
+
+        assertEquals(3, completed.size());
+        RequestMetrics count = completed.get(0);
+        assertEquals("GET", count.getMethod());
+        assertEquals("contacts/count", count.getEndpointTemplate());
+        assertEquals(200, count.getStatusCode());
+        assertEquals(1, count.getAttempts());
+        assertTrue(count.getBytesReceived() > 0L);
+        assertTrue(count.getLatency(TimeUnit.MILLISECONDS) >= 20L, count.toString());
+        assertTrue(count.isSuccess());
+        assertNull(count.getError());
+
+        assertEquals("contacts/email/{email}", completed.get(1).getEndpointTemplate());
+        RequestMetrics notFound = completed.get(2);
+        assertEquals(404, notFound.getStatusCode());
+        assertFalse(notFound.isSuccess());
+        assertTrue(notFound.getError() instanceof MaileonNotFoundException);
+
+        assertEquals(3, started.size());
+        assertEquals("GET contacts/count", started.get(0));
+        assertEquals("GET contacts/email/{email}", started.get(1));
+        assertEquals(completed, ended);
+    }
+
+    @Test
+    public void testFailedConnection() throws Exception {
+        int port;
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = server.getLocalPort();
+        }
+        MaileonConfiguration config = new MaileonConfiguration("http://127.0.0.1:" + port + "/1.0", "stub");
+        record(config);
+        try (MaileonContactsService contactsService = new MaileonContactsService(config)) {
+            assertThrows(ProcessingException.class, contactsService::countContacts);
+        }
+        assertEquals(1, completed.size());
+        assertEquals(0, completed.get(0).getStatusCode());
+        assertTrue(completed.get(0).getError() instanceof ProcessingException);
+        assertSame(completed.get(0), ended.get(0));
+    }
+}
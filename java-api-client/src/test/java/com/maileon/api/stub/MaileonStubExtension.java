@@ -0,0 +1,109 @@
+package com.maileon.api.stub;
+
+import com.maileon.api.MaileonClient;
+import com.maileon.api.MaileonConfiguration;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * The <code>MaileonStubExtension</code> starts {@link MaileonStubServer}s and clients for a test and closes them after it, in reverse order.
+ *
+ * <pre>
+ * &#64;RegisterExtension
+ * final MaileonStubExtension stubs = new MaileonStubExtension();
+ *
+ * &#64;Test
+ * public void test() throws Exception {
+ *     MaileonStubServer stub = stubs.start(new MaileonStubServer().withContacts(10));
+ *     MaileonClient client = stubs.client(stub);
+ *     ...
+ * }
+ * </pre>
+ *
+ */
+public class MaileonStubExtension implements AfterEachCallback {
+
+    private final Deque<Closeable> resources = new ArrayDeque<>();
+
+    /**
+     * Starts a stub server, closed after the test.
+     *
+     * @param stub the configured stub server
+     * @return the started stub server
+     * @throws IOException if the server cannot be started
+     */
+    public MaileonStubServer start(MaileonStubServer stub) throws IOException {
+        resources.push(stub.start());
+        return stub;
+    }
+
+    /**
+     * Creates a client of a stub server with the default configuration, closed after the test.
+     *
+     * @param stub the started stub server
+     * @return the client
+     */
+    public MaileonClient client(MaileonStubServer stub) {
+        return client(stub, config -> {
+        });
+    }
+
+    /**
+     * Creates a client of a stub server, closed after the test.
+     *
+     * @param stub the started stub server
+     * @param customizer changes the configuration before the client is created
+     * @return the client
+     */
+    public MaileonClient client(MaileonStubServer stub, Consumer<MaileonConfiguration> customizer) {
+        MaileonConfiguration config = config(stub);
+        customizer.accept(config);
+        MaileonClient client = new MaileonClient(config);
+        resources.push(client);
+        return client;
+    }
+
+    /**
+     * Creates the default configuration of a stub server, e.g. for services creating their own client.
+     *
+     * @param stub the started stub server
+     * @return the configuration
+     */
+    public MaileonConfiguration config(MaileonStubServer stub) {
+        return new MaileonConfiguration(stub.getBaseUri(), "stub");
+    }
+
+    /**
+     * Closes a resource after the test.
+     *
+     * @param resource the resource, e.g. a service with its own client
+     * @return the resource
+     */
+    public <T extends Closeable> T closeAfter(T resource) {
+        resources.push(resource);
+        return resource;
+    }
+
+    /**
+     * Gets the running threads which keep the JVM from exiting.
+     *
+     * @return the alive non-daemon threads
+     */
+    public static Set<Thread> nonDaemonThreads() {
+        return Thread.getAllStackTraces().keySet().stream().filter(t -> t.isAlive() && !t.isDaemon()).collect(Collectors.toSet());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) throws IOException {
+        while (!resources.isEmpty()) {
+            resources.pop().close();
+        }
+    }
+}
@@ -0,0 +1,639 @@
+package com.maileon.api.stub;
+
+import com.maileon.api.DateTimeConstants;
+import com.maileon.api.XmlUtils;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.dom4j.Element;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * The <code>MaileonStubServer</code> imitates the Maileon REST API in memory, so the services can be tested and load tested without an account.
+ * <p>
+ * It serves the contacts, transactions, mailings and contact filters endpoints used by the client, answers list requests with the <code>X-Items</code> and
+ * <code>X-Pages</code> headers, compresses responses if the client accepts gzip and decompresses gzip request bodies. Latency and <code>429 Too Many Requests</code>
+ * answers can be injected to test the timeout, retry and rate limiting behaviour of the client.</p>
+ *
+ * <pre>
+ * try (MaileonStubServer stub = new MaileonStubServer().withContacts(10000).start()) {
+ *     MaileonConfiguration config = new MaileonConfiguration(stub.getBaseUri(), "stub");
+ *     ...
+ * }
+ * </pre>
+ *
+ */
+public class MaileonStubServer implements Closeable {
+
+    private static final String XML_TYPE = "application/vnd.maileon.api+xml; charset=utf-8";
+
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+    /**
+     * The <code>updated</code> timestamp of generated contacts.
+     */
+    public static final String GENERATED_UPDATED = "2020-01-01 00:00:00";
+
+    private final NavigableMap<Long, StubContact> contacts = new ConcurrentSkipListMap<>();
+
+    private final Map<String, Long> contactIdsByEmail = new ConcurrentHashMap<>();
+
+    private final Map<String, String> customFieldTypes = new ConcurrentSkipListMap<>();
+
+    private final NavigableMap<Long, String> transactionTypes = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong nextTransactionTypeId = new AtomicLong(1L);
+
+    private final AtomicLong nextContactId = new AtomicLong(1L);
+
+    private final AtomicLong transactionCount = new AtomicLong();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private final AtomicInteger throttledCount = new AtomicInteger();
+
+    private final int threads;
+
+    private int mailings = 100;
+
+    private int contactFilters = 10;
+
+    private volatile long latencyMillis;
+
+    private volatile int throttleEvery;
+
+    private volatile int retryAfterSeconds = 1;
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    /**
+     * Instantiates a new stub server handling requests with 16 threads.
+     */
+    public MaileonStubServer() {
+        this(16);
+    }
+
+    /**
+     * Instantiates a new stub server.
+     *
+     * @param threads the number of threads handling requests
+     */
+    public MaileonStubServer(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be > 0 - found: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Adds generated contacts with the emails <code>contact1@example.com</code>, <code>contact2@example.com</code>, ...
+     *
+     * @param count the number of contacts to add
+     * @return this server
+     */
+    public MaileonStubServer withContacts(int count) {
+        for (int i = 0; i < count; i++) {
+            long id = nextContactId.getAndIncrement();
+            StubContact contact = new StubContact(id, "contact" + id + "@example.com");
+            contact.externalId = "ext-" + id;
+            contact.updated = GENERATED_UPDATED;
+            contact.standardFields.put("FIRSTNAME", "First" + id);
+            contact.standardFields.put("LASTNAME", "Last" + id);
+            contact.customFields.put("segment", id % 2 == 0 ? "gold" : "silver");
+            contacts.put(id, contact);
+            contactIdsByEmail.put(contact.email, id);
+        }
+        return this;
+    }
+
+    /**
+     * Defines a custom contact field.
+     *
+     * @param name the name of the field
+     * @param type the type of the field
+     * @return this server
+     */
+    public MaileonStubServer withCustomField(String name, String type) {
+        customFieldTypes.put(name, type);
+        return this;
+    }
+
+    /**
+     * Defines a transaction type with the next id.
+     *
+     * @param name the name of the type
+     * @return this server
+     */
+    public MaileonStubServer withTransactionType(String name) {
+        transactionTypes.put(nextTransactionTypeId.getAndIncrement(), name);
+        return this;
+    }
+
+    /**
+     * Sets the number of mailings returned by the mailing filters, 100 by default.
+     *
+     * @param count the number of mailings
+     * @return this server
+     */
+    public MaileonStubServer withMailings(int count) {
+        this.mailings = count;
+        return this;
+    }
+
+    /**
+     * Sets the number of contact filters, 10 by default.
+     *
+     * @param count the number of contact filters
+     * @return this server
+     */
+    public MaileonStubServer withContactFilters(int count) {
+        this.contactFilters = count;
+        return this;
+    }
+
+    /**
+     * Sets the time each request is delayed before it is answered.
+     *
+     * @param latencyMillis the delay in milliseconds, 0 to answer immediately
+     * @return this server
+     */
+    public MaileonStubServer setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    /**
+     * Answers every n-th request with <code>429 Too Many Requests</code>.
+     *
+     * @param throttleEvery n, 0 to disable throttling
+     * @return this server
+     */
+    public MaileonStubServer setThrottleEvery(int throttleEvery) {
+        this.throttleEvery = throttleEvery;
+        return this;
+    }
+
+    /**
+     * Sets the value of the <code>Retry-After</code> header of throttled responses.
+     *
+     * @param retryAfterSeconds the seconds, a negative value to omit the header
+     * @return this server
+     */
+    public MaileonStubServer setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+        return this;
+    }
+
+    /**
+     * Starts the server on a free port of the loopback interface.
+     *
+     * @return this server
+     * @throws IOException if the server cannot be bound
+     */
+    public MaileonStubServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "maileon-stub");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    /**
+     * Gets the base URI to configure the client with.
+     *
+     * @return the base URI
+     */
+    public String getBaseUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/1.0";
+    }
+
+    /**
+     * Gets the number of requests received.
+     *
+     * @return the number of requests
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Gets the number of requests answered with <code>429 Too Many Requests</code>.
+     *
+     * @return the number of throttled requests
+     */
+    public int getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    /**
+     * Gets the number of contacts stored.
+     *
+     * @return the number of contacts
+     */
+    public int getContactCount() {
+        return contacts.size();
+    }
+
+    /**
+     * Gets the number of transactions received.
+     *
+     * @return the number of transactions
+     */
+    public long getTransactionCount() {
+        return transactionCount.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            int n = requestCount.incrementAndGet();
+            if (latencyMillis > 0L) {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            }
+            if (throttleEvery > 0 && n % throttleEvery == 0) {
+                // read the request first, so the client does not fail writing it
+                IOUtils.consume(exchange.getRequestBody());
+                throttledCount.incrementAndGet();
+                if (retryAfterSeconds >= 0) {
+                    exchange.getResponseHeaders().set("Retry-After", Integer.toString(retryAfterSeconds));
+                }
+                send(exchange, 429, null, null);
+                return;
+            }
+            route(exchange, new Request(exchange));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            send(exchange, 503, null, null);
+        } catch (RuntimeException | ParseException e) {
+            send(exchange, 400, XML_TYPE, "<error><message>" + e + "</message></error>");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange, Request request) throws IOException, ParseException {
+        String[] path = request.path;
+        String method = exchange.getRequestMethod();
+        String resource = path.length > 0 ? path[0] : "";
+        if ("contacts".equals(resource)) {
+            if (path.length == 1 && "GET".equals(method)) {
+                sendPage(exchange, request, "contacts", updatedContacts(request), "page_index", "page_size");
+            } else if (path.length == 1 && "POST".equals(method)) {
+                synchronizeContacts(exchange, request);
+            } else if (path.length == 2 && "count".equals(path[1])) {
+                send(exchange, 200, XML_TYPE, "<count>" + updatedContacts(request).size() + "</count>");
+            } else if (path.length == 3 && "filter".equals(path[1])) {
+                sendPage(exchange, request, "contacts", new ArrayList<>(contacts.values()), "page_index", "page_size");
+            } else if (path.length >= 3 && "fields".equals(path[1]) && "custom".equals(path[2])) {
+                customFields(exchange, request);
+            } else if (path.length == 3 && "GET".equals(method) && "emails".equals(path[1])) {
+                Long id = contactIdsByEmail.get(path[2]);
+                send(exchange, 200, XML_TYPE, "<contacts>" + (id == null ? "" : contacts.get(id).toXml()) + "</contacts>");
+            } else if (path.length == 3 && "GET".equals(method) && "externalid".equals(path[1])) {
+                StringBuilder sb = new StringBuilder("<contacts>");
+                for (StubContact contact : contacts.values()) {
+                    if (path[2].equals(contact.externalId)) {
+                        sb.append(contact.toXml());
+                    }
+                }
+                send(exchange, 200, XML_TYPE, sb.append("</contacts>").toString());
+            } else if (path.length >= 3 && "email".equals(path[1])) {
+                Long id = contactIdsByEmail.get(path[2]);
+                if (id == null) {
+                    send(exchange, 404, null, null);
+                } else if ("DELETE".equals(method) && path.length == 3) {
+                    contactIdsByEmail.remove(path[2]);
+                    contacts.remove(id);
+                    send(exchange, 200, null, null);
+                } else if ("DELETE".equals(method)) {
+                    // unsubscribe
+                    send(exchange, 200, null, null);
+                } else {
+                    send(exchange, 200, XML_TYPE, contacts.get(id).toXml());
+                }
+            } else {
+                send(exchange, 404, null, null);
+            }
+        } else if ("transactions".equals(resource)) {
+            if (path.length == 1 && "POST".equals(method)) {
+                createTransactions(exchange, request);
+            } else if (path.length >= 2 && "types".equals(path[1])) {
+                transactionTypes(exchange, request);
+            } else {
+                send(exchange, 404, null, null);
+            }
+        } else if ("mailings".equals(resource) && path.length >= 2 && "filter".equals(path[1])) {
+            List<String> items = new ArrayList<>(mailings);
+            for (int i = 1; i <= mailings; i++) {
+                items.add("<mailing><id>" + i + "</id><fields><field><name>state</name><value>released</value></field>"
+                        + "<field><name>name</name><value>Mailing " + i + "</value></field></fields></mailing>");
+            }
+            sendPage(exchange, request, "mailings", items, "page_index", "page_size");
+        } else if ("contactfilters".equals(resource)) {
+            if (path.length == 2 && "count".equals(path[1])) {
+                send(exchange, 200, XML_TYPE, "<count>" + contactFilters + "</count>");
+            } else if (path.length == 1) {
+                List<String> items = new ArrayList<>(contactFilters);
+                for (int i = 1; i <= contactFilters; i++) {
+                    items.add("<contactfilter><id>" + i + "</id><name>Filter " + i + "</name><author>stub</author><state>uptodate</state>"
+                            + "<count_contacts>" + contacts.size() + "</count_contacts><count_rules>1</count_rules></contactfilter>");
+                }
+                sendPage(exchange, request, "contactfilters", items, "pageIndex", "pageSize");
+            } else {
+                send(exchange, 404, null, null);
+            }
+        } else {
+            send(exchange, 404, null, null);
+        }
+    }
+
+    private void synchronizeContacts(HttpExchange exchange, Request request) throws IOException {
+        Element root = XmlUtils.parseXml(new String(request.body, StandardCharsets.UTF_8));
+        int created = 0;
+        int existing = 0;
+        for (Element e : root.elements("contact")) {
+            String email = e.elementText("email");
+            Long id = contactIdsByEmail.get(email);
+            StubContact contact;
+            if (id == null) {
+                contact = new StubContact(nextContactId.getAndIncrement(), email);
+                created++;
+            } else {
+                contact = new StubContact(id, email);
+                existing++;
+            }
+            contact.externalId = e.elementText("external_id");
+            contact.updated = new SimpleDateFormat(DateTimeConstants.SQL_DATE_TIME_FORMAT, Locale.ENGLISH).format(new Date());
+            readFields(e.element("standard_fields"), contact.standardFields);
+            readFields(e.element("custom_fields"), contact.customFields);
+            contacts.put(contact.id, contact);
+            contactIdsByEmail.put(email, contact.id);
+        }
+        send(exchange, 201, XML_TYPE, "<response><success>true</success><count_contacts>" + (created + existing) + "</count_contacts>"
+                + "<count_new_contacts>" + created + "</count_new_contacts><count_existing_contacts>" + existing + "</count_existing_contacts>"
+                + "<count_unsubscribed_contacts>0</count_unsubscribed_contacts><count_invalid_contacts>0</count_invalid_contacts><invalid_contacts/></response>");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void createTransactions(HttpExchange exchange, Request request) throws IOException, ParseException {
+        JSONArray transactions = (JSONArray) new JSONParser().parse(new String(request.body, StandardCharsets.UTF_8));
+        JSONArray reports = new JSONArray();
+        for (Object o : transactions) {
+            JSONObject report = new JSONObject();
+            report.put("contact", ((JSONObject) o).get("contact"));
+            report.put("queued", Boolean.TRUE);
+            report.put("transaction_id", Long.toString(transactionCount.incrementAndGet()));
+            reports.add(report);
+        }
+        JSONObject result = new JSONObject();
+        result.put("reports", reports);
+        send(exchange, 201, JSON_TYPE, result.toJSONString());
+    }
+
+    private List<StubContact> updatedContacts(Request request) {
+        String updatedAfter = request.params.get("updated_after");
+        List<StubContact> result = new ArrayList<>();
+        for (StubContact contact : contacts.values()) {
+            // the timestamps are formatted alike, so they compare as strings
+            if (updatedAfter == null || contact.updated.compareTo(updatedAfter) > 0) {
+                result.add(contact);
+            }
+        }
+        return result;
+    }
+
+    private static void readFields(Element fields, Map<String, String> target) {
+        if (fields != null) {
+            for (Element field : fields.elements("field")) {
+                target.put(field.elementText("name"), field.elementText("value"));
+            }
+        }
+    }
+
+    private static void sendPage(HttpExchange exchange, Request request, String root, List<?> items, String indexParam, String sizeParam) throws IOException {
+        int pageIndex = request.intParam(indexParam, 1);
+        int pageSize = request.intParam(sizeParam, 100);
+        int pages = (items.size() + pageSize - 1) / pageSize;
+        StringBuilder sb = new StringBuilder(4096).append('<').append(root).append('>');
+        int from = (pageIndex - 1) * pageSize;
+        for (int i = from; i < Math.min(items.size(), from + pageSize); i++) {
+            Object item = items.get(i);
+            sb.append(item instanceof StubContact ? ((StubContact) item).toXml() : item);
+        }
+        sb.append("</").append(root).append('>');
+        exchange.getResponseHeaders().set("X-Items", Integer.toString(items.size()));
+        exchange.getResponseHeaders().set("X-Pages", Integer.toString(pages));
+        send(exchange, 200, XML_TYPE, sb.toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        headers.set("Content-Type", contentType);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            headers.set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void customFields(HttpExchange exchange, Request request) throws IOException {
+        String[] path = request.path;
+        String method = exchange.getRequestMethod();
+        if (path.length == 3 && "GET".equals(method)) {
+            StringBuilder sb = new StringBuilder("<custom_fields>");
+            for (Map.Entry<String, String> field : customFieldTypes.entrySet()) {
+                sb.append("<custom_field><name>").append(field.getKey()).append("</name><type>").append(field.getValue()).append("</type></custom_field>");
+            }
+            send(exchange, 200, XML_TYPE, sb.append("</custom_fields>").toString());
+        } else if (path.length == 4 && "POST".equals(method)) {
+            customFieldTypes.put(path[3], request.params.get("type"));
+            send(exchange, 201, null, null);
+        } else if (path.length == 4 && "DELETE".equals(method)) {
+            customFieldTypes.remove(path[3]);
+            send(exchange, 200, null, null);
+        } else if (path.length == 5 && "PUT".equals(method)) {
+            customFieldTypes.put(path[4], customFieldTypes.remove(path[3]));
+            send(exchange, 200, null, null);
+        } else {
+            send(exchange, 404, null, null);
+        }
+    }
+
+    private void transactionTypes(HttpExchange exchange, Request request) throws IOException, ParseException {
+        String[] path = request.path;
+        String method = exchange.getRequestMethod();
+        if (path.length == 3 && "count".equals(path[2])) {
+            send(exchange, 200, XML_TYPE, "<count>" + transactionTypes.size() + "</count>");
+        } else if (path.length == 2 && "GET".equals(method)) {
+            List<String> items = new ArrayList<>(transactionTypes.size());
+            for (Map.Entry<Long, String> type : transactionTypes.entrySet()) {
+                items.add("<transaction_type><id>" + type.getKey() + "</id><name>" + type.getValue() + "</name><attributes/></transaction_type>");
+            }
+            sendPage(exchange, request, "transaction_types", items, "page_index", "page_size");
+        } else if (path.length == 2 && "POST".equals(method)) {
+            String body = new String(request.body, StandardCharsets.UTF_8);
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            String name = contentType != null && contentType.startsWith("application/json")
+                    ? (String) ((JSONObject) new JSONParser().parse(body)).get("name")
+                    : XmlUtils.parseXml(body).elementText("name");
+            if (transactionTypes.containsValue(name)) {
+                send(exchange, 409, XML_TYPE, "<error><message>transaction type " + name + " already exists</message></error>");
+                return;
+            }
+            long id = nextTransactionTypeId.getAndIncrement();
+            transactionTypes.put(id, name);
+            send(exchange, 201, XML_TYPE, "<id>" + id + "</id>");
+        } else if (path.length == 3 && "DELETE".equals(method)) {
+            boolean removed = path[2].matches("\\d+") ? transactionTypes.remove(Long.valueOf(path[2])) != null : transactionTypes.values().remove(path[2]);
+            send(exchange, removed ? 200 : 404, null, null);
+        } else {
+            send(exchange, 404, null, null);
+        }
+    }
+
+    /**
+     * A parsed request.
+     */
+    private static final class Request {
+
+        private final String[] path;
+
+        private final Map<String, String> params = new LinkedHashMap<>();
+
+        private final byte[] body;
+
+        Request(HttpExchange exchange) throws IOException {
+            String p = exchange.getRequestURI().getRawPath();
+            if (p.startsWith("/1.0/")) {
+                p = p.substring("/1.0/".length());
+            }
+            String[] segments = p.split("/");
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = URLDecoder.decode(segments[i], "UTF-8");
+            }
+            path = segments;
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query != null) {
+                for (String param : query.split("&")) {
+                    int eq = param.indexOf('=');
+                    if (eq > 0) {
+                        params.putIfAbsent(URLDecoder.decode(param.substring(0, eq), "UTF-8"), URLDecoder.decode(param.substring(eq + 1), "UTF-8"));
+                    }
+                }
+            }
+            InputStream in = exchange.getRequestBody();
+            if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                in = new GZIPInputStream(in);
+            }
+            body = IOUtils.toByteArray(in);
+        }
+
+        int intParam(String name, int defaultValue) {
+            String value = params.get(name);
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        }
+    }
+
+    /**
+     * A stored contact.
+     */
+    private static final class StubContact {
+
+        private final long id;
+
+        private final String email;
+
+        private String externalId;
+
+        private String updated;
+
+        private final Map<String, String> standardFields = new LinkedHashMap<>();
+
+        private final Map<String, String> customFields = new LinkedHashMap<>();
+
+        StubContact(long id, String email) {
+            this.id = id;
+            this.email = email;
+        }
+
+        String toXml() {
+            StringBuilder sb = new StringBuilder(256).append("<contact><id>").append(id).append("</id><email>").append(escape(email)).append("</email>");
+            if (externalId != null) {
+                sb.append("<external_id>").append(escape(externalId)).append("</external_id>");
+            }
+            sb.append("<updated>").append(updated).append("</updated>");
+            appendFields(sb, "standard_fields", standardFields);
+            appendFields(sb, "custom_fields", customFields);
+            return sb.append("</contact>").toString();
+        }
+
+        private static void appendFields(StringBuilder sb, String name, Map<String, String> fields) {
+            sb.append('<').append(name).append('>');
+            for (Map.Entry<String, String> field : fields.entrySet()) {
+                sb.append("<field><name>").append(escape(field.getKey())).append("</name><value>").append(escape(field.getValue())).append("</value></field>");
+            }
+            sb.append("</").append(name).append('>');
+        }
+
+        private static String escape(String s) {
+            return s == null ? "" : s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+        }
+    }
+}
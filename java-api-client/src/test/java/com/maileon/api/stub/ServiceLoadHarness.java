@@ -0,0 +1,200 @@
+package com.maileon.api.stub;
+
+import com.maileon.api.MaileonClient;
+import com.maileon.api.MaileonConfiguration;
+import com.maileon.api.MaileonException;
+import com.maileon.api.contacts.Contact;
+import com.maileon.api.contacts.MaileonContactsService;
+import com.maileon.api.contacts.Permission;
+import com.maileon.api.contacts.SynchronizationMode;
+import com.maileon.api.metrics.MaileonMetricsListener;
+import com.maileon.api.metrics.RequestMetrics;
+import com.maileon.api.transactions.ContactReference;
+import com.maileon.api.transactions.MaileonTransactionsService;
+import com.maileon.api.transactions.Transaction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The <code>ServiceLoadHarness</code> drives the real service classes against a {@link MaileonStubServer} and reports throughput and latency percentiles per endpoint.
+ * <p>
+ * Each worker thread cycles through a mix of contact page reads, contact counts, contact synchronizations and transaction batches. Run it with
+ * <code>java ... com.maileon.api.stub.ServiceLoadHarness [name=value ...]</code>, the options are <code>threads</code>, <code>seconds</code>, <code>contacts</code>,
+ * <code>latency</code> (stub latency in ms), <code>throttle</code> (every n-th request is answered with 429) and <code>gzip</code>.</p>
+ *
+ */
+public class ServiceLoadHarness implements MaileonMetricsListener {
+
+    private final Map<String, List<Long>> latencies = new TreeMap<>();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final int threads;
+
+    private final long durationMillis;
+
+    /**
+     * Instantiates a new harness.
+     *
+     * @param threads the number of concurrent callers
+     * @param durationMillis the duration of the measurement
+     */
+    public ServiceLoadHarness(int threads, long durationMillis) {
+        this.threads = threads;
+        this.durationMillis = durationMillis;
+    }
+
+    @Override
+    public void requestCompleted(RequestMetrics metrics) {
+        String key = metrics.getMethod() + " " + metrics.getEndpointTemplate();
+        synchronized (latencies) {
+            latencies.computeIfAbsent(key, k -> new ArrayList<>()).add(metrics.getLatency(TimeUnit.MICROSECONDS));
+        }
+    }
+
+    /**
+     * Runs the load against the given configuration. The configuration gets this harness as metrics listener.
+     *
+     * @param config the configuration pointing to the stub
+     * @param compression if <code>true</code> requests and responses are compressed
+     * @return the number of completed operations
+     * @throws Exception if the workers cannot be run
+     */
+    public long run(MaileonConfiguration config, boolean compression) throws Exception {
+        config.setMetricsListener(this);
+        config.setMaxConnectionsPerRoute(Math.max(threads, config.getMaxConnectionsPerRoute()));
+        try (MaileonClient client = new MaileonClient(config)) {
+            MaileonContactsService contacts = new MaileonContactsService(client);
+            MaileonTransactionsService transactions = new MaileonTransactionsService(client);
+            contacts.setCompressionEnabled(compression);
+            contacts.setRequestCompressionEnabled(compression);
+            transactions.setCompressionEnabled(compression);
+
+            // warm up the connections and the JIT, then discard what was measured
+            runWorkers(contacts, transactions, Math.min(durationMillis / 5, 2000L));
+            synchronized (latencies) {
+                latencies.clear();
+            }
+            failures.set(0L);
+
+            long start = System.nanoTime();
+            long operations = runWorkers(contacts, transactions, durationMillis);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            report(operations, elapsedMillis, client);
+            return operations;
+        }
+    }
+
+    private long runWorkers(MaileonContactsService contacts, MaileonTransactionsService transactions, long millis) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            List<Future<Long>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int worker = t;
+                workers.add(executor.submit(() -> {
+                    long operations = 0L;
+                    while (System.nanoTime() - end < 0L) {
+                        try {
+                            runOperation(contacts, transactions, worker, operations);
+                        } catch (MaileonException e) {
+                            failures.incrementAndGet();
+                        }
+                        operations++;
+                    }
+                    return operations;
+                }));
+            }
+            long operations = 0L;
+            for (Future<Long> worker : workers) {
+                operations += worker.get();
+            }
+            return operations;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void runOperation(MaileonContactsService contacts, MaileonTransactionsService transactions, int worker, long n) throws MaileonException {
+        switch ((int) (n % 4)) {
+            case 0:
+                contacts.getContacts(null, null, (int) (n % 10) + 1, 100);
+                break;
+            case 1:
+                contacts.countContacts();
+                break;
+            case 2:
+                List<Contact> batch = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    Contact contact = new Contact();
+                    contact.setEmail("load" + worker + "-" + (n * 10 + i) % 1000 + "@example.com");
+                    contact.getCustomFields().put("segment", "load");
+                    batch.add(contact);
+                }
+                contacts.synchronizeContacts(batch, Permission.NONE, SynchronizationMode.UPDATE, false, true, false, false, false);
+                break;
+            default:
+                List<Transaction> txs = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    ContactReference contact = new ContactReference();
+                    contact.setEmail("contact" + (i + 1) + "@example.com");
+                    Transaction tx = new Transaction();
+                    tx.setType(1L);
+                    tx.setContact(contact);
+                    tx.setContent(Collections.singletonMap("order_id", worker + "-" + n + "-" + i));
+                    txs.add(tx);
+                }
+                transactions.createTransactions(txs, true, false);
+        }
+    }
+
+    private void report(long operations, long elapsedMillis, MaileonClient client) {
+        System.out.printf("%d threads, %d operations in %d ms: %.1f ops/s, %d failures, %s%n", threads, operations, elapsedMillis,
+                operations * 1000.0 / Math.max(1L, elapsedMillis), failures.get(), client.getRetryStatistics());
+        System.out.printf("%-40s %8s %8s %8s %8s %8s%n", "endpoint", "count", "p50 us", "p90 us", "p99 us", "max us");
+        synchronized (latencies) {
+            for (Map.Entry<String, List<Long>> entry : latencies.entrySet()) {
+                long[] values = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(values);
+                System.out.printf("%-40s %8d %8d %8d %8d %8d%n", entry.getKey(), values.length, percentile(values, 0.5), percentile(values, 0.9),
+                        percentile(values, 0.99), values[values.length - 1]);
+            }
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new TreeMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("options must be given as name=value - found: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        long seconds = Long.parseLong(options.getOrDefault("seconds", "10"));
+        try (MaileonStubServer stub = new MaileonStubServer(threads)
+                .withContacts(Integer.parseInt(options.getOrDefault("contacts", "10000")))
+                .setLatencyMillis(Long.parseLong(options.getOrDefault("latency", "0")))
+                .setThrottleEvery(Integer.parseInt(options.getOrDefault("throttle", "0")))
+                .setRetryAfterSeconds(0)
+                .start()) {
+            new ServiceLoadHarness(threads, TimeUnit.SECONDS.toMillis(seconds))
+                    .run(new MaileonConfiguration(stub.getBaseUri(), "stub"), Boolean.parseBoolean(options.getOrDefault("gzip", "false")));
+            System.out.printf("stub: %d requests, %d throttled%n", stub.getRequestCount(), stub.getThrottledCount());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.maileon.api.transactions;
+
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class TransactionBatcherStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testTransactionBatcher() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().setLatencyMillis(20L));
+        List<CompletableFuture<TransactionProcessingReport>> futures = new ArrayList<>();
+        try (TransactionBatcher batcher = new TransactionBatcher(stubs.client(stub)).setBatchSize(100).setLingerMillis(10L).setQueueCapacity(500)) {
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int producer = t;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        ContactReference contact = new ContactReference();
+                        contact.setEmail("batch" + producer + "-" + i + "@example.com");
+                        Transaction transaction = new Transaction();
+                        transaction.setType(1L);
+                        transaction.setContact(contact);
+                        CompletableFuture<TransactionProcessingReport> future = batcher.submit(transaction);
+                        synchronized (futures) {
+                            futures.add(future.thenApply(report -> {
+                                assertEquals(contact.getEmail(), report.getContact().getEmail());
+                                return report;
+                            }));
+                        }
+                    }
+                });
+                thread.start();
+                producers.add(thread);
+            }
+            for (Thread thread : producers) {
+                thread.join();
+            }
+        }
+        for (CompletableFuture<TransactionProcessingReport> future : futures) {
+            assertTrue(future.getNow(null).isQueued());
+        }
+        assertEquals(2000, futures.size());
+        assertEquals(2000L, stub.getTransactionCount());
+        assertTrue(stub.getRequestCount() < 100, "requests: " + stub.getRequestCount());
+    }
+
+    @Test
+    public void testInterruptedSenderClosesBatcher() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().setLatencyMillis(500L));
+        try (TransactionBatcher batcher = new TransactionBatcher(stubs.client(stub)).setBatchSize(1).setLingerMillis(0L).setMaxInFlight(1)) {
+            CompletableFuture<TransactionProcessingReport> sent = batcher.submit(transaction("sent@example.com"));
+            // taken by the sender, which waits for the request of the first batch
+            CompletableFuture<TransactionProcessingReport> inHand = batcher.submit(transaction("in-hand@example.com"));
+            Thread.sleep(100L);
+            CompletableFuture<TransactionProcessingReport> queued = batcher.submit(transaction("queued@example.com"));
+
+            Thread sender = Thread.getAllStackTraces().keySet().stream().filter(t -> t.getName().equals("maileon-transaction-batcher")).findFirst().get();
+            sender.interrupt();
+            sender.join(5000L);
+
+            assertThrows(ExecutionException.class, inHand::get);
+            assertThrows(ExecutionException.class, queued::get);
+            assertThrows(IllegalStateException.class, () -> batcher.submit(transaction("rejected@example.com")));
+            assertTrue(sent.get().isQueued());
+        }
+    }
+
+    private static Transaction transaction(String email) {
+        ContactReference contact = new ContactReference();
+        contact.setEmail(email);
+        Transaction transaction = new Transaction();
+        transaction.setType(1L);
+        transaction.setContact(contact);
+        return transaction;
+    }
+}
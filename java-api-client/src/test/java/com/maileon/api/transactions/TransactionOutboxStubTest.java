@@ -0,0 +1,147 @@
+package com.maileon.api.transactions;
+
+import com.maileon.api.MaileonClient;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.json.simple.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class TransactionOutboxStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    private Path directory;
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        directory = Files.createTempDirectory("maileon-outbox");
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testTransactionOutbox() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer());
+        MaileonClient client = stubs.client(stub);
+        try (TransactionOutbox outbox = new TransactionOutbox(directory, 4096);
+                TransactionBatcher batcher = new TransactionBatcher(client).setOutbox(outbox).setLingerMillis(0L)) {
+            List<CompletableFuture<TransactionProcessingReport>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(batcher.submit(transaction("sent" + i + "@example.com")));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+            assertEquals(0, outbox.getPendingCount());
+
+            // written but never sent, as if the JVM died
+            outbox.append(transaction("lost1@example.com"));
+            outbox.append(transaction("lost2@example.com"));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1L, files.count());
+        }
+
+        try (TransactionOutbox outbox = new TransactionOutbox(directory, 4096);
+                TransactionBatcher batcher = new TransactionBatcher(client).setOutbox(outbox)) {
+            assertEquals(2, outbox.getPendingCount());
+            assertEquals("lost1@example.com", outbox.getPendingEntries().get(0).getTransaction().getContact().getEmail());
+            List<CompletableFuture<TransactionProcessingReport>> futures = batcher.replayOutbox();
+            assertEquals(2, futures.size());
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+            assertEquals(0, outbox.getPendingCount());
+        }
+        assertEquals(102L, stub.getTransactionCount());
+    }
+
+    @Test
+    public void testClosedBatcherKeepsNoRejectedTransaction() throws Exception {
+        MaileonClient client = stubs.client(stubs.start(new MaileonStubServer()));
+        TransactionBatcher[] batcher = new TransactionBatcher[1];
+        // closes the batcher after submit checked it, as a concurrent close() may
+        try (TransactionOutbox outbox = new TransactionOutbox(directory, 4096) {
+            @Override
+            public long append(Transaction transaction) throws IOException {
+                batcher[0].close();
+                return super.append(transaction);
+            }
+        }) {
+            batcher[0] = new TransactionBatcher(client).setOutbox(outbox);
+            assertThrows(IllegalStateException.class, () -> batcher[0].submit(transaction("rejected@example.com")));
+            assertEquals(0, outbox.getPendingCount());
+
+            // a rejected replay keeps the entries for the next one
+            outbox.append(transaction("pending@example.com"));
+            assertThrows(IllegalStateException.class, batcher[0]::replayOutbox);
+            assertEquals(1, outbox.getPendingCount());
+        }
+    }
+
+    @Test
+    public void testAcknowledgedSegmentsAreUnmapped() throws Exception {
+        try (TransactionOutbox outbox = new TransactionOutbox(directory, 1024)) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                ids.add(outbox.append(transaction("mapped" + i + "@example.com")));
+            }
+            long segments;
+            try (Stream<Path> files = Files.list(directory)) {
+                segments = files.count();
+            }
+            assertEquals(segments * 1024L, outbox.getMappedBytes());
+            for (long id : ids) {
+                outbox.acknowledge(id);
+            }
+            // only the current segment is left
+            assertEquals(1024L, outbox.getMappedBytes());
+            long next = outbox.append(transaction("next@example.com"));
+            assertEquals(ids.get(ids.size() - 1) >>> 32, next >>> 32);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNonAsciiContentSurvives() throws Exception {
+        // a JSONObject in the content is written by its own toJSONString()
+        JSONObject nested = new JSONObject();
+        nested.put("greeting", "Gr\u00fc\u00dfe \ud83d\ude00");
+        Transaction transaction = transaction("unicode@example.com");
+        transaction.setContent(Collections.singletonMap("nested", nested));
+        try (TransactionOutbox outbox = new TransactionOutbox(directory, 4096)) {
+            outbox.append(transaction);
+            Map<String, Object> content = (Map<String, Object>) outbox.getPendingEntries().get(0).getTransaction().getContent();
+            assertEquals("Gr\u00fc\u00dfe \ud83d\ude00", ((Map<String, Object>) content.get("nested")).get("greeting"));
+        }
+    }
+
+    static Transaction transaction(String email) {
+        ContactReference contact = new ContactReference();
+        contact.setEmail(email);
+        Transaction transaction = new Transaction();
+        transaction.setType(1L);
+        transaction.setContact(contact);
+        transaction.setContent(Collections.singletonMap("order_id", email));
+        return transaction;
+    }
+}
@@ -0,0 +1,81 @@
+package com.maileon.api.transactions;
+
+import com.maileon.api.MaileonClient;
+import com.maileon.api.MaileonNotFoundException;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class TransactionTypeRegistryStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testTransactionTypeRegistry() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withTransactionType("order").withTransactionType("cart_abandoned"));
+        TransactionTypeRegistry registry = new TransactionTypeRegistry(stubs.client(stub));
+        assertEquals(2L, registry.getId("cart_abandoned"));
+        assertEquals("order", registry.getType(1L).getName());
+        assertEquals(1L, registry.getId("order"));
+        assertEquals(1, stub.getRequestCount());
+        assertThrows(MaileonNotFoundException.class, () -> registry.getId("unknown"));
+
+        TransactionType type = new TransactionType();
+        type.setName("newsletter_signup");
+        long id = registry.getService().createTransactionType(type);
+        assertEquals(id, registry.getId("newsletter_signup"));
+
+        registry.getService().deleteTransactionType(1L);
+        assertFalse(registry.contains("order"));
+        assertEquals(2, registry.getTypes().size());
+    }
+
+    @Test
+    public void testUnknownTypeReloadsRegistry() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withTransactionType("order"));
+        MaileonClient client = stubs.client(stub);
+        TransactionTypeRegistry registry = new TransactionTypeRegistry(client);
+        assertEquals(1L, registry.getId("order"));
+
+        // created elsewhere, found by the reload on the miss
+        stub.withTransactionType("created_elsewhere");
+        registry.setMissReloadIntervalMillis(0L);
+        assertEquals(2L, registry.getId("created_elsewhere"));
+        assertEquals(2, stub.getRequestCount());
+
+        // misses within the interval do not reload
+        registry.setMissReloadIntervalMillis(60000L);
+        assertThrows(MaileonNotFoundException.class, () -> registry.getId("unknown"));
+        assertThrows(MaileonNotFoundException.class, () -> registry.getId("unknown"));
+        assertEquals(2, stub.getRequestCount());
+
+        // the asynchronous service of the same client invalidates the registry
+        TransactionType type = new TransactionType();
+        type.setName("async_created");
+        long id = new MaileonTransactionsServiceAsync(client).createTransactionType(type).get();
+        assertEquals(id, registry.getId("async_created"));
+    }
+
+    @Test
+    public void testRefreshAhead() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withTransactionType("order"));
+        TransactionTypeRegistry registry = new TransactionTypeRegistry(stubs.client(stub)).setTtlMillis(1000L);
+        assertEquals(1L, registry.getId("order"));
+        stub.withTransactionType("refreshed");
+
+        // the reload starts before the types expire
+        Thread.sleep(850L);
+        assertEquals(1, registry.getTypes().size());
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (registry.getTypes().size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(2, registry.getTypes().size());
+        assertEquals(2, stub.getRequestCount());
+    }
+}
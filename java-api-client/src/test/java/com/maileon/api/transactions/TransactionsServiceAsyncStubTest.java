@@ -0,0 +1,39 @@
+package com.maileon.api.transactions;
+
+import com.maileon.api.MaileonBadRequestException;
+import com.maileon.api.MaileonNotFoundException;
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import java.util.concurrent.ExecutionException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class TransactionsServiceAsyncStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testAsyncTransactionTypes() throws Exception {
+        MaileonStubServer stub = stubs.start(new MaileonStubServer().withTransactionType("order"));
+        MaileonTransactionsServiceAsync transactionsService = new MaileonTransactionsServiceAsync(stubs.client(stub));
+
+        TransactionType type = new TransactionType();
+        type.setName("cart_abandoned");
+        assertEquals(Long.valueOf(2L), transactionsService.createTransactionTypeByExample(type, "{\"order_id\": \"1\", \"total\": 10}").get());
+        assertEquals(Integer.valueOf(2), transactionsService.getTransactionTypesCount().get());
+
+        ExecutionException conflict = assertThrows(ExecutionException.class, () -> transactionsService.createTransactionTypeByExample(type, "{}").get());
+        assertTrue(conflict.getCause() instanceof MaileonBadRequestException, conflict.getCause().toString());
+        assertEquals(409, ((MaileonBadRequestException) conflict.getCause()).getStatusCode());
+
+        ExecutionException notFound = assertThrows(ExecutionException.class, () -> transactionsService.deleteTransactionType(99L).get());
+        assertTrue(notFound.getCause() instanceof MaileonNotFoundException, notFound.getCause().toString());
+
+        ExecutionException invalid = assertThrows(ExecutionException.class, () -> transactionsService.createTransactionTypeByExample(type, "not json").get());
+        assertTrue(invalid.getCause() instanceof IllegalArgumentException);
+    }
+}
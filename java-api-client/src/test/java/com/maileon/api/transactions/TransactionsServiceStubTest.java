@@ -0,0 +1,88 @@
+package com.maileon.api.transactions;
+
+import com.maileon.api.stub.MaileonStubExtension;
+import com.maileon.api.stub.MaileonStubServer;
+import com.maileon.api.transactions.serializer.TransactionsJsonSerializer;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+public class TransactionsServiceStubTest {
+
+    @RegisterExtension
+    final MaileonStubExtension stubs = new MaileonStubExtension();
+
+    @Test
+    public void testTransactions() throws Exception {
+        MaileonTransactionsService transactionsService = new MaileonTransactionsService(stubs.client(stubs.start(new MaileonStubServer())));
+
+        ContactReference contact = new ContactReference();
+        contact.setEmail("contact1@example.com");
+        Transaction transaction = new Transaction();
+        transaction.setType(1L);
+        transaction.setContact(contact);
+        transaction.setContent(Collections.singletonMap("order_id", "42"));
+        List<TransactionProcessingReport> reports = transactionsService.createTransactions(Collections.singletonList(transaction), true, false);
+        assertEquals(1, reports.size());
+        assertTrue(reports.get(0).isQueued());
+    }
+
+    @Test
+    public void testStreamedTransactionJson() throws Exception {
+        ContactReference contact = new ContactReference();
+        contact.setEmail("müller+\"quoted\"@example.com");
+        ImportContactReference importReference = new ImportContactReference();
+        importReference.setExternalId("ext-☃😀");
+        importReference.setPermission(1);
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("text", "line\nbreak\ttab\\ \u0001");
+        content.put("total", 12.5d);
+        content.put("items", Arrays.asList(1L, true, null, Collections.singletonMap("sku", "A/1")));
+        Transaction transaction = new Transaction();
+        transaction.setType(7L);
+        transaction.setContact(contact);
+        transaction.setImportReference(importReference);
+        transaction.setContent(content);
+        transaction.addAttachment("a.txt", "text/plain", "attached".getBytes(StandardCharsets.UTF_8));
+        byte[] receipt = new byte[100001];
+        new Random(7L).nextBytes(receipt);
+        Path file = Files.createTempFile("receipt", ".pdf");
+        try {
+            Files.write(file, receipt);
+            transaction.addAttachment("receipt.pdf", "application/pdf", file);
+            assertTrue(transaction.getAttachments().get(1).isStreamed());
+            // a File is still read immediately
+            Transaction eager = new Transaction();
+            eager.addAttachment("receipt.pdf", "application/pdf", file.toFile());
+            assertFalse(eager.getAttachments().get(0).isStreamed());
+            List<Transaction> transactions = Arrays.asList(transaction, new Transaction());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            TransactionsJsonSerializer.write(transactions, out);
+            JSONParser parser = new JSONParser();
+            JSONArray streamed = (JSONArray) parser.parse(out.toString("UTF-8"));
+            assertEquals(parser.parse(TransactionsJsonSerializer.serialize(transactions).toJSONString()), streamed);
+            JSONObject attachment = (JSONObject) ((JSONArray) ((JSONObject) streamed.get(0)).get("attachments")).get(1);
+            assertArrayEquals(receipt, Base64.getDecoder().decode((String) attachment.get("data")));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.maileon.api;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.Invocation.Builder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the assembly of a request (target, query parameters and headers) without sending it.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBuilderBenchmark {
+
+    private MaileonClient client;
+
+    private BenchmarkService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        client = new MaileonClient(new MaileonConfiguration("https://api.maileon.com/1.0", "benchmark"));
+        service = new BenchmarkService(client);
+        service.setCompressionEnabled(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public Builder getBuilder() {
+        AbstractMaileonService.QueryParameters params = new AbstractMaileonService.QueryParameters("page_index", 1);
+        params.add("page_size", 1000);
+        params.add("standard_field", "FIRSTNAME");
+        params.add("standard_field", "LASTNAME");
+        return service.getBuilder("contacts", params);
+    }
+
+    private static final class BenchmarkService extends AbstractMaileonService {
+
+        BenchmarkService(MaileonClient client) {
+            super(client, "BENCHMARK SERVICE");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.maileon.api;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.dom4j.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing of response bodies, from a string as for buffered responses and from a stream as for streamed responses.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XmlUtilsBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private String xml;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><contacts>");
+        for (int i = 1; i <= size; i++) {
+            sb.append("<contact><id>").append(i).append("</id><email>contact").append(i).append("@example.com</email>")
+                    .append("<standard_fields><field><name>FIRSTNAME</name><value>First").append(i).append("</value></field></standard_fields>")
+                    .append("<custom_fields><field><name>segment</name><value>gold</value></field></custom_fields></contact>");
+        }
+        xml = sb.append("</contacts>").toString();
+        bytes = xml.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Element parseString() {
+        return XmlUtils.parseXml(xml);
+    }
+
+    @Benchmark
+    public Element parseStream() {
+        return XmlUtils.parseXml(new ByteArrayInputStream(bytes));
+    }
+}
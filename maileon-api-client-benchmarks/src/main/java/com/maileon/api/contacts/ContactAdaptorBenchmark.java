@@ -0,0 +1,106 @@
+package com.maileon.api.contacts;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.dom4j.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maileon.api.XmlUtils;
+
+/**
+ * Measures the mapping of contacts to and from their XML representation.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactAdaptorBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private List<Contact> contacts;
+
+    private List<Element> contactElements;
+
+    private byte[] contactsXml;
+
+    @Setup
+    public void setUp() {
+        contacts = createContacts(size);
+        contactElements = ContactAdaptor.toXml(contacts).elements("contact");
+        contactsXml = ContactAdaptor.toXml(contacts).asXML().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Element toXml() {
+        return ContactAdaptor.toXml(contacts);
+    }
+
+    @Benchmark
+    public String toXmlString() {
+        return ContactAdaptor.toXml(contacts).asXML();
+    }
+
+    @Benchmark
+    public void writeStreaming() throws IOException {
+        ContactsXmlWriter.write(contacts, NullOutputStream.NULL_OUTPUT_STREAM);
+    }
+
+    @Benchmark
+    public List<Contact> fromXml() {
+        return ContactAdaptor.fromXml(contactElements);
+    }
+
+    @Benchmark
+    public List<Contact> parseAndFromXml() {
+        return ContactAdaptor.fromXml(XmlUtils.parseXml(new ByteArrayInputStream(contactsXml)).elements("contact"));
+    }
+
+    @Benchmark
+    public List<Contact> readStreaming() {
+        return ContactsXmlReader.read(new ByteArrayInputStream(contactsXml));
+    }
+
+    /**
+     * Creates contacts with an id, an external id, two standard and three custom fields each.
+     *
+     * @param size the number of contacts
+     * @return the contacts
+     */
+    public static List<Contact> createContacts(int size) {
+        List<Contact> result = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Contact contact = new Contact();
+            contact.setId((long) i);
+            contact.setEmail("contact" + i + "@example.com");
+            contact.setExternalId("ext-" + i);
+            contact.getStandardFields().put(StandardContactField.FIRSTNAME, "First" + i);
+            contact.getStandardFields().put(StandardContactField.LASTNAME, "Last" + i);
+            contact.getCustomFields().put("customer_no", Integer.toString(100000 + i));
+            contact.getCustomFields().put("segment", i % 2 == 0 ? "gold" : "silver");
+            contact.getCustomFields().put("newsletter", Boolean.toString(i % 3 == 0));
+            result.add(contact);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package com.maileon.api.mailings.xml;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dom4j.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maileon.api.XmlUtils;
+import com.maileon.api.mailings.Mailing;
+
+/**
+ * Measures the deserialization of a parsed list of mailings.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MailingsXmlSerializerBenchmark {
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private Element mailings;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("<mailings>");
+        for (int i = 1; i <= size; i++) {
+            sb.append("<mailing><id>").append(i).append("</id><fields>")
+                    .append("<field><name>state</name><value>released</value></field>")
+                    .append("<field><name>type</name><value>regular</value></field>")
+                    .append("<field><name>name</name><value>Mailing ").append(i).append("</value></field>")
+                    .append("</fields></mailing>");
+        }
+        mailings = XmlUtils.parseXml(sb.append("</mailings>").toString());
+    }
+
+    @Benchmark
+    public List<Mailing> deserialize() throws Exception {
+        return MailingsXmlSerializer.deserialize(mailings);
+    }
+}
@@ -0,0 +1,70 @@
+package com.maileon.api.transactions.serializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.maileon.api.transactions.ContactReference;
+import com.maileon.api.transactions.Transaction;
+
+/**
+ * Measures the serialization of transactions to the JSON request body, including the conversion to text.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionsJsonSerializerBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        transactions = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            ContactReference contact = new ContactReference();
+            contact.setEmail("contact" + i + "@example.com");
+            Map<String, Object> content = new HashMap<>();
+            content.put("order_id", "order-" + i);
+            content.put("total", i * 1.5);
+            content.put("items", i % 10);
+            Transaction transaction = new Transaction();
+            transaction.setType(1L);
+            transaction.setContact(contact);
+            transaction.setContent(content);
+            transactions.add(transaction);
+        }
+    }
+
+    @Benchmark
+    public String serialize() {
+        return TransactionsJsonSerializer.serialize(transactions).toJSONString();
+    }
+
+    @Benchmark
+    public void writeStreaming() throws IOException {
+        TransactionsJsonSerializer.write(transactions, NullOutputStream.NULL_OUTPUT_STREAM);
+    }
+}